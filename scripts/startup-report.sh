@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Starts the application with the given command and reports the time until the first request is
+# answered (a login, so the pool, Hibernate and JWT are all warmed up by then) and the resident set
+# size right after it and after 200 listing requests. Examples:
+#   scripts/startup-report.sh jvm java -jar target/Bank_REST-1.0.0.jar
+#   scripts/startup-report.sh jvm-aot java -Dspring.aot.enabled=true -jar target/Bank_REST-1.0.0.jar
+#   scripts/startup-report.sh native target/bank-cards
+set -euo pipefail
+
+label=$1
+shift
+url=${BASE_URL:-http://localhost:8081}
+login='{"username":"user","password":"admin"}'
+log="target/startup-$label.log"
+
+started=$(date +%s%N)
+"$@" > "$log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null; wait $pid 2>/dev/null || true' EXIT
+
+until token=$(curl -sf -X POST "$url/auth/login" -H 'Content-Type: application/json' -d "$login"); do
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "$label: exited before answering, see $log" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+first_request_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+rss_first_kb=$(awk '/^VmRSS/ {print $2}' /proc/$pid/status)
+
+token=$(sed -E 's/.*"token":"([^"]+)".*/\1/' <<< "$token")
+for _ in $(seq 1 200); do
+    curl -sf -o /dev/null -H "Authorization: Bearer $token" "$url/user/cards/get"
+done
+rss_warm_kb=$(awk '/^VmRSS/ {print $2}' /proc/$pid/status)
+
+printf '%s: first_request=%dms rss_first_request=%dMB rss_after_200_requests=%dMB\n' \
+    "$label" "$first_request_ms" $((rss_first_kb / 1024)) $((rss_warm_kb / 1024))
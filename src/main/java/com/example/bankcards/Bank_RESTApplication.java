@@ -1,11 +1,30 @@
 package com.example.bankcards;
 
+import com.example.bankcards.config.NativeRuntimeHints;
+import com.example.bankcards.migration.SchemaMigration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.Arrays;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class Bank_RESTApplication {
+
+    /**
+     * Startup steps kept for the startup report; a full start records a few thousand.
+     */
+    private static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(Bank_RESTApplication.class, args);
+        if (args.length > 0 && args[0].equals("migrate")) {
+            SchemaMigration.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        SpringApplication application = new SpringApplication(Bank_RESTApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 }
@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.lock.CardLockManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CardLockProperties.class)
+public class CardLockConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "transfer.card-locks", name = "enabled", havingValue = "true")
+    public CardLockManager cardLockManager(CardLockProperties properties, MeterRegistry meterRegistry) {
+        return new CardLockManager(properties, meterRegistry);
+    }
+}
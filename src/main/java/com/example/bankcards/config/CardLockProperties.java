@@ -0,0 +1,26 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transfer.card-locks")
+public class CardLockProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Number of locks the cards are spread over. Cards that share a stripe also share its queue,
+     * so it should be well above the number of concurrently transferring cards.
+     */
+    private int stripes = 64;
+
+    /**
+     * How long a transfer waits for its cards before it is rejected.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
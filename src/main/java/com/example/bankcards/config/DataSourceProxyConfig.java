@@ -0,0 +1,64 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.sql.QueryBudgetFilter;
+import com.example.bankcards.util.sql.QueryStatsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class DataSourceProxyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sql.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public QueryStatsListener queryStatsListener(SqlBudgetProperties properties) {
+        return new QueryStatsListener(properties.getSlowQueryThreshold());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sql.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                List<QueryExecutionListener> queryListeners = listeners.orderedStream().toList();
+                if (queryListeners.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                for (QueryExecutionListener listener : queryListeners) {
+                    builder.listener(listener);
+                    if (listener instanceof MethodExecutionListener methodListener) {
+                        builder.methodListener(methodListener);
+                    }
+                }
+                return builder.proxyResultSet().build();
+            }
+        };
+    }
+}
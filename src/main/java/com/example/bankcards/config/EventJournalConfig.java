@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.events.EventJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EventJournalProperties.class)
+public class EventJournalConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "event.journal", name = "enabled", havingValue = "true")
+    public EventJournal eventJournal(EventJournalProperties properties, MeterRegistry meterRegistry) {
+        return new EventJournal(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "event.journal")
+public class EventJournalProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data", "event-journal");
+
+    /**
+     * Size of each memory-mapped segment; segments are allocated at full size when created.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How often appended events are forced to disk. Events appended within one interval share a
+     * single fsync and can be lost together on power failure.
+     */
+    private Duration syncInterval = Duration.ofMillis(10);
+}
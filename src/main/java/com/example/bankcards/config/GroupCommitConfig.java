@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.groupcommit.TransferGroupCommitter;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionOperations;
+
+@Configuration
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class GroupCommitConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "transfer.group-commit", name = "enabled", havingValue = "true")
+    public TransferGroupCommitter transferGroupCommitter(CardRepository cardRepository, CardEventRecorder cardEvents,
+                                                         TransactionOperations transactionOperations,
+                                                         GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        return new TransferGroupCommitter(cardRepository, cardEvents, transactionOperations, properties, meterRegistry);
+    }
+}
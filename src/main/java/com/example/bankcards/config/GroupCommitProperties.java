@@ -0,0 +1,30 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transfer.group-commit")
+public class GroupCommitProperties {
+
+    private boolean enabled = false;
+
+    private int maxBatchSize = 64;
+
+    /**
+     * How long a batch stays open for more transfers after the first one arrives. Zero commits
+     * whatever queued up while the previous batch was committing.
+     */
+    private Duration maxWait = Duration.ofMillis(1);
+
+    private int queueCapacity = 4096;
+
+    /**
+     * How long a caller waits for its transfer to be committed before giving up on the answer.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
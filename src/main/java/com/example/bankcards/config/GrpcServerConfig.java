@@ -0,0 +1,56 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.events.EventJournal;
+import com.example.bankcards.grpc.CardGrpcService;
+import com.example.bankcards.grpc.GrpcServer;
+import com.example.bankcards.grpc.JwtServerInterceptor;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.mappers.UserMapper;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.grpc.protobuf.services.ProtoReflectionServiceV1;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * gRPC server next to the HTTP one, for service-to-service balance and transfer calls, serving the
+ * {@code bankcards.Cards} service of {@code src/main/proto/cards.proto}.
+ */
+@Configuration
+@EnableConfigurationProperties(GrpcServerProperties.class)
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true")
+public class GrpcServerConfig {
+
+    @Bean(destroyMethod = "close")
+    public CardGrpcService cardGrpcService(UserService userService, ObjectProvider<EventJournal> eventJournal, GrpcServerProperties properties) {
+        return new CardGrpcService(userService, eventJournal.getIfAvailable(), properties.getEventPollInterval());
+    }
+
+    @Bean
+    public JwtServerInterceptor jwtServerInterceptor(JwtService jwtService, UserDetailsService userDetailsService,
+                                                     UserRepository userRepository, UserMapper userMapper) {
+        return new JwtServerInterceptor(jwtService, userDetailsService, userRepository, userMapper);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public GrpcServer grpcServer(GrpcServerProperties properties, CardGrpcService service, JwtServerInterceptor jwtServerInterceptor,
+                                 MeterRegistry meterRegistry) {
+        ServerBuilder<?> server = Grpc.newServerBuilderForPort(properties.getPort(), InsecureServerCredentials.create())
+                .maxInboundMessageSize((int) properties.getMaxInboundMessageSize().toBytes())
+                .addService(ServerInterceptors.intercept(service, jwtServerInterceptor, new MetricCollectingServerInterceptor(meterRegistry)));
+        if (properties.isReflectionEnabled()) {
+            server.addService(ProtoReflectionServiceV1.newInstance());
+        }
+        return new GrpcServer(server.build(), properties.getShutdownTimeout());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "grpc.server")
+public class GrpcServerProperties {
+
+    private boolean enabled = false;
+
+    private int port = 9090;
+
+    private DataSize maxInboundMessageSize = DataSize.ofMegabytes(4);
+
+    /**
+     * Whether the server reflection service is exposed, so grpcurl and similar tools can call the
+     * service without the {@code .proto} file. It describes the schema only and needs no token.
+     */
+    private boolean reflectionEnabled = true;
+
+    /**
+     * How often an open {@code StreamCardEvents} call looks for new events in the journal.
+     */
+    private Duration eventPollInterval = Duration.ofMillis(100);
+
+    /**
+     * How long shutdown waits for in-flight calls before cancelling them.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
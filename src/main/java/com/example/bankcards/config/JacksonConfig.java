@@ -0,0 +1,40 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.PageSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.data.domain.Page;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Modules picked up by the auto-configured {@code ObjectMapper}: Blackbird replaces reflective
+ * getter calls with generated lambdas (not in a native image, which cannot define classes at
+ * runtime), and pages are written through {@link PageSerializer}.
+ * <p>
+ * The CBOR converter is built from the same builder, so {@code application/cbor} bodies carry the
+ * same fields as JSON (see {@code docs/cards.cddl}) and are chosen by {@code Accept}/{@code Content-Type}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("blackbird-unsupported") : new BlackbirdModule();
+    }
+
+    @Bean
+    public Module pageEnvelopeModule() {
+        return new SimpleModule("page-envelope").addSerializer(Page.class, new PageSerializer());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
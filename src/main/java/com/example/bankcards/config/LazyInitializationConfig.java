@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.SelectiveLazyInitialization;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * The post-processor runs before configuration properties beans exist, so its properties are
+ * bound from the environment directly.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "startup.lazy", name = "enabled", havingValue = "true")
+public class LazyInitializationConfig {
+
+    @Bean
+    public static SelectiveLazyInitialization selectiveLazyInitialization(Environment environment) {
+        LazyInitializationProperties properties = Binder.get(environment)
+                .bind("startup.lazy", LazyInitializationProperties.class)
+                .orElseGet(LazyInitializationProperties::new);
+        return new SelectiveLazyInitialization(properties.getBeans());
+    }
+}
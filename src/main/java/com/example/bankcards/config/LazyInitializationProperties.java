@@ -0,0 +1,22 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "startup.lazy")
+public class LazyInitializationProperties {
+
+    private boolean enabled;
+
+    /**
+     * Package or class name prefixes of beans to create on first use. A bean declared by a
+     * {@code @Bean} method matches on the class declaring the method.
+     */
+    private List<String> beans = new ArrayList<>();
+}
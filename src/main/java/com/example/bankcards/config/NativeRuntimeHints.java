@@ -0,0 +1,74 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.migration.CardTokenBackfillChange;
+import com.example.bankcards.util.money.MoneyType;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hints for the native image that Spring AOT cannot derive on its own: the DTOs are bound by
+ * Jackson behind {@code ResponseEntity<?>}, jjwt creates its implementation classes by name, and
+ * datasource-proxy wraps the JDBC objects in JDK proxies, and the generated protobuf messages look up
+ * their accessors reflectively. The packages are scanned during the AOT
+ * build, so new DTOs are picked up without touching this class.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> PROXIED_JDBC_TYPES = List.of(DataSource.class, Connection.class, Statement.class,
+            PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        for (Class<?> type : classesIn("com/example/bankcards/dto", classLoader)) {
+            bindings.registerReflectionHints(hints.reflection(), type);
+        }
+        for (Class<?> type : classesIn("io/jsonwebtoken/impl", classLoader)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> type : classesIn("com/example/bankcards/grpc/proto", classLoader)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> type : classesIn("io/jsonwebtoken/jackson/io", classLoader)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.reflection().registerType(MoneyType.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(CardTokenBackfillChange.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        for (Class<?> type : PROXIED_JDBC_TYPES) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, type);
+        }
+        hints.resources().registerPattern("db/migration/*.yaml");
+    }
+
+    static List<Class<?>> classesIn(String packagePath, ClassLoader classLoader) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readers = new CachingMetadataReaderFactory(resolver);
+        List<Class<?>> classes = new ArrayList<>();
+        try {
+            for (Resource resource : resolver.getResources("classpath*:" + packagePath + "/**/*.class")) {
+                String className = readers.getMetadataReader(resource).getClassMetadata().getClassName();
+                if (!className.endsWith("package-info")) {
+                    classes.add(ClassUtils.resolveClassName(className, classLoader));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.outbox.FileOutboxSink;
+import com.example.bankcards.outbox.HttpOutboxSink;
+import com.example.bankcards.outbox.OutboxRelay;
+import com.example.bankcards.outbox.OutboxSink;
+import com.example.bankcards.repository.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    @ConditionalOnProperty(prefix = "outbox", name = "relay-enabled", havingValue = "true")
+    public OutboxSink outboxSink(OutboxProperties properties) {
+        if (properties.getSink() == null) {
+            throw new IllegalStateException("outbox.sink must be set to file or http when the outbox relay is enabled");
+        }
+        if (properties.getSink() == OutboxProperties.SinkType.HTTP) {
+            if (properties.getUrl() == null) {
+                throw new IllegalStateException("outbox.url must be set when outbox.sink is http");
+            }
+            return new HttpOutboxSink(properties.getUrl(), properties.getTimeout());
+        }
+        if (properties.getFile() == null) {
+            throw new IllegalStateException("outbox.file must be set when outbox.sink is file");
+        }
+        return new FileOutboxSink(properties.getFile());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox", name = "relay-enabled", havingValue = "true")
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository, OutboxSink outboxSink, TransactionOperations transactionOperations,
+                                   OutboxProperties properties, MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxRepository, outboxSink, transactionOperations,
+                properties.getBatchSize(), properties.getMaxBatchesPerRun(), meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    public enum SinkType {
+        FILE,
+        HTTP
+    }
+
+    private boolean relayEnabled = false;
+
+    private Duration relayInterval = Duration.ofMillis(500);
+
+    /**
+     * Messages claimed, published and deleted per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on batches per relay run, so a large backlog does not pin the scheduler thread.
+     */
+    private int maxBatchesPerRun = 20;
+
+    /**
+     * Where the relay publishes events. Required with the relay; there is no default, so a deployment
+     * cannot end up writing its events to a local file nobody reads.
+     */
+    private SinkType sink;
+
+    private Path file;
+
+    private URI url;
+
+    private Duration timeout = Duration.ofSeconds(5);
+}
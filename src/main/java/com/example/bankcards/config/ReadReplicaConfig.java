@@ -0,0 +1,59 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.sql.ReadOnlyRoutingAspect;
+import com.example.bankcards.util.sql.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with a primary pool and one pool per replica behind a
+ * {@link ReadWriteRoutingDataSource}. The pools are not beans of their own, so the rest of the
+ * application, including the SQL statistics proxy, sees the routing data source only.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties,
+                                                 Environment environment, MeterRegistry meterRegistry) {
+        if (properties.getUrls().isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.urls must list at least one replica");
+        }
+        HikariDataSource primary = pool("primary", dataSourceProperties.determineUrl(), dataSourceProperties, environment, meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            HikariDataSource replica = pool("replica-" + i, properties.getUrls().get(i), dataSourceProperties, environment, meterRegistry);
+            replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, properties.getMaxLag(), properties.getLagCheckInterval(), meterRegistry);
+    }
+
+    @Bean
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect() {
+        return new ReadOnlyRoutingAspect();
+    }
+
+    private static HikariDataSource pool(String name, String url, DataSourceProperties dataSourceProperties,
+                                         Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of the replicas. They use the primary's credentials and pool settings, except for
+     * the connection timeout.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Replication lag above which a replica gets no reads until it catches up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a read waits for a replica connection before the replica is skipped and the read
+     * goes to the primary; shorter than the primary's, so a replica that is down costs little.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.migration.SchemaVersionCheck;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * With Liquibase disabled the schema is migrated by {@code migrate} mode before deploy, and the
+ * application only verifies it. The check runs before the entity manager factory, so a stale
+ * schema fails startup with a clear message rather than a Hibernate validation error.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.liquibase", name = "enabled", havingValue = "false")
+public class SchemaCheckConfig {
+
+    @Bean
+    public SchemaVersionCheck schemaVersionCheck(DataSource dataSource, ResourceLoader resourceLoader, Environment environment) {
+        return new SchemaVersionCheck(new JdbcTemplate(dataSource),
+                resourceLoader.getResource(environment.getProperty("spring.liquibase.change-log", "classpath:/db/changelog/db.changelog-master.yaml")),
+                environment.getProperty("spring.liquibase.database-change-log-table", "databasechangelog"));
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaVersionCheckDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaVersionCheck.class);
+    }
+}
@@ -44,8 +44,11 @@ public class SecurityConfig {
                     request.requestMatchers("/auth/login", "/auth/refresh", "/swagger-ui.html",
                             "/swagger-ui/**",
                             "/v3/api-docs/**",
+                            "/v3/api-docs.yaml",
                             "/swagger-resources/**",
-                            "/webjars/**").permitAll();
+                            "/webjars/**",
+                            "/actuator/health").permitAll();
+                    request.requestMatchers("/actuator/**").hasAuthority("ADMIN");
                     request.requestMatchers("/admin/**").hasAuthority("ADMIN");
                     request.anyRequest().authenticated();
                 })
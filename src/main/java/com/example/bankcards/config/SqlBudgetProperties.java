@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql.budget")
+public class SqlBudgetProperties {
+
+    private boolean enabled = true;
+
+    private int maxStatements = 10;
+
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+
+    /**
+     * Per-endpoint statement budgets keyed by "METHOD /path/pattern", e.g. "GET /user/cards/get".
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String method, String pattern) {
+        return endpoints.getOrDefault(method + " " + pattern, maxStatements);
+    }
+}
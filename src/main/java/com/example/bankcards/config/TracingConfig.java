@@ -0,0 +1,50 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.tracing.FileSpanExporter;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.observation.tracing.ConnectionTracingObservationHandler;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import net.ttddyy.observation.tracing.QueryTracingObservationHandler;
+import net.ttddyy.observation.tracing.ResultSetTracingObservationHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public DataSourceObservationListener dataSourceObservationListener(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new DataSourceObservationListener(observationRegistry::getObject);
+    }
+
+    @Bean
+    @Order(0)
+    public ConnectionTracingObservationHandler connectionTracingObservationHandler(ObjectProvider<Tracer> tracer) {
+        return new ConnectionTracingObservationHandler(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    @Bean
+    @Order(0)
+    public QueryTracingObservationHandler queryTracingObservationHandler(ObjectProvider<Tracer> tracer) {
+        return new QueryTracingObservationHandler(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    @Bean
+    @Order(0)
+    public ResultSetTracingObservationHandler resultSetTracingObservationHandler(ObjectProvider<Tracer> tracer) {
+        return new ResultSetTracingObservationHandler(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tracing.file-exporter", name = "path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.file-exporter.path}") String path) {
+        return new FileSpanExporter(Path.of(path));
+    }
+}
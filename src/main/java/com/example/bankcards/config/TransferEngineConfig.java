@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.engine.JdbcBalanceStore;
+import com.example.bankcards.engine.TransferEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+@Configuration
+@EnableConfigurationProperties(TransferEngineProperties.class)
+public class TransferEngineConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "transfer.engine", name = "enabled", havingValue = "true")
+    public TransferEngine transferEngine(TransferEngineProperties properties, JdbcTemplate jdbcTemplate,
+                                         TransactionOperations transactionOperations, MeterRegistry meterRegistry) {
+        return new TransferEngine(properties, new JdbcBalanceStore(jdbcTemplate, transactionOperations), meterRegistry);
+    }
+}
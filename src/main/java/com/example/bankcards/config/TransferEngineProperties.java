@@ -0,0 +1,39 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transfer.engine")
+public class TransferEngineProperties {
+
+    private boolean enabled = false;
+
+    private int shards = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Capacity of each shard's inbound ring; submissions beyond it are rejected instead of queued.
+     */
+    private int ringSize = 65_536;
+
+    /**
+     * Maximum commands a shard applies per journal fsync.
+     */
+    private int maxBatch = 4_096;
+
+    private Path journalDirectory = Path.of("data", "transfer-journal");
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private Duration projectionInterval = Duration.ofMillis(100);
+
+    private int projectionBatch = 10_000;
+
+    private Duration timeout = Duration.ofSeconds(5);
+}
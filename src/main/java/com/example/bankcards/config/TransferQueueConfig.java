@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.queue.TransferQueueWorker;
+import com.example.bankcards.service.AsyncTransferService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TransferQueueProperties.class)
+public class TransferQueueConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "transfer.queue", name = "workers-enabled", havingValue = "true", matchIfMissing = true)
+    public TransferQueueWorker transferQueueWorker(AsyncTransferService asyncTransferService, TransferQueueProperties properties) {
+        return new TransferQueueWorker(asyncTransferService, properties);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transfer.queue")
+public class TransferQueueProperties {
+
+    private boolean workersEnabled = true;
+
+    private int workers = 2;
+
+    /**
+     * Transfers claimed and applied per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long an idle worker waits before checking the queue again; transfers queued on this node
+     * wake a worker immediately.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Pending transfers above which new submissions are rejected. A soft limit: the pending count is
+     * read without a lock, so submissions racing each other can each see room and overshoot it by up
+     * to the number of concurrent submissions.
+     */
+    private int maxPending = 10_000;
+}
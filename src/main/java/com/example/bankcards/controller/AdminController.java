@@ -1,22 +1,34 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardImportFormat;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
 import com.example.bankcards.dto.requests.RegisterRequest;
 import com.example.bankcards.service.AuthService;
 import com.example.bankcards.service.CardBlockingService;
+import com.example.bankcards.service.CardImportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ListingETags;
+import com.example.bankcards.util.StartupReport;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 
 @RestController
+@Observed(name = "bankcards.controller")
 @RequestMapping("/admin")
 public class AdminController {
 
@@ -24,12 +36,20 @@ public class AdminController {
     private final UserService userService;
     private final AuthService authService;
     private final CardBlockingService cardBlockingService;
+    private final CardImportService cardImportService;
+    private final ListingETags listingETags;
+    private final StartupReport startupReport;
 
-    public AdminController(CardService cardService, UserService userService, AuthService authService, CardBlockingService cardBlockingService) {
+    public AdminController(CardService cardService, UserService userService, AuthService authService,
+                           CardBlockingService cardBlockingService, CardImportService cardImportService,
+                           ListingETags listingETags, StartupReport startupReport) {
         this.cardService = cardService;
         this.userService = userService;
         this.authService = authService;
         this.cardBlockingService = cardBlockingService;
+        this.cardImportService = cardImportService;
+        this.listingETags = listingETags;
+        this.startupReport = startupReport;
     }
 
     @PostMapping("/cards/create")
@@ -37,18 +57,35 @@ public class AdminController {
         return ResponseEntity.ok().body(cardService.createCard(request));
     }
 
+    @PostMapping(value = "/cards/import", consumes = {CardImportFormat.CSV_MEDIA_TYPE, CardImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<?> importCards(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        return ResponseEntity.ok().body(cardImportService.importCards(body, CardImportFormat.fromContentType(contentType)));
+    }
+
     @PatchMapping("/cards/update")
     public ResponseEntity<?> updateCard(@RequestParam(name = "last_four_card_digits") String lastFourCardDigits,
                                         @RequestParam(name = "activate") String activate) {
         return ResponseEntity.ok().body(cardService.updateCard(lastFourCardDigits, activate));
     }
 
+    @PatchMapping(value = "/cards/update", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> updateCards(@Valid @RequestBody CardStatusUpdateRequest request) {
+        return ResponseEntity.ok().body(cardService.updateCards(request));
+    }
+
     @DeleteMapping("/cards/delete")
     public ResponseEntity<?> deleteCard(@RequestParam(name = "last_four_card_digits") String lastFourCardDigits) {
         cardService.deleteCard(lastFourCardDigits);
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/cards/hot")
+    public ResponseEntity<?> setBalanceStripes(@RequestParam(name = "last_four_card_digits") String lastFourCardDigits,
+                                               @RequestParam(name = "stripes") int stripes) {
+        return ResponseEntity.ok().body(cardService.setBalanceStripes(lastFourCardDigits, stripes));
+    }
+
     @GetMapping("/cards/")
     public ResponseEntity<?> getAllCards() {
         return ResponseEntity.ok().body(cardService.getAllCards());
@@ -56,8 +93,10 @@ public class AdminController {
 
     @GetMapping("/cards/block/requests")
     public ResponseEntity<?> getAllCardsBlockRequests(
-            @PageableDefault(size = 10, sort = "Id", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok().body(cardBlockingService.getAllRequests(pageable));
+            @PageableDefault(size = 10, sort = "Id", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest webRequest) {
+        return listingETags.respond(webRequest, "block_requests", pageable,
+                unchanged -> cardBlockingService.getAllRequests(pageable, unchanged));
     }
     @PatchMapping("/cards/block/resolve")
     public ResponseEntity<?> resolveCard(@RequestParam(name = "request_id") UUID requestId) {
@@ -80,4 +119,9 @@ public class AdminController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/startup")
+    public ResponseEntity<?> getStartupReport() {
+        return ResponseEntity.ok().body(startupReport.report());
+    }
 }
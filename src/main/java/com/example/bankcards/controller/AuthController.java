@@ -2,11 +2,13 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.requests.LoginRequest;
 import com.example.bankcards.service.AuthService;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Observed(name = "bankcards.controller")
 @RequestMapping("/auth")
 public class AuthController {
 
@@ -0,0 +1,88 @@
+package com.example.bankcards.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Serves the OpenAPI spec generated at build time by {@code OpenApiSpecGenerator} in place of
+ * springdoc, which builds it by scanning the controllers on the first request. The files and their
+ * gzip variants are read once; a client that accepts gzip gets the precompressed bytes.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "springdoc.api-docs", name = "enabled", havingValue = "false")
+public class OpenApiSpecController {
+
+    static final String LOCATION = "openapi/";
+    private static final MediaType YAML = MediaType.parseMediaType("application/vnd.oai.openapi");
+
+    private final Spec json;
+    private final Spec yaml;
+
+    public OpenApiSpecController() {
+        this.json = Spec.load(LOCATION + "openapi.json", MediaType.APPLICATION_JSON);
+        this.yaml = Spec.load(LOCATION + "openapi.yaml", YAML);
+    }
+
+    @GetMapping("/v3/api-docs")
+    public ResponseEntity<byte[]> getJson(WebRequest request) {
+        return serve(json, request);
+    }
+
+    @GetMapping("/v3/api-docs.yaml")
+    public ResponseEntity<byte[]> getYaml(WebRequest request) {
+        return serve(yaml, request);
+    }
+
+    private static ResponseEntity<byte[]> serve(Spec spec, WebRequest request) {
+        if (spec == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (request.checkNotModified('"' + spec.hash() + (gzip ? "-gzip" : "") + '"')) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(spec.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? spec.gzip() : spec.body());
+    }
+
+    record Spec(byte[] body, byte[] gzip, MediaType mediaType, String hash) {
+
+        static Spec load(String path, MediaType mediaType) {
+            ClassPathResource resource = new ClassPathResource(path);
+            if (!resource.exists()) {
+                log.warn("event=openapi_spec_missing path={}", path);
+                return null;
+            }
+            byte[] body = read(resource);
+            byte[] gzip = read(new ClassPathResource(path + ".gz"));
+            return new Spec(body, gzip, mediaType, DigestUtils.md5DigestAsHex(body));
+        }
+
+        private static byte[] read(ClassPathResource resource) {
+            try (InputStream in = resource.getInputStream()) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + resource.getPath(), e);
+            }
+        }
+    }
+}
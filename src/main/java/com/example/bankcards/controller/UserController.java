@@ -2,31 +2,48 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.requests.BalanceRequest;
 import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferStatusResponse;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.CardBlockingService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ListingETags;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.UUID;
 
 @RestController
+@Observed(name = "bankcards.controller")
 @RequestMapping("/user")
 public class UserController {
     private final UserService userService;
     private final CardBlockingService cardBlockingService;
+    private final AsyncTransferService asyncTransferService;
+    private final ListingETags listingETags;
 
-    public UserController(UserService userService, CardBlockingService cardBlockingService) {
+    public UserController(UserService userService, CardBlockingService cardBlockingService, AsyncTransferService asyncTransferService,
+                          ListingETags listingETags) {
         this.userService = userService;
         this.cardBlockingService = cardBlockingService;
+        this.asyncTransferService = asyncTransferService;
+        this.listingETags = listingETags;
     }
 
     @GetMapping("/cards/get")
     public ResponseEntity<?> getCards(
             @PageableDefault(size = 10, sort = "Id", direction = Sort.Direction.DESC) Pageable pageable,
-            @RequestParam(name = "search_query", required = false) String searchQuery) {
-        return ResponseEntity.ok().body(userService.getCards(pageable, searchQuery));
+            @RequestParam(name = "search_query", required = false) String searchQuery,
+            WebRequest webRequest) {
+        return listingETags.respond(webRequest, "user_cards", pageable + "|" + searchQuery,
+                unchanged -> userService.getCards(pageable, searchQuery, unchanged));
     }
 
     @PostMapping("/cards/block")
@@ -39,8 +56,19 @@ public class UserController {
         return ResponseEntity.ok().body(userService.getBalance(request));
     }
 
-    @PostMapping("/cards/transfer")
+    @PostMapping(value = "/cards/transfer", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<?> transfer(@RequestBody @Valid TransferRequest request) {
         return ResponseEntity.ok().body(userService.transfer(request));
     }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<?> submitTransfer(@RequestBody @Valid TransferRequest request) {
+        TransferStatusResponse response = asyncTransferService.submit(request);
+        return ResponseEntity.accepted().location(URI.create("/user/transfers/" + response.getTransferId())).body(response);
+    }
+
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<?> getTransfer(@PathVariable UUID transferId) {
+        return ResponseEntity.ok().body(asyncTransferService.getTransfer(transferId));
+    }
 }
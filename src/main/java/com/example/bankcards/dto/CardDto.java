@@ -1,12 +1,13 @@
 package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.money.Money;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Currency;
 import java.util.UUID;
 
 @Data
@@ -28,5 +29,7 @@ public class CardDto {
     @JsonProperty("status")
     CardStatus status;
     @JsonProperty("balance")
-    BigDecimal balance;
+    Money balance;
+    @JsonProperty("currency")
+    Currency currency;
 }
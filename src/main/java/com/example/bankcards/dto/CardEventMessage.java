@@ -0,0 +1,42 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.Currency;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CardEventMessage {
+    @JsonProperty("sequence")
+    Long sequence;
+    @JsonProperty("type")
+    CardEvent.Type type;
+    @JsonProperty("card_id")
+    UUID cardId;
+    @JsonProperty("related_id")
+    UUID relatedId;
+    @JsonProperty("status")
+    CardStatus status;
+    @JsonProperty("amount")
+    Money amount;
+    @JsonProperty("currency")
+    Currency currency;
+    @JsonProperty("credited_amount")
+    Money creditedAmount;
+    @JsonProperty("credited_currency")
+    Currency creditedCurrency;
+    @JsonProperty("occurred_at")
+    Instant occurredAt;
+}
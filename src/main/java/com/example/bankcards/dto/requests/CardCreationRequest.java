@@ -1,6 +1,7 @@
 package com.example.bankcards.dto.requests;
 
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.money.Money;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
@@ -9,8 +10,8 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Currency;
 import java.util.UUID;
 
 @Data
@@ -34,5 +35,7 @@ public class CardCreationRequest {
     @NotNull(message = "status must not be null")
     CardStatus status;
     @JsonProperty("start_balance")
-    BigDecimal startBalance;
+    Money startBalance;
+    @JsonProperty("currency")
+    Currency currency;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.requests;
+
+import org.springframework.http.MediaType;
+
+public enum CardImportFormat {
+    CSV, NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static CardImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+            return NDJSON;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+            return CSV;
+        }
+        throw new IllegalArgumentException(String.format("Unsupported import content type %s", contentType));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.requests;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CardStatusUpdateRequest {
+    @JsonProperty("card_numbers")
+    @NotEmpty(message = "card numbers cant be empty")
+    @Size(max = 1000)
+    List<@Size(min = 16, max = 16) String> cardNumbers;
+    @JsonProperty("status")
+    @NotNull(message = "status must not be null")
+    CardStatus status;
+}
@@ -1,12 +1,11 @@
 package com.example.bankcards.dto.requests;
 
+import com.example.bankcards.util.money.Money;
+import com.example.bankcards.util.money.PositiveAmount;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import jakarta.validation.constraints.Positive;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,6 +17,6 @@ public class TransferRequest {
     @JsonProperty("target")
     String targetLastFourCardDigits;
     @JsonProperty("amount")
-    @Positive
-    BigDecimal amount;
+    @PositiveAmount
+    Money amount;
 }
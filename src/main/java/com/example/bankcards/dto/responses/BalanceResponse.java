@@ -1,15 +1,18 @@
 package com.example.bankcards.dto.responses;
 
+import com.example.bankcards.util.money.Money;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.math.BigDecimal;
+import java.util.Currency;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BalanceResponse {
-    BigDecimal balance;
+    Money balance;
     String lastFourCardDigits;
+    Currency currency;
 }
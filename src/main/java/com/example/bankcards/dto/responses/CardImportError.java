@@ -0,0 +1,17 @@
+package com.example.bankcards.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CardImportError {
+    @JsonProperty("line")
+    long line;
+    @JsonProperty("message")
+    String message;
+}
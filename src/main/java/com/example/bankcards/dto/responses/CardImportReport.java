@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CardImportReport {
+    @JsonProperty("total_rows")
+    long totalRows;
+    @JsonProperty("imported")
+    long imported;
+    @JsonProperty("failed")
+    long failed;
+    @JsonProperty("errors")
+    List<CardImportError> errors = new ArrayList<>();
+    @JsonProperty("errors_truncated")
+    boolean errorsTruncated;
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.responses;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CardStatusUpdateResponse {
+    @JsonProperty("status")
+    CardStatus status;
+    @JsonProperty("updated")
+    List<CardDto> updated;
+    @JsonProperty("unchanged")
+    List<String> unchanged;
+    @JsonProperty("not_found")
+    List<String> notFound;
+}
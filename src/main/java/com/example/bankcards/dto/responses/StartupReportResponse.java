@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StartupReportResponse {
+    @JsonProperty("jvm_to_ready_ms")
+    Long jvmToReadyMs;
+    @JsonProperty("application_ready_ms")
+    Long applicationReadyMs;
+    @JsonProperty("recorded_steps")
+    int recordedSteps;
+    @JsonProperty("phases")
+    List<StartupStepTime> phases;
+    @JsonProperty("packages")
+    List<StartupStepTime> packages;
+    @JsonProperty("slowest_beans")
+    List<StartupStepTime> slowestBeans;
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StartupStepTime {
+    @JsonProperty("name")
+    String name;
+    @JsonProperty("type")
+    String type;
+    @JsonProperty("count")
+    long count;
+    @JsonProperty("total_ms")
+    long totalMs;
+    @JsonProperty("self_ms")
+    long selfMs;
+}
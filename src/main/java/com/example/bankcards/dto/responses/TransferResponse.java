@@ -1,10 +1,11 @@
 package com.example.bankcards.dto.responses;
 
+import com.example.bankcards.util.money.Money;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.math.BigDecimal;
+import java.util.Currency;
 
 @Data
 @Builder
@@ -17,5 +18,11 @@ public class TransferResponse {
     @JsonProperty("target")
     String targetLastFourCardDigits;
     @JsonProperty("amount")
-    BigDecimal amount;
+    Money amount;
+    @JsonProperty("currency")
+    Currency currency;
+    @JsonProperty("credited_amount")
+    Money creditedAmount;
+    @JsonProperty("credited_currency")
+    Currency creditedCurrency;
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.bankcards.dto.responses;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.Currency;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferStatusResponse {
+    @JsonProperty("transfer_id")
+    UUID transferId;
+    @JsonProperty("status")
+    TransferStatus status;
+    @JsonProperty("source")
+    String sourceCardNumber;
+    @JsonProperty("target")
+    String targetCardNumber;
+    @JsonProperty("amount")
+    Money amount;
+    @JsonProperty("currency")
+    Currency currency;
+    @JsonProperty("credited_amount")
+    Money creditedAmount;
+    @JsonProperty("credited_currency")
+    Currency creditedCurrency;
+    @JsonProperty("failure_reason")
+    String failureReason;
+    @JsonProperty("created_at")
+    Instant createdAt;
+    @JsonProperty("completed_at")
+    Instant completedAt;
+}
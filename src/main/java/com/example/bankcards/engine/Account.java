@@ -0,0 +1,37 @@
+package com.example.bankcards.engine;
+
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * In-memory balance of one card. Only the owning shard's worker writes {@code balance}; other
+ * threads may read it.
+ */
+public final class Account {
+
+    private final UUID id;
+    private final Currency currency;
+    private volatile long balance;
+
+    public Account(UUID id, Currency currency, long balance) {
+        this.id = id;
+        this.currency = currency;
+        this.balance = balance;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    void setBalance(long balance) {
+        this.balance = balance;
+    }
+}
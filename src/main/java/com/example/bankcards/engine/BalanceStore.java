@@ -0,0 +1,35 @@
+package com.example.bankcards.engine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Durable side of the transfer engine: where card balances are loaded from and where journal
+ * records are projected to.
+ */
+public interface BalanceStore {
+
+    Optional<Account> loadAccount(UUID cardId);
+
+    /**
+     * Highest journal sequence of the shard that has already been projected.
+     */
+    long checkpoint(int shard);
+
+    /**
+     * Applies the records to balances and the transfer ledger and advances the shard checkpoint to
+     * the last record's sequence, atomically.
+     */
+    void project(int shard, List<JournalRecord> records);
+
+    Set<UUID> existingTransfers(Collection<UUID> transferIds);
+
+    /**
+     * Completes a cross-shard transfer whose debit was journaled but whose credit never was: credits
+     * the target card or, if it no longer exists, refunds the source card.
+     */
+    void settle(JournalRecord debit);
+}
@@ -0,0 +1,120 @@
+package com.example.bankcards.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Projects journal records onto the cards table (as summed balance deltas per card) and the
+ * transfers ledger, and keeps a per-shard checkpoint in the same transaction so replaying a
+ * journal after a crash never applies a record twice.
+ */
+@Slf4j
+public class JdbcBalanceStore implements BalanceStore {
+
+    private static final String ADD_BALANCE = "UPDATE cards SET balance = balance + ? WHERE id = ?";
+    private static final String INSERT_TRANSFER = "INSERT INTO transfers (id, source_card_id, target_card_id, amount, currency, credited_amount, credited_currency, status, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    private static final String SAVE_CHECKPOINT = "INSERT INTO transfer_engine_checkpoints (shard, position) VALUES (?, ?) "
+            + "ON CONFLICT (shard) DO UPDATE SET position = EXCLUDED.position";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+
+    public JdbcBalanceStore(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    public Optional<Account> loadAccount(UUID cardId) {
+        return jdbcTemplate.query("SELECT balance, currency FROM cards WHERE id = ?",
+                        (rs, rowNum) -> new Account(cardId, Currency.getInstance(rs.getString("currency")), rs.getLong("balance")),
+                        cardId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public long checkpoint(int shard) {
+        return jdbcTemplate.query("SELECT position FROM transfer_engine_checkpoints WHERE shard = ?",
+                        (rs, rowNum) -> rs.getLong(1), shard)
+                .stream().findFirst().orElse(0L);
+    }
+
+    @Override
+    public void project(int shard, List<JournalRecord> records) {
+        Map<UUID, Long> deltas = new HashMap<>();
+        List<Object[]> transfers = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (JournalRecord record : records) {
+            switch (record.type()) {
+                case TRANSFER -> {
+                    deltas.merge(record.source(), -record.debit(), Long::sum);
+                    deltas.merge(record.target(), record.credit(), Long::sum);
+                    transfers.add(transferRow(record, "COMPLETED", now));
+                }
+                case DEBIT -> deltas.merge(record.source(), -record.debit(), Long::sum);
+                case CREDIT -> {
+                    deltas.merge(record.target(), record.credit(), Long::sum);
+                    transfers.add(transferRow(record, "COMPLETED", now));
+                }
+                case REFUND -> {
+                    deltas.merge(record.source(), record.debit(), Long::sum);
+                    transfers.add(transferRow(record, "REFUNDED", now));
+                }
+            }
+        }
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(delta -> updates.add(new Object[]{delta.getValue(), delta.getKey()}));
+        long position = records.get(records.size() - 1).sequence();
+        transactionOperations.executeWithoutResult(status -> {
+            int[] updated = jdbcTemplate.batchUpdate(ADD_BALANCE, updates);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    log.warn("event=transfer_engine_card_missing card_id={} delta={}", updates.get(i)[1], updates.get(i)[0]);
+                }
+            }
+            if (!transfers.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSFER, transfers);
+            }
+            jdbcTemplate.update(SAVE_CHECKPOINT, shard, position);
+        });
+    }
+
+    @Override
+    public Set<UUID> existingTransfers(Collection<UUID> transferIds) {
+        if (transferIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query("SELECT id FROM transfers WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", transferIds.toArray())),
+                (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    @Override
+    public void settle(JournalRecord debit) {
+        Timestamp now = Timestamp.from(Instant.now());
+        transactionOperations.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(ADD_BALANCE, debit.credit(), debit.target()) == 1) {
+                jdbcTemplate.update(INSERT_TRANSFER, transferRow(debit, "COMPLETED", now));
+            } else {
+                jdbcTemplate.update(ADD_BALANCE, debit.debit(), debit.source());
+                jdbcTemplate.update(INSERT_TRANSFER, transferRow(debit, "REFUNDED", now));
+            }
+        });
+    }
+
+    private static Object[] transferRow(JournalRecord record, String status, Timestamp createdAt) {
+        return new Object[]{record.transferId(), record.source(), record.target(),
+                record.debit(), record.debitCurrency().getCurrencyCode(),
+                record.credit(), record.creditCurrency().getCurrencyCode(),
+                status, createdAt};
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One balance-changing step of a transfer as written to a shard's journal. On disk a record is
+ * {@code [int length][int crc32c][payload]} with a fixed-size payload, so a torn write at the tail
+ * of a segment is detected by a short read or a checksum mismatch.
+ */
+public record JournalRecord(Type type, long sequence, UUID transferId, UUID source, UUID target,
+                            long debit, Currency debitCurrency, long credit, Currency creditCurrency) {
+
+    public enum Type {
+        /** Debit and credit applied by one shard that owns both cards. */
+        TRANSFER,
+        /** First step of a cross-shard transfer, written by the source shard. */
+        DEBIT,
+        /** Second step of a cross-shard transfer, written by the target shard. */
+        CREDIT,
+        /** Debit returned to the source card because the credit step failed. */
+        REFUND
+    }
+
+    static final int PAYLOAD_BYTES = 1 + 8 + 16 * 3 + 8 * 2 + 3 * 2;
+    static final int RECORD_BYTES = 8 + PAYLOAD_BYTES;
+
+    private static final Type[] TYPES = Type.values();
+
+    public JournalRecord withType(Type newType, long newSequence) {
+        return new JournalRecord(newType, newSequence, transferId, source, target, debit, debitCurrency, credit, creditCurrency);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(PAYLOAD_BYTES).putInt(0);
+        buffer.put((byte) type.ordinal())
+                .putLong(sequence);
+        putUuid(buffer, transferId);
+        putUuid(buffer, source);
+        putUuid(buffer, target);
+        buffer.putLong(debit).putLong(credit);
+        buffer.put(debitCurrency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+        buffer.put(creditCurrency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(start + 4, checksum(buffer, start + 8));
+    }
+
+    /**
+     * Reads the record at the buffer's position, or returns null if the remaining bytes do not hold
+     * a complete record with a valid checksum.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        if (buffer.getInt(start) != PAYLOAD_BYTES || buffer.getInt(start + 4) != checksum(buffer, start + 8)) {
+            return null;
+        }
+        buffer.position(start + 8);
+        int type = buffer.get();
+        if (type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        long sequence = buffer.getLong();
+        UUID transferId = getUuid(buffer);
+        UUID source = getUuid(buffer);
+        UUID target = getUuid(buffer);
+        long debit = buffer.getLong();
+        long credit = buffer.getLong();
+        Currency debitCurrency = getCurrency(buffer);
+        Currency creditCurrency = getCurrency(buffer);
+        return new JournalRecord(TYPES[type], sequence, transferId, source, target, debit, debitCurrency, credit, creditCurrency);
+    }
+
+    private static int checksum(ByteBuffer buffer, int payloadStart) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(payloadStart, PAYLOAD_BYTES));
+        return (int) crc.getValue();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static Currency getCurrency(ByteBuffer buffer) {
+        byte[] code = new byte[3];
+        buffer.get(code);
+        return Currency.getInstance(new String(code, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.bankcards.engine;
+
+import com.example.bankcards.config.TransferEngineProperties;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * In-memory transfer engine. Cards are partitioned by id onto shards, each a single writer thread
+ * with its own journal, so balance checks and updates need no locks and no database round trip.
+ * A projector applies journaled records to the cards table and the transfer ledger in the
+ * background; on start the journal is replayed so every accepted transfer reaches the database.
+ *
+ * <p>A transfer between cards on different shards is a debit journaled by the source shard,
+ * followed by a credit journaled by the target shard. If the credit cannot be applied the source
+ * shard journals a refund. A debit left without its credit by a crash is settled during recovery.
+ */
+@Slf4j
+public class TransferEngine implements Closeable {
+
+    private static final String SHARD_DIRECTORY_PREFIX = "shard-";
+
+    private final TransferEngineProperties properties;
+    private final BalanceStore store;
+    private final MeterRegistry meterRegistry;
+    private final Counter completed;
+    private final Counter rejected;
+    private final DistributionSummary batchSize;
+
+    private TransferShard[] shards;
+    private Thread[] workers;
+    private List<JournalRecord>[] unprojected;
+    private ScheduledExecutorService projector;
+    private volatile boolean accepting;
+
+    public TransferEngine(TransferEngineProperties properties, BalanceStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.completed = meterRegistry.counter("transfer.engine.transfers", "outcome", "completed");
+        this.rejected = meterRegistry.counter("transfer.engine.transfers", "outcome", "rejected");
+        this.batchSize = DistributionSummary.builder("transfer.engine.batch.size")
+                .description("Journal records per fsync")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized void start() {
+        long[] nextSequences = recover();
+        int shardCount = properties.getShards();
+        shards = new TransferShard[shardCount];
+        workers = new Thread[shardCount];
+        unprojected = new List[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            WriteAheadLog journal = new WriteAheadLog(shardDirectory(i), properties.getSegmentSize().toBytes(), properties.getMaxBatch());
+            journal.startAt(nextSequences[i]);
+            shards[i] = new TransferShard(i, this, store, journal, properties.getRingSize(), properties.getMaxBatch(), nextSequences[i] - 1);
+            unprojected[i] = new ArrayList<>();
+            TransferShard shard = shards[i];
+            Gauge.builder("transfer.engine.queue.depth", shard, TransferShard::queueDepth)
+                    .tag("shard", Integer.toString(i))
+                    .register(meterRegistry);
+            Gauge.builder("transfer.engine.projection.lag", shard, TransferShard::projectionLag)
+                    .tag("shard", Integer.toString(i))
+                    .description("Journaled records not yet projected to the database")
+                    .register(meterRegistry);
+            workers[i] = new Thread(shard, "transfer-shard-" + i);
+            workers[i].start();
+        }
+        projector = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "transfer-engine-projector"));
+        long interval = properties.getProjectionInterval().toMillis();
+        projector.scheduleWithFixedDelay(this::project, interval, interval, TimeUnit.MILLISECONDS);
+        accepting = true;
+        log.info("event=transfer_engine_started shards={} journal={}", shardCount, properties.getJournalDirectory());
+    }
+
+    public CompletableFuture<TransferReceipt> submit(UUID source, UUID target, Money debit, Money credit) {
+        CompletableFuture<TransferReceipt> result = new CompletableFuture<>();
+        if (!accepting) {
+            reject(result, new TransferException("Transfer engine is not running"));
+            return result;
+        }
+        TransferShard.Submit submit = new TransferShard.Submit(UUID.randomUUID(), source, target, debit, credit, result);
+        if (!shardFor(source).offer(submit)) {
+            reject(result, new TransferException("Transfer engine is overloaded, try again later"));
+        }
+        return result;
+    }
+
+    /**
+     * Submits a transfer and waits for it to be journaled, up to the configured timeout.
+     */
+    public TransferReceipt transfer(UUID source, UUID target, Money debit, Money credit) {
+        CompletableFuture<TransferReceipt> result = submit(source, target, debit, credit);
+        try {
+            return result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TransferException("Transfer failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new TransferException("Transfer was accepted but not confirmed in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferException("Interrupted while waiting for the transfer");
+        }
+    }
+
+    /**
+     * Current balance of a card held by the engine, or empty if the engine has not loaded the card
+     * yet, in which case the database balance is current.
+     */
+    public Optional<Money> balance(UUID cardId) {
+        Account account = shardFor(cardId).account(cardId);
+        return account == null ? Optional.empty() : Optional.of(Money.ofMinor(account.getBalance(), account.getCurrency()));
+    }
+
+    /**
+     * Stops accepting transfers, waits for in-flight ones to finish, and projects everything that
+     * was journaled.
+     */
+    @Override
+    public synchronized void close() {
+        if (shards == null) {
+            return;
+        }
+        accepting = false;
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        while (System.nanoTime() < deadline && !Arrays.stream(shards).allMatch(TransferShard::isIdle)) {
+            sleep(5);
+        }
+        stopWorkers();
+        projector.shutdown();
+        awaitProjector();
+        project();
+        shards = null;
+        log.info("event=transfer_engine_stopped");
+    }
+
+    /**
+     * Stops the engine the way a crash would: workers stop after their current batch and nothing
+     * more is projected.
+     */
+    synchronized void halt() {
+        accepting = false;
+        projector.shutdownNow();
+        awaitProjector();
+        stopWorkers();
+        shards = null;
+    }
+
+    TransferShard shardFor(UUID cardId) {
+        return shards[Math.floorMod(cardId.hashCode(), shards.length)];
+    }
+
+    void complete(CompletableFuture<TransferReceipt> result, JournalRecord record) {
+        completed.increment();
+        if (result != null) {
+            result.complete(new TransferReceipt(record.transferId(),
+                    Money.ofMinor(record.debit(), record.debitCurrency()),
+                    Money.ofMinor(record.credit(), record.creditCurrency())));
+        }
+    }
+
+    void reject(CompletableFuture<TransferReceipt> result, RuntimeException cause) {
+        rejected.increment();
+        if (result != null) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    void recordBatch(int records) {
+        batchSize.record(records);
+    }
+
+    void retryLater(TransferShard shard, TransferShard.Command command) {
+        if (projector.isShutdown()) {
+            shard.send(command);
+            return;
+        }
+        projector.schedule(() -> shard.send(command), properties.getProjectionInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void shardFailed(TransferShard shard, RuntimeException cause) {
+        accepting = false;
+        log.error("event=transfer_engine_stopped reason=journal_failure shard={} error=\"{}\"", shard.index(), cause.getMessage());
+    }
+
+    /**
+     * Moves journaled records of every shard to the store. Records of a failed projection are kept
+     * and retried on the next run.
+     */
+    void project() {
+        for (int i = 0; i < shards.length; i++) {
+            TransferShard shard = shards[i];
+            List<JournalRecord> records = unprojected[i];
+            ConcurrentLinkedQueue<JournalRecord> published = shard.published();
+            JournalRecord record;
+            while (records.size() < properties.getProjectionBatch() && (record = published.poll()) != null) {
+                records.add(record);
+            }
+            if (records.isEmpty()) {
+                continue;
+            }
+            try {
+                store.project(i, records);
+                shard.projected(records.get(records.size() - 1).sequence());
+                records.clear();
+            } catch (RuntimeException e) {
+                meterRegistry.counter("transfer.engine.projection.failures").increment();
+                log.warn("event=transfer_engine_projection_failed shard={} records={} error=\"{}\"", i, records.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Projects whatever the previous run journaled but did not project, settles cross-shard
+     * transfers that were debited but never credited, and clears the journal. Returns the first
+     * sequence number each shard should use.
+     */
+    private long[] recover() {
+        long[] nextSequences = new long[properties.getShards()];
+        for (int i = 0; i < nextSequences.length; i++) {
+            nextSequences[i] = store.checkpoint(i) + 1;
+        }
+        Map<UUID, JournalRecord> debits = new LinkedHashMap<>();
+        Set<UUID> finished = new HashSet<>();
+        int replayed = 0;
+        for (Map.Entry<Integer, Path> directory : existingShardDirectories().entrySet()) {
+            int shard = directory.getKey();
+            List<JournalRecord> records = WriteAheadLog.read(directory.getValue());
+            long checkpoint = store.checkpoint(shard);
+            List<JournalRecord> pending = records.stream().filter(record -> record.sequence() > checkpoint).toList();
+            for (int from = 0; from < pending.size(); from += properties.getProjectionBatch()) {
+                store.project(shard, pending.subList(from, Math.min(from + properties.getProjectionBatch(), pending.size())));
+            }
+            replayed += pending.size();
+            for (JournalRecord record : records) {
+                switch (record.type()) {
+                    case DEBIT -> debits.put(record.transferId(), record);
+                    case CREDIT, REFUND -> finished.add(record.transferId());
+                    default -> {
+                    }
+                }
+            }
+            if (shard < nextSequences.length && !records.isEmpty()) {
+                nextSequences[shard] = Math.max(nextSequences[shard], records.get(records.size() - 1).sequence() + 1);
+            }
+        }
+        debits.keySet().removeAll(finished);
+        debits.keySet().removeAll(store.existingTransfers(debits.keySet()));
+        debits.values().forEach(store::settle);
+        existingShardDirectories().values().forEach(WriteAheadLog::deleteAll);
+        if (replayed > 0 || !debits.isEmpty()) {
+            log.info("event=transfer_engine_recovered replayed={} settled={}", replayed, debits.size());
+        }
+        return nextSequences;
+    }
+
+    private Map<Integer, Path> existingShardDirectories() {
+        Path root = properties.getJournalDirectory();
+        if (!Files.isDirectory(root)) {
+            return Map.of();
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            Map<Integer, Path> result = new TreeMap<>();
+            directories.filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().startsWith(SHARD_DIRECTORY_PREFIX))
+                    .forEach(path -> result.put(Integer.parseInt(path.getFileName().toString().substring(SHARD_DIRECTORY_PREFIX.length())), path));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path shardDirectory(int shard) {
+        Path directory = properties.getJournalDirectory().resolve(SHARD_DIRECTORY_PREFIX + shard);
+        try {
+            return Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void stopWorkers() {
+        for (TransferShard shard : shards) {
+            shard.stop();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(properties.getTimeout().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void awaitProjector() {
+        try {
+            projector.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
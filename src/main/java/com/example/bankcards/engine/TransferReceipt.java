@@ -0,0 +1,8 @@
+package com.example.bankcards.engine;
+
+import com.example.bankcards.util.money.Money;
+
+import java.util.UUID;
+
+public record TransferReceipt(UUID transferId, Money debit, Money credit) {
+}
@@ -0,0 +1,333 @@
+package com.example.bankcards.engine;
+
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.util.money.Money;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded owner of the balances of one partition of cards. Commands are drained from the
+ * ring in batches, applied in memory, journaled, and fsynced once per batch; callers are completed
+ * and messages to other shards are sent only after the batch is durable.
+ */
+@Slf4j
+final class TransferShard implements Runnable {
+
+    sealed interface Command permits Submit, Credit, Settle, Refund, Wakeup {
+    }
+
+    record Submit(UUID transferId, UUID source, UUID target, Money debit, Money credit,
+                  CompletableFuture<TransferReceipt> result) implements Command {
+    }
+
+    record Credit(JournalRecord debit, CompletableFuture<TransferReceipt> result) implements Command {
+    }
+
+    record Settle(UUID transferId) implements Command {
+    }
+
+    record Refund(JournalRecord debit, RuntimeException cause, CompletableFuture<TransferReceipt> result) implements Command {
+    }
+
+    enum Wakeup implements Command {
+        INSTANCE
+    }
+
+    private record Deferred(CompletableFuture<TransferReceipt> result, Runnable action) {
+    }
+
+    private final int index;
+    private final TransferEngine engine;
+    private final BalanceStore store;
+    private final WriteAheadLog journal;
+    private final int maxBatch;
+    private final ArrayBlockingQueue<Command> ring;
+    private final ConcurrentLinkedQueue<Command> internal = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<JournalRecord> published = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> pendingDebits = new HashMap<>();
+    private final TreeSet<Long> pendingSequences = new TreeSet<>();
+    private final List<Command> batch;
+    private final List<JournalRecord> written;
+    private final List<Deferred> deferred = new ArrayList<>();
+
+    private volatile boolean running = true;
+    private volatile boolean failed;
+    private volatile long syncedSequence;
+    private volatile long projectedSequence;
+    private volatile int pendingCount;
+
+    TransferShard(int index, TransferEngine engine, BalanceStore store, WriteAheadLog journal,
+                  int ringSize, int maxBatch, long projectedSequence) {
+        this.index = index;
+        this.engine = engine;
+        this.store = store;
+        this.journal = journal;
+        this.maxBatch = maxBatch;
+        this.ring = new ArrayBlockingQueue<>(ringSize);
+        this.batch = new ArrayList<>(maxBatch);
+        this.written = new ArrayList<>(maxBatch * 2);
+        this.syncedSequence = projectedSequence;
+        this.projectedSequence = projectedSequence;
+    }
+
+    boolean offer(Submit submit) {
+        return running && ring.offer(submit);
+    }
+
+    void send(Command command) {
+        internal.add(command);
+        ring.offer(Wakeup.INSTANCE);
+    }
+
+    Account account(UUID cardId) {
+        return accounts.get(cardId);
+    }
+
+    int index() {
+        return index;
+    }
+
+    int queueDepth() {
+        return ring.size() + internal.size();
+    }
+
+    boolean isIdle() {
+        return ring.isEmpty() && internal.isEmpty() && pendingCount == 0;
+    }
+
+    long projectionLag() {
+        return syncedSequence - projectedSequence;
+    }
+
+    ConcurrentLinkedQueue<JournalRecord> published() {
+        return published;
+    }
+
+    void projected(long sequence) {
+        projectedSequence = sequence;
+    }
+
+    void stop() {
+        running = false;
+        ring.offer(Wakeup.INSTANCE);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!failed && (running || !internal.isEmpty() || !ring.isEmpty())) {
+                Command first = internal.poll();
+                if (first == null) {
+                    first = ring.poll(50, TimeUnit.MILLISECONDS);
+                }
+                if (first == null) {
+                    journal.deleteSegmentsBefore(retainFrom());
+                    continue;
+                }
+                batch.add(first);
+                Command next;
+                while (batch.size() < maxBatch && (next = internal.poll()) != null) {
+                    batch.add(next);
+                }
+                ring.drainTo(batch, maxBatch - batch.size());
+                processBatch();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void processBatch() {
+        for (Command command : batch) {
+            try {
+                if (command instanceof Submit submit) {
+                    submit(submit);
+                } else if (command instanceof Credit credit) {
+                    credit(credit);
+                } else if (command instanceof Settle settle) {
+                    settle(settle.transferId());
+                } else if (command instanceof Refund refund) {
+                    refund(refund);
+                }
+            } catch (RuntimeException e) {
+                failed(command, e);
+            }
+        }
+        try {
+            journal.sync();
+        } catch (RuntimeException e) {
+            log.error("event=transfer_engine_journal_failed shard={} error=\"{}\"", index, e.getMessage());
+            running = false;
+            failed = true;
+            for (Deferred action : deferred) {
+                if (action.result() != null) {
+                    action.result().completeExceptionally(new TransferException("Transfer outcome unknown: journal write failed"));
+                }
+            }
+            deferred.clear();
+            written.clear();
+            Command queued;
+            while ((queued = ring.poll()) != null) {
+                if (queued instanceof Submit submit) {
+                    reject(submit.result(), new TransferException("Transfer engine is not running"));
+                }
+            }
+            engine.shardFailed(this, e);
+            return;
+        } finally {
+            batch.clear();
+        }
+        if (!written.isEmpty()) {
+            published.addAll(written);
+            syncedSequence = written.get(written.size() - 1).sequence();
+            engine.recordBatch(written.size());
+            written.clear();
+        }
+        for (Deferred action : deferred) {
+            action.action().run();
+        }
+        deferred.clear();
+        pendingCount = pendingDebits.size();
+    }
+
+    /**
+     * A command failed before changing any balance, typically because its card could not be loaded.
+     * Submissions are rejected; a credit has already been debited from the source card, so it is
+     * retried instead.
+     */
+    private void failed(Command command, RuntimeException e) {
+        log.warn("event=transfer_engine_command_failed shard={} command={} error=\"{}\"", index, command.getClass().getSimpleName(), e.getMessage());
+        if (command instanceof Submit submit) {
+            reject(submit.result(), new TransferException("Transfer failed: " + e.getMessage()));
+        } else {
+            engine.retryLater(this, command);
+        }
+    }
+
+    private void submit(Submit submit) {
+        Account source = load(submit.source());
+        if (source == null) {
+            reject(submit.result(), new CardNotFoundException(String.format("Card %s not found", submit.source())));
+            return;
+        }
+        Money debit = submit.debit();
+        if (!source.getCurrency().equals(debit.getCurrency())) {
+            reject(submit.result(), new TransferException(String.format("Card %s is not in %s", submit.source(), debit.getCurrency())));
+            return;
+        }
+        if (source.getBalance() < debit.getMinorUnits()) {
+            reject(submit.result(), new InsufficientFundsException(String.format("Insufficient funds on card %s", submit.source())));
+            return;
+        }
+        TransferShard targetShard = engine.shardFor(submit.target());
+        if (targetShard != this) {
+            source.setBalance(source.getBalance() - debit.getMinorUnits());
+            JournalRecord record = append(JournalRecord.Type.DEBIT, submit);
+            pendingDebits.put(record.transferId(), record.sequence());
+            pendingSequences.add(record.sequence());
+            deferred.add(new Deferred(submit.result(), () -> targetShard.send(new Credit(record, submit.result()))));
+            return;
+        }
+        Account target = load(submit.target());
+        RuntimeException invalid = validateCredit(target, submit.target(), submit.credit());
+        if (invalid != null) {
+            reject(submit.result(), invalid);
+            return;
+        }
+        source.setBalance(source.getBalance() - debit.getMinorUnits());
+        target.setBalance(target.getBalance() + submit.credit().getMinorUnits());
+        JournalRecord record = append(JournalRecord.Type.TRANSFER, submit);
+        deferred.add(new Deferred(submit.result(), () -> engine.complete(submit.result(), record)));
+    }
+
+    private void credit(Credit credit) {
+        JournalRecord debit = credit.debit();
+        Account target = load(debit.target());
+        Money amount = Money.ofMinor(debit.credit(), debit.creditCurrency());
+        RuntimeException invalid = validateCredit(target, debit.target(), amount);
+        TransferShard sourceShard = engine.shardFor(debit.source());
+        if (invalid != null) {
+            sourceShard.send(new Refund(debit, invalid, credit.result()));
+            return;
+        }
+        target.setBalance(target.getBalance() + amount.getMinorUnits());
+        JournalRecord record = debit.withType(JournalRecord.Type.CREDIT, journal.nextSequence());
+        journal.append(record);
+        written.add(record);
+        deferred.add(new Deferred(credit.result(), () -> {
+            engine.complete(credit.result(), record);
+            sourceShard.send(new Settle(record.transferId()));
+        }));
+    }
+
+    private void refund(Refund refund) {
+        JournalRecord debit = refund.debit();
+        Account source = load(debit.source());
+        source.setBalance(source.getBalance() + debit.debit());
+        JournalRecord record = debit.withType(JournalRecord.Type.REFUND, journal.nextSequence());
+        journal.append(record);
+        written.add(record);
+        settle(debit.transferId());
+        deferred.add(new Deferred(refund.result(), () -> reject(refund.result(), refund.cause())));
+    }
+
+    private void settle(UUID transferId) {
+        Long sequence = pendingDebits.remove(transferId);
+        if (sequence != null) {
+            pendingSequences.remove(sequence);
+        }
+    }
+
+    private RuntimeException validateCredit(Account target, UUID targetId, Money credit) {
+        if (target == null) {
+            return new CardNotFoundException(String.format("Card %s not found", targetId));
+        }
+        if (!target.getCurrency().equals(credit.getCurrency())) {
+            return new TransferException(String.format("Card %s is not in %s", targetId, credit.getCurrency()));
+        }
+        if (target.getBalance() > Long.MAX_VALUE - credit.getMinorUnits()) {
+            return new TransferException(String.format("Balance of card %s would overflow", targetId));
+        }
+        return null;
+    }
+
+    private JournalRecord append(JournalRecord.Type type, Submit submit) {
+        JournalRecord record = new JournalRecord(type, journal.nextSequence(), submit.transferId(), submit.source(), submit.target(),
+                submit.debit().getMinorUnits(), submit.debit().getCurrency(),
+                submit.credit().getMinorUnits(), submit.credit().getCurrency());
+        journal.append(record);
+        written.add(record);
+        return record;
+    }
+
+    private Account load(UUID cardId) {
+        Account account = accounts.get(cardId);
+        if (account == null) {
+            account = store.loadAccount(cardId).orElse(null);
+            if (account != null) {
+                accounts.put(cardId, account);
+            }
+        }
+        return account;
+    }
+
+    private void reject(CompletableFuture<TransferReceipt> result, RuntimeException cause) {
+        engine.reject(result, cause);
+    }
+
+    private long retainFrom() {
+        long retain = projectedSequence + 1;
+        return pendingSequences.isEmpty() ? retain : Math.min(retain, pendingSequences.first());
+    }
+}
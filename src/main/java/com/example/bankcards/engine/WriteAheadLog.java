@@ -0,0 +1,175 @@
+package com.example.bankcards.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of one shard, split into segment files named by their first sequence number.
+ * Records are buffered by {@link #append} and made durable together by {@link #sync}, so a shard
+ * pays one fsync per batch of commands rather than one per transfer.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private ByteBuffer buffer;
+    private Segment active;
+    private FileChannel channel;
+    private long nextSequence = 1;
+
+    private record Segment(Path path, long firstSequence, long lastSequence) {
+    }
+
+    WriteAheadLog(Path directory, long segmentBytes, int bufferRecords) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.buffer = ByteBuffer.allocateDirect(bufferRecords * JournalRecord.RECORD_BYTES);
+    }
+
+    /**
+     * Reads every intact record from the existing segments, truncating a torn tail if the process
+     * died mid-write.
+     */
+    static List<JournalRecord> read(Path directory) {
+        List<JournalRecord> records = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+                while (content.hasRemaining() && channel.read(content) >= 0) {
+                    // read the whole segment
+                }
+                content.flip();
+                JournalRecord record;
+                while ((record = JournalRecord.readFrom(content)) != null) {
+                    records.add(record);
+                }
+                if (content.position() < content.limit()) {
+                    channel.truncate(content.position());
+                    channel.force(true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return records;
+    }
+
+    static void deleteAll(Path directory) {
+        for (Path segment : segments(directory)) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    void startAt(long sequence) {
+        this.nextSequence = sequence;
+    }
+
+    long nextSequence() {
+        return nextSequence++;
+    }
+
+    void append(JournalRecord record) {
+        if (buffer.remaining() < JournalRecord.RECORD_BYTES) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        record.writeTo(buffer);
+        if (active == null) {
+            active = new Segment(directory.resolve(String.format("%020d%s", record.sequence(), SUFFIX)), record.sequence(), record.sequence());
+        } else {
+            active = new Segment(active.path(), active.firstSequence(), record.sequence());
+        }
+    }
+
+    /**
+     * Writes buffered records and forces them to disk; rolls to a new segment once the active one
+     * exceeds the segment size.
+     */
+    void sync() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(active.path(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            if (channel.size() >= segmentBytes) {
+                channel.close();
+                channel = null;
+                closedSegments.add(active);
+                active = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Deletes closed segments whose records all have a sequence below {@code retainFrom}.
+     */
+    int deleteSegmentsBefore(long retainFrom) {
+        int deleted = 0;
+        while (!closedSegments.isEmpty() && closedSegments.get(0).lastSequence() < retainFrom) {
+            try {
+                Files.deleteIfExists(closedSegments.remove(0).path());
+                deleted++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() {
+        try {
+            sync();
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    channel = null;
+                }
+            }
+        }
+    }
+
+    private static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
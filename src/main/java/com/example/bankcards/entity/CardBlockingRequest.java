@@ -1,11 +1,13 @@
 package com.example.bankcards.entity;
 
 import com.example.bankcards.entity.enums.BlockRequestStatus;
+import com.example.bankcards.util.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -20,7 +22,7 @@ import java.util.UUID;
 public class CardBlockingRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     UUID Id;
 
     @ManyToOne
@@ -1,16 +1,28 @@
 package com.example.bankcards.entity;
 
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.UuidV7Generator;
+import com.example.bankcards.util.money.Money;
+import com.example.bankcards.util.money.MoneyType;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CompositeType;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.UuidGenerator;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * Dynamic updates make a flush write only the changed columns, so a status change does not write
+ * back the balance read at the start of its transaction over transfers applied since by relative
+ * updates ({@code CardBalanceRepository}).
+ */
 @Entity
 @Table(name = "cards")
+@DynamicUpdate
 @Setter
 @Getter
 @ToString
@@ -19,7 +31,7 @@ import java.util.UUID;
 public class CardEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     UUID Id;
 
     @Column(unique = true, nullable = false)
@@ -31,16 +43,45 @@ public class CardEntity {
 
     LocalDate expiryDate;
 
-    @Column(name = "card_last_four_digits",unique = true, nullable = false)
+    @Column(name = "card_last_four_digits", nullable = false)
     String cardLastFourDigits;
 
+    @Column(name = "card_token", unique = true, nullable = false, length = 64)
+    String cardToken;
+
     @Enumerated(EnumType.STRING)
     CardStatus status;
 
-    BigDecimal balance;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "balance", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "currency", nullable = false, length = 3))
+    @CompositeType(MoneyType.class)
+    Money balance;
+
+    /**
+     * Number of sub-balance rows in {@code card_balance_stripes} that credits to this card are spread
+     * over; 0 for an ordinary card.
+     */
+    @Column(name = "balance_stripes", nullable = false)
+    int balanceStripes;
+
+    @Formula("(select coalesce(sum(s.balance), 0) from card_balance_stripes s where s.card_id = id)")
+    long stripedBalance;
 
     public void setCardNumber(String cardNumber) {
         this.cardNumber = cardNumber;
         this.cardLastFourDigits = cardNumber.substring(cardNumber.length() - 4);
     }
+
+    public boolean isHot() {
+        return balanceStripes > 0;
+    }
+
+    /**
+     * The card's balance including what is held in its balance stripes; {@link #getBalance()} is only
+     * the part stored on the card row.
+     */
+    public Money getTotalBalance() {
+        return stripedBalance == 0 ? balance : balance.plus(Money.ofMinor(stripedBalance, balance.getCurrency()));
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "fx_rates")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FxRateEntity {
+
+    @Id
+    @Column(name = "currency", length = 3)
+    String currency;
+
+    @Column(name = "rate_to_base", nullable = false, precision = 20, scale = 10)
+    BigDecimal rateToBase;
+
+    @Column(name = "updated_at", nullable = false)
+    Instant updatedAt;
+}
@@ -0,0 +1,132 @@
+package com.example.bankcards.events;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * A card lifecycle change or transfer as written to the {@link EventJournal}. On disk an event is
+ * {@code [int length][int crc32c][payload]} with a fixed-size payload. The length is written last,
+ * so a zero length marks the end of the written part of a segment and a checksum mismatch marks a
+ * torn write.
+ * <p>
+ * Fields that do not apply to a type are null: {@code relatedId} is the owner of a created card,
+ * the target card of a transfer and the request of a resolved block request; {@code amount} is the
+ * start balance of a created card and the debit of a transfer, {@code credit} the credit of a
+ * transfer.
+ */
+public record CardEvent(long sequence, Type type, long timestampMicros, UUID cardId, UUID relatedId,
+                        CardStatus status, Money amount, Money credit) {
+
+    public enum Type {
+        CARD_CREATED,
+        CARD_STATUS_CHANGED,
+        CARD_DELETED,
+        BLOCK_REQUEST_RESOLVED,
+        TRANSFER
+    }
+
+    static final int PAYLOAD_BYTES = 1 + 1 + 8 + 8 + 16 * 2 + (8 + 3) * 2;
+    static final int RECORD_BYTES = 8 + PAYLOAD_BYTES;
+
+    private static final Type[] TYPES = Type.values();
+    private static final CardStatus[] STATUSES = CardStatus.values();
+    private static final byte[] NO_CURRENCY = new byte[3];
+
+    public static CardEvent cardCreated(UUID cardId, UUID ownerId, CardStatus status, Money startBalance) {
+        return new CardEvent(0, Type.CARD_CREATED, 0, cardId, ownerId, status, startBalance, null);
+    }
+
+    public static CardEvent statusChanged(UUID cardId, CardStatus status) {
+        return new CardEvent(0, Type.CARD_STATUS_CHANGED, 0, cardId, null, status, null, null);
+    }
+
+    public static CardEvent cardDeleted(UUID cardId) {
+        return new CardEvent(0, Type.CARD_DELETED, 0, cardId, null, null, null, null);
+    }
+
+    public static CardEvent blockRequestResolved(UUID cardId, UUID requestId) {
+        return new CardEvent(0, Type.BLOCK_REQUEST_RESOLVED, 0, cardId, requestId, CardStatus.BLOCKED, null, null);
+    }
+
+    public static CardEvent transfer(UUID sourceId, UUID targetId, Money debit, Money credit) {
+        return new CardEvent(0, Type.TRANSFER, 0, sourceId, targetId, null, debit, credit);
+    }
+
+    CardEvent withSequence(long newSequence, long newTimestampMicros) {
+        return new CardEvent(newSequence, type, newTimestampMicros, cardId, relatedId, status, amount, credit);
+    }
+
+    /**
+     * Writes the event at {@code offset} without moving the buffer's position.
+     */
+    void writeTo(ByteBuffer buffer, int offset) {
+        int at = offset + 8;
+        buffer.put(at, (byte) type.ordinal());
+        buffer.put(at + 1, status == null ? -1 : (byte) status.ordinal());
+        buffer.putLong(at + 2, sequence);
+        buffer.putLong(at + 10, timestampMicros);
+        putUuid(buffer, at + 18, cardId);
+        putUuid(buffer, at + 34, relatedId);
+        putMoney(buffer, at + 50, amount);
+        putMoney(buffer, at + 61, credit);
+        buffer.putInt(offset + 4, checksum(buffer, at));
+        buffer.putInt(offset, PAYLOAD_BYTES);
+    }
+
+    /**
+     * Reads the event at {@code offset}, or returns null if there is none or it is torn.
+     */
+    static CardEvent readFrom(ByteBuffer buffer, int offset) {
+        if (buffer.limit() - offset < RECORD_BYTES || buffer.getInt(offset) != PAYLOAD_BYTES
+                || buffer.getInt(offset + 4) != checksum(buffer, offset + 8)) {
+            return null;
+        }
+        int at = offset + 8;
+        int type = buffer.get(at);
+        int status = buffer.get(at + 1);
+        if (type < 0 || type >= TYPES.length || status >= STATUSES.length) {
+            return null;
+        }
+        return new CardEvent(buffer.getLong(at + 2), TYPES[type], buffer.getLong(at + 10),
+                getUuid(buffer, at + 18), getUuid(buffer, at + 34),
+                status < 0 ? null : STATUSES[status],
+                getMoney(buffer, at + 50), getMoney(buffer, at + 61));
+    }
+
+    private static int checksum(ByteBuffer buffer, int payloadStart) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(payloadStart, PAYLOAD_BYTES));
+        return (int) crc.getValue();
+    }
+
+    private static void putUuid(ByteBuffer buffer, int at, UUID uuid) {
+        buffer.putLong(at, uuid == null ? 0 : uuid.getMostSignificantBits());
+        buffer.putLong(at + 8, uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer, int at) {
+        long most = buffer.getLong(at);
+        long least = buffer.getLong(at + 8);
+        return most == 0 && least == 0 ? null : new UUID(most, least);
+    }
+
+    private static void putMoney(ByteBuffer buffer, int at, Money money) {
+        buffer.putLong(at, money == null ? 0 : money.getMinorUnits());
+        buffer.put(at + 8, money == null ? NO_CURRENCY : money.getCurrency().getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Money getMoney(ByteBuffer buffer, int at) {
+        byte[] code = new byte[3];
+        buffer.get(at + 8, code);
+        if (code[0] == 0) {
+            return null;
+        }
+        return Money.ofMinor(buffer.getLong(at), Currency.getInstance(new String(code, StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.bankcards.events;
+
+import com.example.bankcards.dto.CardEventMessage;
+import com.example.bankcards.entity.CardBlockingRequest;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.outbox.OutboxMessage;
+import com.example.bankcards.repository.OutboxRepository;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records card events in the outbox and, when it is enabled, in the {@link EventJournal}.
+ * <p>
+ * The outbox row is written in the caller's transaction, so it commits or rolls back together
+ * with the change. The journal append is done after commit, so the journal never holds a change
+ * that was rolled back; a failed append is logged and does not fail the already committed request.
+ */
+@Slf4j
+@Component
+public class CardEventRecorder {
+
+    private final EventJournal eventJournal;
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public CardEventRecorder(ObjectProvider<EventJournal> eventJournal, OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.eventJournal = eventJournal.getIfAvailable();
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void cardCreated(CardEntity card) {
+        cardsCreated(List.of(card));
+    }
+
+    public void cardsCreated(List<CardEntity> cards) {
+        if (!cards.isEmpty()) {
+            record(cards.stream().map(card -> CardEvent.cardCreated(card.getId(), card.getUserEntity().getId(), card.getStatus(), card.getBalance())).toList());
+        }
+    }
+
+    public void statusChanged(CardEntity card) {
+        statusChanged(List.of(card));
+    }
+
+    public void statusChanged(List<CardEntity> cards) {
+        if (!cards.isEmpty()) {
+            record(cards.stream().map(card -> CardEvent.statusChanged(card.getId(), card.getStatus())).toList());
+        }
+    }
+
+    public void cardDeleted(CardEntity card) {
+        record(List.of(CardEvent.cardDeleted(card.getId())));
+    }
+
+    public void blockRequestResolved(CardBlockingRequest request) {
+        record(List.of(CardEvent.blockRequestResolved(request.getCard().getId(), request.getId())));
+    }
+
+    public void transfer(CardEntity source, CardEntity target, Money debit, Money credit) {
+        record(List.of(CardEvent.transfer(source.getId(), target.getId(), debit, credit)));
+    }
+
+    /**
+     * Records several events with a single outbox insert, e.g. the transfers of a group commit.
+     */
+    public void record(List<CardEvent> events) {
+        Instant now = Instant.now();
+        outboxRepository.insert(events.stream().map(event -> toOutboxMessage(event, now)).toList());
+        if (eventJournal == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(events);
+            }
+        });
+    }
+
+    private void append(List<CardEvent> events) {
+        for (CardEvent event : events) {
+            try {
+                eventJournal.append(event);
+            } catch (RuntimeException e) {
+                log.error("event=event_journal_append_failed type={} card_id={} error=\"{}\"", event.type(), event.cardId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Message body of the event as it is published, without the journal sequence.
+     */
+    public static CardEventMessage toMessage(CardEvent event, Instant occurredAt) {
+        return CardEventMessage.builder()
+                .type(event.type())
+                .cardId(event.cardId())
+                .relatedId(event.relatedId())
+                .status(event.status())
+                .amount(event.amount())
+                .currency(event.amount() == null ? null : event.amount().getCurrency())
+                .creditedAmount(event.credit())
+                .creditedCurrency(event.credit() == null ? null : event.credit().getCurrency())
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    private OutboxMessage toOutboxMessage(CardEvent event, Instant occurredAt) {
+        CardEventMessage message = toMessage(event, occurredAt);
+        try {
+            return new OutboxMessage(0, event.type().name(), event.cardId(), objectMapper.writeValueAsString(message), occurredAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize card event " + event.type(), e);
+        }
+    }
+}
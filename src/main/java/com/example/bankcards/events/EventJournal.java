@@ -0,0 +1,301 @@
+package com.example.bankcards.events;
+
+import com.example.bankcards.config.EventJournalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of {@link CardEvent}s in memory-mapped segment files. An append copies the
+ * event into the mapped segment and returns; a background thread forces the written range to disk
+ * every {@code sync-interval}, so all events appended in between share one fsync.
+ * <p>
+ * Segments are named after the sequence of their first event and allocated at full size, which
+ * keeps appends free of file-size changes. On start the last segment is scanned for its last intact
+ * event and anything after it is zeroed, so a write torn by a crash is never mistaken for an event.
+ */
+@Slf4j
+public class EventJournal implements Closeable {
+
+    static final String SUFFIX = ".events";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long syncIntervalMillis;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Counter appended;
+    private final Timer syncTime;
+    private final AtomicLong durableSequence = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+    private MappedByteBuffer active;
+    private int position;
+    private int forcedPosition;
+    private long nextSequence = 1;
+    private volatile long lastSequence;
+    private boolean open;
+
+    public EventJournal(EventJournalProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    EventJournal(EventJournalProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.directory = properties.getDirectory();
+        this.segmentBytes = properties.getSegmentSize().toBytes();
+        this.syncIntervalMillis = properties.getSyncInterval().toMillis();
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        if (segmentBytes < CardEvent.RECORD_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Event journal segment size must be between %d bytes and 2GB", CardEvent.RECORD_BYTES));
+        }
+        this.appended = meterRegistry.counter("event.journal.appends");
+        this.syncTime = Timer.builder("event.journal.sync")
+                .description("Time to force appended events to disk")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = segments(directory);
+            if (segments.isEmpty()) {
+                active = map(segmentPath(1), segmentBytes);
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                active = map(last, Files.size(last));
+                nextSequence = firstSequence(last) + recoverTail();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastSequence = nextSequence - 1;
+        durableSequence.set(lastSequence);
+        Gauge.builder("event.journal.unsynced", this, journal -> journal.lastSequence() - journal.durableSequence())
+                .description("Events appended but not yet forced to disk")
+                .register(meterRegistry);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "event-journal-sync"));
+        flusher.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        open = true;
+        log.info("event=event_journal_started directory={} last_sequence={}", directory, lastSequence);
+    }
+
+    /**
+     * Appends the event and returns its sequence number. The event is visible to readers at once
+     * and durable after the next sync.
+     */
+    public long append(CardEvent event) {
+        long sequence;
+        synchronized (this) {
+            if (!open) {
+                throw new IllegalStateException("Event journal is not open");
+            }
+            if (position + CardEvent.RECORD_BYTES > active.capacity()) {
+                roll();
+            }
+            sequence = nextSequence++;
+            event.withSequence(sequence, nowMicros()).writeTo(active, position);
+            position += CardEvent.RECORD_BYTES;
+            lastSequence = sequence;
+        }
+        appended.increment();
+        return sequence;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long durableSequence() {
+        return durableSequence.get();
+    }
+
+    /**
+     * Reader that starts at {@code fromSequence} and can be polled for events as they are appended.
+     */
+    public EventJournalReader tail(long fromSequence) {
+        return new EventJournalReader(directory, fromSequence, this::lastSequence);
+    }
+
+    /**
+     * Feeds every event from {@code fromSequence} up to the current end of the journal to the
+     * consumer, e.g. to rebuild a read model on startup. Returns the number of events read.
+     */
+    public long replay(long fromSequence, Consumer<CardEvent> consumer) {
+        long replayed = 0;
+        try (EventJournalReader reader = tail(fromSequence)) {
+            int read;
+            while ((read = reader.poll(consumer, 4096)) > 0) {
+                replayed += read;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Forces events appended since the previous sync to disk.
+     */
+    void sync() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        long upTo;
+        synchronized (this) {
+            if (active == null || lastSequence == durableSequence.get()) {
+                return;
+            }
+            buffer = active;
+            from = forcedPosition;
+            to = position;
+            upTo = lastSequence;
+            forcedPosition = position;
+        }
+        long started = System.nanoTime();
+        try {
+            buffer.force(from, to - from);
+            durableSequence.accumulateAndGet(upTo, Math::max);
+        } catch (UncheckedIOException e) {
+            synchronized (this) {
+                if (active == buffer) {
+                    forcedPosition = Math.min(forcedPosition, from);
+                }
+            }
+            log.error("event=event_journal_sync_failed directory={} error=\"{}\"", directory, e.getMessage());
+        } finally {
+            syncTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            active.force();
+            durableSequence.set(lastSequence);
+            active = null;
+        }
+        log.info("event=event_journal_stopped last_sequence={}", lastSequence);
+    }
+
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static MappedByteBuffer mapReadOnly(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void roll() {
+        active.force();
+        durableSequence.accumulateAndGet(lastSequence, Math::max);
+        try {
+            active = map(segmentPath(nextSequence), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+        forcedPosition = 0;
+    }
+
+    /**
+     * Positions the writer after the last intact event of the active segment and returns how many
+     * events it holds.
+     */
+    private int recoverTail() {
+        int count = 0;
+        while (CardEvent.readFrom(active, position) != null) {
+            position += CardEvent.RECORD_BYTES;
+            count++;
+        }
+        forcedPosition = position;
+        if (!zeroFrom(active, position, false)) {
+            log.warn("event=event_journal_torn_tail position={} last_intact={}", position, count);
+            zeroFrom(active, position, true);
+            active.force();
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether everything from {@code from} to the end of the buffer is zero, or zeroes it
+     * if {@code clear} is set.
+     */
+    private static boolean zeroFrom(MappedByteBuffer buffer, int from, boolean clear) {
+        int i = from;
+        for (; i + Long.BYTES <= buffer.capacity(); i += Long.BYTES) {
+            if (clear) {
+                buffer.putLong(i, 0);
+            } else if (buffer.getLong(i) != 0) {
+                return false;
+            }
+        }
+        for (; i < buffer.capacity(); i++) {
+            if (clear) {
+                buffer.put(i, (byte) 0);
+            } else if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    }
+
+    private long nowMicros() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    private static MappedByteBuffer map(Path segment, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
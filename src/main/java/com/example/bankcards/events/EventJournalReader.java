@@ -0,0 +1,113 @@
+package com.example.bankcards.events;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Sequential reader over the segments of an {@link EventJournal}. A reader keeps its position
+ * between polls, so it can be used both to replay the journal and to tail it.
+ */
+public class EventJournalReader implements Closeable {
+
+    private final Path directory;
+    private final LongSupplier lastSequence;
+    private long nextSequence;
+    private MappedByteBuffer segment;
+    private long segmentFirstSequence;
+    private int position;
+
+    /**
+     * Reader over a journal directory that is not open in this process, e.g. for offline tools.
+     */
+    public EventJournalReader(Path directory, long fromSequence) {
+        this(directory, fromSequence, () -> Long.MAX_VALUE);
+    }
+
+    EventJournalReader(Path directory, long fromSequence, LongSupplier lastSequence) {
+        this.directory = directory;
+        this.lastSequence = lastSequence;
+        this.nextSequence = Math.max(fromSequence, 1);
+    }
+
+    /**
+     * Passes up to {@code maxEvents} events that have not been read yet to the consumer and returns
+     * how many there were; zero means the reader has caught up with the writer.
+     */
+    public int poll(Consumer<CardEvent> consumer, int maxEvents) {
+        int read = 0;
+        long upTo = lastSequence.getAsLong();
+        while (read < maxEvents && nextSequence <= upTo) {
+            if (segment == null && !openSegment()) {
+                break;
+            }
+            CardEvent event = CardEvent.readFrom(segment, position);
+            if (event == null) {
+                if (!openNextSegment()) {
+                    break;
+                }
+                continue;
+            }
+            position += CardEvent.RECORD_BYTES;
+            if (event.sequence() >= nextSequence) {
+                consumer.accept(event);
+                nextSequence = event.sequence() + 1;
+                read++;
+            }
+        }
+        return read;
+    }
+
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+
+    private boolean openSegment() {
+        List<Path> segments = EventJournal.segments(directory);
+        Path chosen = null;
+        for (Path candidate : segments) {
+            if (chosen == null || EventJournal.firstSequence(candidate) <= nextSequence) {
+                chosen = candidate;
+            }
+        }
+        if (chosen == null) {
+            return false;
+        }
+        open(chosen);
+        return true;
+    }
+
+    /**
+     * Moves to the segment after the current one; the writer only starts a new segment once the
+     * current one is full, so its existence means nothing more will appear in the current one.
+     */
+    private boolean openNextSegment() {
+        for (Path candidate : EventJournal.segments(directory)) {
+            if (EventJournal.firstSequence(candidate) > segmentFirstSequence) {
+                open(candidate);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void open(Path path) {
+        try {
+            segment = EventJournal.mapReadOnly(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segmentFirstSequence = EventJournal.firstSequence(path);
+        position = 0;
+    }
+}
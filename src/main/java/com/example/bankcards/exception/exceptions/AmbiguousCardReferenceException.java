@@ -0,0 +1,7 @@
+package com.example.bankcards.exception.exceptions;
+
+public class AmbiguousCardReferenceException extends RuntimeException {
+    public AmbiguousCardReferenceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception.exceptions;
+
+public class CardLockTimeoutException extends TransferException {
+    public CardLockTimeoutException(String message) {
+        super(message);
+    }
+}
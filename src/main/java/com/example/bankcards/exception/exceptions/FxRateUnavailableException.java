@@ -0,0 +1,7 @@
+package com.example.bankcards.exception.exceptions;
+
+public class FxRateUnavailableException extends RuntimeException {
+    public FxRateUnavailableException(String message) {
+        super(message);
+    }
+}
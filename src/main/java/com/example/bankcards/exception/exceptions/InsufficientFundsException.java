@@ -0,0 +1,7 @@
+package com.example.bankcards.exception.exceptions;
+
+public class InsufficientFundsException extends TransferException {
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.exception.exceptions;
+
+/**
+ * Thrown when {@code transfer.queue.max-pending} transfers are waiting. The limit is soft, so the
+ * queue may hold a few more than that when submissions race.
+ */
+public class TransferQueueFullException extends TransferException {
+    public TransferQueueFullException(String message) {
+        super(message);
+    }
+}
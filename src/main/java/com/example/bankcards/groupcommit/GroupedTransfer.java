@@ -0,0 +1,9 @@
+package com.example.bankcards.groupcommit;
+
+import com.example.bankcards.util.money.Money;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+record GroupedTransfer(UUID sourceCardId, UUID targetCardId, Money debit, Money credit, CompletableFuture<Void> result) {
+}
@@ -0,0 +1,245 @@
+package com.example.bankcards.groupcommit;
+
+import com.example.bankcards.config.GroupCommitProperties;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies concurrently submitted transfers in shared transactions, so a burst of transfers pays
+ * for one commit instead of one each.
+ * <p>
+ * A single committer thread takes the first waiting transfer, keeps the batch open for up to
+ * {@code max-wait} or until {@code max-batch-size} transfers are collected, then locks all cards
+ * of the batch in id order and applies the transfers one after another. Each transfer is checked
+ * against the locked balances before it is applied, so a transfer that would fail is left out and
+ * reported to its caller without rolling back the rest of the batch. A failure of the commit itself
+ * fails every transfer of the batch, and the committer carries on with the next one.
+ */
+@Slf4j
+public class TransferGroupCommitter implements Closeable {
+
+    private final CardRepository cardRepository;
+    private final CardEventRecorder cardEvents;
+    private final TransactionOperations transactionOperations;
+    private final BlockingQueue<GroupedTransfer> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long timeoutMillis;
+    private final Counter commits;
+    private final Counter transfers;
+    private final DistributionSummary batchSize;
+
+    private Thread committer;
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    public TransferGroupCommitter(CardRepository cardRepository,
+                                  CardEventRecorder cardEvents,
+                                  TransactionOperations transactionOperations,
+                                  GroupCommitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.cardEvents = cardEvents;
+        this.transactionOperations = transactionOperations;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.commits = meterRegistry.counter("transfer.group.commits");
+        this.transfers = meterRegistry.counter("transfer.group.transfers");
+        this.batchSize = DistributionSummary.builder("transfer.group.batch.size")
+                .description("Transfers applied per group commit")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        running = true;
+        closed = false;
+        committer = new Thread(this::run, "transfer-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+        log.info("event=transfer_group_commit_started max_batch_size={} max_wait_us={}", maxBatchSize, maxWaitNanos / 1_000);
+    }
+
+    /**
+     * Queues the transfer for the next group commit. The returned future completes once the
+     * transfer is committed, or exceptionally with the reason it was not applied.
+     */
+    public CompletableFuture<Void> submit(UUID sourceCardId, UUID targetCardId, Money debit, Money credit) {
+        GroupedTransfer transfer = new GroupedTransfer(sourceCardId, targetCardId, debit, credit, new CompletableFuture<>());
+        if (!running || !queue.offer(transfer)) {
+            throw new TransferException("Too many transfers in progress, try again later");
+        }
+        if (closed) {
+            // close() may have drained the queue between the check above and the offer
+            failQueued();
+        }
+        return transfer.result();
+    }
+
+    /**
+     * Submits a transfer and waits for it to be committed, up to the configured timeout.
+     */
+    public void transfer(UUID sourceCardId, UUID targetCardId, Money debit, Money credit) {
+        CompletableFuture<Void> result = submit(sourceCardId, targetCardId, debit, credit);
+        try {
+            result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TransferException("Transfer failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new TransferException("Transfer was accepted but not confirmed in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferException("Interrupted while waiting for the transfer");
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (committer == null) {
+            return;
+        }
+        try {
+            committer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        committer = null;
+        closed = true;
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<GroupedTransfer> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(transfer -> transfer.result().completeExceptionally(new TransferException("Transfer service is shutting down")));
+    }
+
+    /**
+     * Anything thrown while a batch is collected or committed fails that batch's transfers that are
+     * not completed yet; the thread itself only stops once closed, so callers are never left waiting.
+     */
+    private void run() {
+        List<GroupedTransfer> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(transfer -> transfer.result().completeExceptionally(new TransferException("Transfer service is shutting down")));
+                return;
+            } catch (Throwable e) {
+                log.error("event=transfer_group_commit_failed batch_size={} error=\"{}\"", batch.size(), e.toString());
+                batch.forEach(transfer -> transfer.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<GroupedTransfer> batch) throws InterruptedException {
+        GroupedTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            GroupedTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    void commit(List<GroupedTransfer> batch) {
+        RuntimeException[] failures;
+        try {
+            failures = transactionOperations.execute(status -> apply(batch));
+        } catch (RuntimeException e) {
+            log.error("event=transfer_group_commit_failed batch_size={} error=\"{}\"", batch.size(), e.getMessage());
+            batch.forEach(transfer -> transfer.result().completeExceptionally(e));
+            return;
+        }
+        commits.increment();
+        transfers.increment(batch.size());
+        batchSize.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (failures[i] == null) {
+                batch.get(i).result().complete(null);
+            } else {
+                batch.get(i).result().completeExceptionally(failures[i]);
+            }
+        }
+    }
+
+    private RuntimeException[] apply(List<GroupedTransfer> batch) {
+        Set<UUID> cardIds = new HashSet<>();
+        for (GroupedTransfer transfer : batch) {
+            cardIds.add(transfer.sourceCardId());
+            cardIds.add(transfer.targetCardId());
+        }
+        Map<UUID, CardEntity> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(CardEntity::getId, Function.identity()));
+
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        List<CardEvent> events = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            GroupedTransfer transfer = batch.get(i);
+            CardEntity source = cards.get(transfer.sourceCardId());
+            CardEntity target = cards.get(transfer.targetCardId());
+            if (source == null || target == null) {
+                failures[i] = new CardNotFoundException("Card not found");
+                continue;
+            }
+            if (source.getTotalBalance().isLessThan(transfer.debit())) {
+                failures[i] = new InsufficientFundsException("Insufficient funds on card " + CardLookup.mask(source.getCardNumber()));
+                continue;
+            }
+            source.setBalance(source.getBalance().minus(transfer.debit()));
+            target.setBalance(target.getBalance().plus(transfer.credit()));
+            events.add(CardEvent.transfer(source.getId(), target.getId(), transfer.debit(), transfer.credit()));
+        }
+        if (!events.isEmpty()) {
+            cardEvents.record(events);
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.grpc;
+
+import com.example.bankcards.dto.requests.BalanceRequest;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.BalanceResponse;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.grpc.proto.CardsProto;
+import com.example.bankcards.util.money.Money;
+import com.google.protobuf.Timestamp;
+
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Conversions between the {@code cards.proto} messages and the DTOs of {@code UserService}. Amounts
+ * travel as minor units with their currency code; an empty code is the default currency.
+ */
+final class CardGrpcMessages {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private CardGrpcMessages() {
+    }
+
+    static BalanceRequest balanceRequest(CardsProto.BalanceRequest request) {
+        return new BalanceRequest(request.getLastFourCardDigitsList());
+    }
+
+    static CardsProto.BalanceResponse balanceResponse(List<BalanceResponse> balances) {
+        CardsProto.BalanceResponse.Builder response = CardsProto.BalanceResponse.newBuilder();
+        for (BalanceResponse balance : balances) {
+            response.addBalances(CardsProto.Balance.newBuilder()
+                    .setLastFourCardDigits(balance.getLastFourCardDigits())
+                    .setBalance(money(balance.getBalance())));
+        }
+        return response.build();
+    }
+
+    static TransferRequest transferRequest(CardsProto.TransferRequest request) {
+        return new TransferRequest(request.getSource(), request.getTarget(), request.hasAmount() ? money(request.getAmount()) : null);
+    }
+
+    static CardsProto.TransferResponse transferResponse(TransferResponse transfer) {
+        CardsProto.TransferResponse.Builder response = CardsProto.TransferResponse.newBuilder()
+                .setSource(transfer.getSourceLastFourCardDigits())
+                .setTarget(transfer.getTargetLastFourCardDigits())
+                .setAmount(money(transfer.getAmount()));
+        if (transfer.getCreditedAmount() != null) {
+            response.setCreditedAmount(money(transfer.getCreditedAmount()));
+        }
+        return response.build();
+    }
+
+    static CardsProto.CardEvent cardEvent(CardEvent event) {
+        CardsProto.CardEvent.Builder message = CardsProto.CardEvent.newBuilder()
+                .setSequence(event.sequence())
+                .setType(CardsProto.CardEventType.valueOf(event.type().name()))
+                .setCardId(event.cardId().toString())
+                .setOccurredAt(Timestamp.newBuilder()
+                        .setSeconds(Math.floorDiv(event.timestampMicros(), MICROS_PER_SECOND))
+                        .setNanos((int) Math.floorMod(event.timestampMicros(), MICROS_PER_SECOND) * 1000));
+        if (event.relatedId() != null) {
+            message.setRelatedId(event.relatedId().toString());
+        }
+        if (event.status() != null) {
+            message.setStatus(CardsProto.CardStatus.valueOf(event.status().name()));
+        }
+        if (event.amount() != null) {
+            message.setAmount(money(event.amount()));
+        }
+        if (event.credit() != null) {
+            message.setCreditedAmount(money(event.credit()));
+        }
+        return message.build();
+    }
+
+    static CardsProto.Money money(Money money) {
+        return CardsProto.Money.newBuilder()
+                .setMinorUnits(money.getMinorUnits())
+                .setCurrency(money.getCurrency().getCurrencyCode())
+                .build();
+    }
+
+    static Money money(CardsProto.Money money) {
+        return Money.ofMinor(money.getMinorUnits(),
+                money.getCurrency().isEmpty() ? Money.DEFAULT_CURRENCY : Currency.getInstance(money.getCurrency()));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bankcards.grpc;
+
+import com.example.bankcards.events.EventJournal;
+import com.example.bankcards.events.EventJournalReader;
+import com.example.bankcards.exception.exceptions.*;
+import com.example.bankcards.grpc.proto.CardsGrpc;
+import com.example.bankcards.grpc.proto.CardsProto;
+import com.example.bankcards.service.UserService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The {@code bankcards.Cards} service of {@code cards.proto}: gRPC counterpart of the balance and
+ * transfer endpoints of {@code UserController}, plus a stream of card events from the
+ * {@link EventJournal}. Calls run as the user authenticated by {@link JwtServerInterceptor}, so the
+ * same {@link UserService} rules apply as over HTTP.
+ */
+@Slf4j
+public class CardGrpcService extends CardsGrpc.CardsImplBase implements Closeable {
+
+    private static final int EVENTS_PER_POLL = 256;
+
+    private final UserService userService;
+    private final EventJournal eventJournal;
+    private final long eventPollMillis;
+    private final ScheduledExecutorService eventPoller;
+
+    public CardGrpcService(UserService userService, EventJournal eventJournal, Duration eventPollInterval) {
+        this.userService = userService;
+        this.eventJournal = eventJournal;
+        this.eventPollMillis = eventPollInterval.toMillis();
+        this.eventPoller = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "grpc-card-events"));
+    }
+
+    @Override
+    public void getBalance(CardsProto.BalanceRequest request, StreamObserver<CardsProto.BalanceResponse> observer) {
+        unary(observer, () -> CardGrpcMessages.balanceResponse(userService.getBalance(CardGrpcMessages.balanceRequest(request))));
+    }
+
+    @Override
+    public void transfer(CardsProto.TransferRequest request, StreamObserver<CardsProto.TransferResponse> observer) {
+        unary(observer, () -> CardGrpcMessages.transferResponse(userService.transfer(CardGrpcMessages.transferRequest(request))));
+    }
+
+    /**
+     * Applies the transfers as they arrive, each in its own transaction, and reports the results
+     * when the client half-closes; a failed transfer does not stop the ones after it.
+     */
+    @Override
+    public StreamObserver<CardsProto.TransferRequest> transferBatch(StreamObserver<CardsProto.TransferBatchReport> responseObserver) {
+        CardsProto.TransferBatchReport.Builder report = CardsProto.TransferBatchReport.newBuilder();
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(CardsProto.TransferRequest request) {
+                long index = report.getTotal();
+                report.setTotal(index + 1);
+                try {
+                    report.addTransfers(CardGrpcMessages.transferResponse(userService.transfer(CardGrpcMessages.transferRequest(request))));
+                    report.setCompleted(report.getCompleted() + 1);
+                } catch (RuntimeException e) {
+                    report.addErrors(CardsProto.TransferBatchError.newBuilder().setIndex(index).setMessage(String.valueOf(e.getMessage())));
+                    report.setFailed(report.getFailed() + 1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("event=grpc_transfer_batch_aborted applied={} error=\"{}\"", report.getCompleted(), t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(report.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void streamCardEvents(CardsProto.CardEventsRequest request, StreamObserver<CardsProto.CardEvent> observer) {
+        if (eventJournal == null) {
+            observer.onError(Status.UNIMPLEMENTED.withDescription("Event journal is disabled").asRuntimeException());
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getAuthorities().stream().noneMatch(authority -> "ADMIN".equals(authority.getAuthority()))) {
+            observer.onError(Status.PERMISSION_DENIED.withDescription("Card events are available to admins only").asRuntimeException());
+            return;
+        }
+        new EventStream((ServerCallStreamObserver<CardsProto.CardEvent>) observer, eventJournal.tail(request.getFromSequence())).start();
+    }
+
+    @Override
+    public void close() {
+        eventPoller.shutdownNow();
+    }
+
+    private static <T> void unary(StreamObserver<T> observer, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(status(e).withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    static Status status(RuntimeException e) {
+        if (e instanceof AccessDeniedException) {
+            return Status.PERMISSION_DENIED;
+        }
+        if (e instanceof CardNotFoundException || e instanceof UserNotFoundException || e instanceof TransferNotFoundException) {
+            return Status.NOT_FOUND;
+        }
+        if (e instanceof TransferQueueFullException) {
+            return Status.RESOURCE_EXHAUSTED;
+        }
+        if (e instanceof CardLockTimeoutException) {
+            return Status.ABORTED;
+        }
+        if (e instanceof TransferException || e instanceof AmbiguousCardReferenceException || e instanceof FxRateUnavailableException) {
+            return Status.FAILED_PRECONDITION;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT;
+        }
+        return Status.INTERNAL;
+    }
+
+    /**
+     * Polls the journal every {@code event-poll-interval} and sends what it finds while the client
+     * keeps up; a slow client is not buffered for, the reader just stays behind until it is ready.
+     */
+    private class EventStream implements Runnable {
+
+        private final ServerCallStreamObserver<CardsProto.CardEvent> call;
+        private final EventJournalReader reader;
+        private ScheduledFuture<?> poll;
+
+        EventStream(ServerCallStreamObserver<CardsProto.CardEvent> call, EventJournalReader reader) {
+            this.call = call;
+            this.reader = reader;
+        }
+
+        synchronized void start() {
+            call.setOnCancelHandler(this::stop);
+            poll = eventPoller.scheduleWithFixedDelay(this, 0, eventPollMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized void run() {
+            try {
+                while (!call.isCancelled() && call.isReady()) {
+                    if (reader.poll(event -> call.onNext(CardGrpcMessages.cardEvent(event)), EVENTS_PER_POLL) == 0) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                stop();
+                if (!call.isCancelled()) {
+                    log.error("event=grpc_card_events_failed next_sequence={} error=\"{}\"", reader.nextSequence(), e.getMessage());
+                    call.onError(Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+                }
+            }
+        }
+
+        private synchronized void stop() {
+            poll.cancel(false);
+            reader.close();
+        }
+    }
+}
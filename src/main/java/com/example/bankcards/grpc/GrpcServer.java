@@ -0,0 +1,48 @@
+package com.example.bankcards.grpc;
+
+import io.grpc.Server;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lifecycle of the gRPC server: on close it stops accepting calls and gives the in-flight ones
+ * {@code shutdownTimeout} to finish before cancelling them.
+ */
+@Slf4j
+public class GrpcServer implements Closeable {
+
+    private final Server server;
+    private final Duration shutdownTimeout;
+
+    public GrpcServer(Server server, Duration shutdownTimeout) {
+        this.server = server;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public void start() throws IOException {
+        server.start();
+        log.info("event=grpc_server_started port={}", server.getPort());
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("event=grpc_server_stopped");
+    }
+}
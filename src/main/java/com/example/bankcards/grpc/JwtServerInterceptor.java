@@ -0,0 +1,110 @@
+package com.example.bankcards.grpc;
+
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.util.mappers.UserMapper;
+import io.grpc.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.function.Supplier;
+
+/**
+ * Authenticates gRPC calls by the {@code authorization: Bearer <jwt>} metadata, the same access
+ * token as over HTTP. Calls without a valid token are closed with {@code UNAUTHENTICATED}; for the
+ * others the security context is set around every callback of the call, since gRPC may run them on
+ * different executor threads.
+ */
+public class JwtServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    public JwtServerInterceptor(JwtService jwtService, UserDetailsService userDetailsService, UserRepository userRepository, UserMapper userMapper) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        SecurityContext context = authenticate(headers.get(AUTHORIZATION));
+        if (context == null) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing or invalid bearer token"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        ServerCall.Listener<Q> listener = startWithContext(context, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(Q message) {
+                withContext(context, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                withContext(context, super::onHalfClose);
+            }
+
+            @Override
+            public void onCancel() {
+                withContext(context, super::onCancel);
+            }
+
+            @Override
+            public void onComplete() {
+                withContext(context, super::onComplete);
+            }
+
+            @Override
+            public void onReady() {
+                withContext(context, super::onReady);
+            }
+        };
+    }
+
+    private SecurityContext authenticate(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        String jwt = authorization.substring(7);
+        try {
+            String username = jwtService.extractUsername(jwt);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDto user = userRepository.findByUsername(userDetails.getUsername()).map(userMapper::toDto).orElse(null);
+            if (user == null || !jwtService.isTokenValid(jwt, user)) {
+                return null;
+            }
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            return context;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void withContext(SecurityContext context, Runnable callback) {
+        startWithContext(context, () -> {
+            callback.run();
+            return null;
+        });
+    }
+
+    private static <T> T startWithContext(SecurityContext context, Supplier<T> callback) {
+        SecurityContextHolder.setContext(context);
+        try {
+            return callback.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
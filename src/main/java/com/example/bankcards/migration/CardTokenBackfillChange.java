@@ -0,0 +1,101 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CardTokenizer;
+import liquibase.change.CheckSum;
+import liquibase.change.custom.CustomChangeChecksum;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Liquibase change that fills card_token for rows created before the column existed (including demo
+ * data), in batches, so the changeset running it can then make the column NOT NULL. The token is a
+ * keyed hash, so it is computed here with the application's {@code card.token.secret}, passed in as
+ * the {@code cardTokenSecret} changelog parameter; Liquibase only sets parameters that have both a
+ * getter and a setter. The secret is left out of the checksum.
+ * <p>
+ * The rows are read with a fetch size, so the driver reads them through a named portal and closes
+ * it with the result set. An unnamed portal would stay open after the last, empty batch, and the
+ * NOT NULL change that follows in the same transaction would fail with "cannot ALTER TABLE cards
+ * because it is being used by active queries".
+ */
+public class CardTokenBackfillChange implements CustomTaskChange, CustomChangeChecksum {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String SELECT_BATCH = "SELECT id, card_number FROM cards WHERE card_token IS NULL LIMIT " + BATCH_SIZE;
+    private static final String UPDATE_TOKEN = "UPDATE cards SET card_token = ? WHERE id = ?";
+
+    private String secret;
+    private long filled;
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        if (secret == null || secret.isBlank()) {
+            throw new CustomChangeException("secret is required: set the cardTokenSecret changelog parameter to card.token.secret");
+        }
+        CardTokenizer cardTokenizer = new CardTokenizer(secret);
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement select = connection.prepareStatement(SELECT_BATCH);
+             PreparedStatement update = connection.prepareStatement(UPDATE_TOKEN)) {
+            select.setFetchSize(BATCH_SIZE);
+            int batch;
+            do {
+                batch = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        update.setString(1, cardTokenizer.tokenize(rs.getString("card_number")));
+                        update.setObject(2, rs.getObject("id", UUID.class));
+                        update.addBatch();
+                        batch++;
+                    }
+                }
+                if (batch > 0) {
+                    update.executeBatch();
+                    filled += batch;
+                }
+            } while (batch == BATCH_SIZE);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Cannot backfill card_token", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "card_token filled for " + filled + " cards";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public CheckSum generateChecksum() {
+        return CheckSum.compute(getClass().getName());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CardTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Migration runner mode, {@code java -jar app.jar migrate}, meant for an init container or a
+ * deploy job. It starts a context with only a data source and Liquibase, applies the changelog and
+ * exits, so application instances can start with Liquibase disabled and do not queue on its lock.
+ * The card token secret is checked before Liquibase starts, since the card_token backfill of
+ * changeset 10 needs it.
+ * <p>
+ * The class is deliberately not a component, so the application's component scan does not pick it up.
+ */
+@Slf4j
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class})
+public class SchemaMigration {
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        String[] arguments = Stream.concat(Arrays.stream(args), Stream.of("--spring.liquibase.enabled=true")).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SchemaMigration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .listeners((ApplicationListener<ApplicationEnvironmentPreparedEvent>) event ->
+                        CardTokenizer.requireSecret(event.getEnvironment().getProperty("card.token.secret")))
+                .run(arguments);
+        log.info("event=schema_migrated elapsed_ms={}", (System.nanoTime() - start) / 1_000_000);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup check used when Liquibase does not run in the application. The changesets the application
+ * was built with are read from the packaged changelog, and the changesets applied to the database
+ * are read with a single query against the changelog table, without taking the Liquibase lock.
+ * <p>
+ * Startup fails if a changeset is missing. Changesets that have a context, such as the demo data,
+ * are optional. Changesets the application does not know about only produce a warning, because
+ * during a rolling deploy the old instances keep running after the migration job has applied the
+ * next release's changesets.
+ */
+@Slf4j
+public class SchemaVersionCheck implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Resource changeLog;
+    private final String changeLogTable;
+
+    public SchemaVersionCheck(JdbcTemplate jdbcTemplate, Resource changeLog, String changeLogTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLog = changeLog;
+        this.changeLogTable = changeLogTable;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        List<ChangeSetId> changeSets = new ArrayList<>();
+        readChangeLog(changeLog, changeSets);
+        Set<ChangeSetId> applied = appliedChangeSets();
+
+        List<ChangeSetId> missing = changeSets.stream()
+                .filter(changeSet -> !changeSet.optional() && !applied.contains(changeSet))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database schema is behind the application, missing changesets " + missing
+                    + "; run the migration job (java -jar app.jar migrate) before starting the application");
+        }
+        applied.removeAll(changeSets);
+        if (!applied.isEmpty()) {
+            log.warn("event=schema_ahead_of_application unknown_changesets={}", applied);
+        }
+        log.info("event=schema_verified changesets={} elapsed_ms={}", changeSets.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Set<ChangeSetId> appliedChangeSets() {
+        try {
+            return new LinkedHashSet<>(jdbcTemplate.query("SELECT id, author FROM " + changeLogTable,
+                    (rs, rowNum) -> new ChangeSetId(rs.getString("id"), rs.getString("author"), false)));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Cannot read the Liquibase changelog table " + changeLogTable
+                    + "; run the migration job (java -jar app.jar migrate) before starting the application", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void readChangeLog(Resource resource, List<ChangeSetId> changeSets) {
+        Map<String, Object> document;
+        try (InputStream in = resource.getInputStream()) {
+            document = new Yaml().load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read changelog " + resource, e);
+        }
+        for (Map<String, Object> entry : (List<Map<String, Object>>) document.get("databaseChangeLog")) {
+            if (entry.get("changeSet") instanceof Map<?, ?> changeSet) {
+                boolean optional = changeSet.get("context") != null || changeSet.get("contextFilter") != null;
+                changeSets.add(new ChangeSetId(String.valueOf(changeSet.get("id")), String.valueOf(changeSet.get("author")), optional));
+            } else if (entry.get("include") instanceof Map<?, ?> include) {
+                readChangeLog(included(resource, include), changeSets);
+            } else if (!entry.containsKey("preConditions") && !entry.containsKey("property")) {
+                throw new IllegalStateException("Unsupported changelog entry " + entry.keySet() + " in " + resource);
+            }
+        }
+    }
+
+    private static Resource included(Resource parent, Map<?, ?> include) {
+        String file = String.valueOf(include.get("file"));
+        if (!Boolean.TRUE.equals(include.get("relativeToChangelogFile"))) {
+            throw new IllegalStateException("Changelog " + file + " must be included relative to " + parent);
+        }
+        try {
+            return parent.createRelative(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot resolve changelog " + file + " relative to " + parent, e);
+        }
+    }
+
+    /**
+     * Changesets are matched on id and author only, as the stored file name depends on how the
+     * changelog was located when it was applied.
+     */
+    record ChangeSetId(String id, String author, boolean optional) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ChangeSetId that && id.equals(that.id) && author.equals(that.author);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode() * 31 + author.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return id + "::" + author;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bankcards.openapi;
+
+import com.example.bankcards.config.JacksonConfig;
+import com.example.bankcards.config.OpenApiConfig;
+import com.example.bankcards.controller.AdminController;
+import com.example.bankcards.controller.AuthController;
+import com.example.bankcards.controller.UserController;
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.configuration.SpringDocPageableConfiguration;
+import org.springdoc.core.configuration.SpringDocSortConfiguration;
+import org.springdoc.core.configuration.SpringDocSpecPropertiesConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.webmvc.core.configuration.MultipleOpenApiSupportConfiguration;
+import org.springdoc.webmvc.core.configuration.SpringDocWebMvcConfiguration;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the OpenAPI spec at build time (process-classes) into the application's classes, where
+ * {@code OpenApiSpecController} serves it, so instances do not scan controllers at runtime. It runs
+ * on the main classpath, so the spec is generated however the tests are skipped. Springdoc scans the
+ * controllers in a web context on a loopback port; the controllers' dependencies are lazy proxies
+ * that are never resolved, as scanning does not call them. Each file is also written
+ * gzip-compressed for clients that accept it.
+ * <p>
+ * The class is deliberately not a component, so the application's component scan does not pick it up.
+ * <p>
+ * Usage: {@code OpenApiSpecGenerator <output directory>}
+ */
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class, ValidationAutoConfiguration.class, ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class, SpringDocConfiguration.class,
+        SpringDocConfigProperties.class, SpringDocSpecPropertiesConfiguration.class, SpringDocPageableConfiguration.class,
+        SpringDocSortConfiguration.class, SpringDocWebMvcConfiguration.class, MultipleOpenApiSupportConfiguration.class})
+@Import({JacksonConfig.class, OpenApiConfig.class})
+public final class OpenApiSpecGenerator {
+
+    private static final List<Class<?>> CONTROLLERS = List.of(AdminController.class, UserController.class, AuthController.class);
+
+    private OpenApiSpecGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Path output = Path.of(args[0]);
+        Files.createDirectories(output);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OpenApiSpecGenerator.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(OpenApiSpecGenerator::registerControllers)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--server.address=127.0.0.1", "--server.port=0", "--springdoc.api-docs.enabled=true",
+                        "--springdoc.swagger-ui.enabled=false", "--logging.level.root=WARN")) {
+            URI base = URI.create("http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            HttpClient client = HttpClient.newHttpClient();
+            write(client, base.resolve("/v3/api-docs"), output.resolve("openapi.json"));
+            write(client, base.resolve("/v3/api-docs.yaml"), output.resolve("openapi.yaml"));
+        }
+    }
+
+    private static void registerControllers(ConfigurableApplicationContext context) {
+        GenericApplicationContext webContext = (GenericApplicationContext) context;
+        webContext.getDefaultListableBeanFactory().setAutowireCandidateResolver(new ContextAnnotationAutowireCandidateResolver() {
+            @Override
+            protected boolean isLazy(DependencyDescriptor descriptor) {
+                return isControllerDependency(descriptor) || super.isLazy(descriptor);
+            }
+        });
+        CONTROLLERS.forEach(webContext::registerBean);
+    }
+
+    private static boolean isControllerDependency(DependencyDescriptor descriptor) {
+        return descriptor.getMethodParameter() != null && CONTROLLERS.contains(descriptor.getMethodParameter().getDeclaringClass());
+    }
+
+    private static void write(HttpClient client, URI uri, Path file) throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        byte[] spec = response.body();
+        if (response.statusCode() != 200 || spec.length == 0) {
+            throw new IllegalStateException("springdoc returned no spec for " + uri.getPath() + ", status " + response.statusCode());
+        }
+        Files.write(file, spec);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.resolveSibling(file.getFileName() + ".gz"))) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(spec);
+        }
+        System.out.printf("Wrote %s (%d bytes)%n", file, spec.length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.outbox;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * POSTs each batch to a URL as newline-delimited JSON; any non-2xx response fails the batch.
+ */
+public class HttpOutboxSink implements OutboxSink {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final RestClient restClient;
+    private final URI url;
+
+    public HttpOutboxSink(URI url, Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        String body = messages.stream().map(OutboxMessage::toJson).collect(Collectors.joining("\n", "", "\n"));
+        restClient.post()
+                .uri(url)
+                .contentType(NDJSON)
+                .body(body)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of the outbox: an event written in the same transaction as the change it describes, with
+ * a JSON payload that is handed to the {@link OutboxSink} as is.
+ */
+public record OutboxMessage(long id, String eventType, UUID aggregateId, String payload, Instant createdAt) {
+
+    /**
+     * The message as one line of JSON with the payload embedded unchanged.
+     */
+    public String toJson() {
+        return "{\"id\":" + id
+                + ",\"type\":\"" + eventType
+                + "\",\"aggregate_id\":\"" + aggregateId
+                + "\",\"created_at\":\"" + createdAt
+                + "\",\"payload\":" + payload + "}";
+    }
+}
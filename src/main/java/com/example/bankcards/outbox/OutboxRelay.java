@@ -0,0 +1,95 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the outbox into the {@link OutboxSink}. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, published and deleted in one transaction, so relays on several
+ * nodes share the work without publishing the same row twice while it is locked. Ordering holds
+ * within a batch but not across concurrently relayed batches.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTime;
+    private volatile double lagSeconds;
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxSink sink, TransactionOperations transactionOperations,
+                       int batchSize, int maxBatchesPerRun, MeterRegistry meterRegistry, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.publish.failures");
+        this.publishTime = Timer.builder("outbox.publish.time")
+                .description("Time to deliver one batch to the sink")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", this, relay -> relay.lagSeconds)
+                .description("Age in seconds of the oldest message still in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT0.5S}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (relayBatch() < batchSize) {
+                break;
+            }
+        }
+        try {
+            Instant oldest = outboxRepository.oldestCreatedAt().orElse(null);
+            lagSeconds = oldest == null ? 0 : Math.max(0, Duration.between(oldest, clock.instant()).toMillis() / 1000.0);
+        } catch (RuntimeException e) {
+            log.warn("event=outbox_lag_check_failed error=\"{}\"", e.getMessage());
+        }
+    }
+
+    /**
+     * Relays one batch and returns how many messages it held; zero when the outbox is empty or
+     * the batch failed.
+     */
+    int relayBatch() {
+        try {
+            Integer relayed = transactionOperations.execute(status -> {
+                List<OutboxMessage> batch = outboxRepository.claim(batchSize);
+                if (batch.isEmpty()) {
+                    return 0;
+                }
+                publishTime.record(() -> sink.publish(batch));
+                outboxRepository.delete(batch.stream().map(OutboxMessage::id).toList());
+                return batch.size();
+            });
+            int count = relayed == null ? 0 : relayed;
+            published.increment(count);
+            return count;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("event=outbox_publish_failed error=\"{}\"", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox messages. A batch is deleted from the outbox only after
+ * {@link #publish} returns, so delivery is at least once and consumers should deduplicate by id.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers the batch in order; throwing leaves the whole batch in the outbox for the next run.
+     */
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.queue;
+
+import com.example.bankcards.util.money.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A transfer accepted by {@code POST /user/transfers} and waiting in the {@code transfers} table
+ * for a {@link TransferQueueWorker}.
+ */
+public record QueuedTransfer(UUID id, UUID ownerId, UUID sourceCardId, UUID targetCardId, Money amount, Instant createdAt) {
+}
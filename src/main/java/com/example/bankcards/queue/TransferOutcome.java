@@ -0,0 +1,18 @@
+package com.example.bankcards.queue;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.util.money.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TransferOutcome(UUID id, TransferStatus status, Money debit, Money credit, String failureReason, Instant createdAt) {
+
+    public static TransferOutcome completed(QueuedTransfer transfer, Money debit, Money credit) {
+        return new TransferOutcome(transfer.id(), TransferStatus.COMPLETED, debit, credit, null, transfer.createdAt());
+    }
+
+    public static TransferOutcome failed(QueuedTransfer transfer, String reason) {
+        return new TransferOutcome(transfer.id(), TransferStatus.FAILED, transfer.amount(), null, reason, transfer.createdAt());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.queue;
+
+import com.example.bankcards.config.TransferQueueProperties;
+import com.example.bankcards.service.AsyncTransferService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Threads that drain the transfer queue. Each loops claiming a batch and, once the queue runs dry,
+ * sleeps until a transfer is queued on this node or the poll interval passes; the poll picks up
+ * transfers queued on other nodes. Claims skip rows locked by other workers, so any number of
+ * workers and nodes can run at once.
+ * <p>
+ * A batch that fails as a whole is rolled back and would be claimed again, so the worker then goes
+ * through the pending transfers one transaction each; one that still fails is marked {@code FAILED}
+ * instead of blocking the transfers queued after it.
+ */
+@Slf4j
+public class TransferQueueWorker implements Closeable {
+
+    private final AsyncTransferService asyncTransferService;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Object signal = new Object();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile boolean running;
+    private boolean queued;
+
+    public TransferQueueWorker(AsyncTransferService asyncTransferService, TransferQueueProperties properties) {
+        this.asyncTransferService = asyncTransferService;
+        this.workers = properties.getWorkers();
+        this.batchSize = properties.getBatchSize();
+        this.pollIntervalMillis = properties.getPollInterval().toMillis();
+    }
+
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::run, "transfer-queue-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        log.info("event=transfer_queue_workers_started workers={} batch_size={}", workers, batchSize);
+    }
+
+    @TransactionalEventListener
+    public void onTransferQueued(TransferQueuedEvent event) {
+        synchronized (signal) {
+            queued = true;
+            signal.notify();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    private void run() {
+        while (running) {
+            int processed = 0;
+            try {
+                processed = asyncTransferService.processPending(batchSize);
+            } catch (RuntimeException e) {
+                log.error("event=transfer_queue_batch_failed error=\"{}\"", e.getMessage());
+                processed = processIndividually();
+            }
+            if (processed < batchSize) {
+                awaitWork();
+            }
+        }
+    }
+
+    private int processIndividually() {
+        try {
+            return asyncTransferService.processPendingIndividually(batchSize);
+        } catch (RuntimeException e) {
+            log.error("event=transfer_queue_batch_failed error=\"{}\"", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void awaitWork() {
+        synchronized (signal) {
+            try {
+                if (!queued && running) {
+                    signal.wait(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            queued = false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.queue;
+
+import java.util.UUID;
+
+/**
+ * Published when a transfer is queued, so a local worker can pick it up without waiting for its
+ * next poll.
+ */
+public record TransferQueuedEvent(UUID transferId) {
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.util.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Relative balance updates for transfers. Each adds to the balance the row has when the update runs
+ * rather than writing back a balance read earlier, and holds the row lock until the transaction ends,
+ * so concurrent transfers on one card, from this node or any other, queue on the row instead of
+ * overwriting each other.
+ */
+@Repository
+public class CardBalanceRepository {
+
+    private static final String LOCK_CARD = "SELECT id FROM cards WHERE id = ? FOR UPDATE";
+    private static final String DEBIT = "UPDATE cards SET balance = balance - ? WHERE id = ?"
+            + " AND balance + (SELECT coalesce(sum(s.balance), 0) FROM card_balance_stripes s WHERE s.card_id = cards.id) >= ?";
+    private static final String CREDIT = "UPDATE cards SET balance = balance + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CardBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the amount off the card row if the card's whole balance, stripes included, covers it.
+     * Returns whether it did; the row of a hot card may go negative, its stripes make up for it.
+     * <p>
+     * The card row is locked by a statement of its own first. An UPDATE that waits for the lock
+     * re-checks its condition against the new row but sums the stripes from its original snapshot,
+     * so after a concurrent {@code restripe} folded the stripes into the row it would count them
+     * twice. Taken after the lock, the UPDATE's snapshot sees either the stripes or the fold.
+     */
+    public boolean debit(UUID cardId, Money amount) {
+        jdbcTemplate.queryForList(LOCK_CARD, UUID.class, cardId);
+        return jdbcTemplate.update(DEBIT, amount.getMinorUnits(), cardId, amount.getMinorUnits()) == 1;
+    }
+
+    public void credit(UUID cardId, Money amount) {
+        jdbcTemplate.update(CREDIT, amount.getMinorUnits(), cardId);
+    }
+}
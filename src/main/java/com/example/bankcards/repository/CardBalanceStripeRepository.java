@@ -0,0 +1,59 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.util.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-balances of hot cards. Credits to a hot card go to one of its stripes picked at random, so
+ * concurrent credits update different rows instead of queueing on the card row; the card's balance
+ * is the card row plus the sum of its stripes.
+ */
+@Repository
+public class CardBalanceStripeRepository {
+
+    private static final String CREDIT_STRIPE = "UPDATE card_balance_stripes SET balance = balance + ? WHERE card_id = ? AND stripe = ?";
+    private static final String CREDIT_CARD = "UPDATE cards SET balance = balance + ? WHERE id = ?";
+    private static final String LOCK_CARD = "SELECT id FROM cards WHERE id = ? FOR UPDATE";
+    private static final String FOLD = "WITH folded AS (DELETE FROM card_balance_stripes WHERE card_id = ? RETURNING balance)"
+            + " UPDATE cards SET balance = balance + (SELECT coalesce(sum(balance), 0) FROM folded), balance_stripes = ? WHERE id = ?"
+            + " RETURNING balance";
+    private static final String CREATE = "INSERT INTO card_balance_stripes (card_id, stripe, balance) SELECT ?, stripe, 0 FROM generate_series(0, ? - 1) stripe";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CardBalanceStripeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the amount to a random stripe of the hot card, or to the card row if the card has stopped
+     * being hot since it was read.
+     */
+    public void credit(CardEntity card, Money amount) {
+        int stripe = ThreadLocalRandom.current().nextInt(card.getBalanceStripes());
+        if (jdbcTemplate.update(CREDIT_STRIPE, amount.getMinorUnits(), card.getId(), stripe) == 0) {
+            jdbcTemplate.update(CREDIT_CARD, amount.getMinorUnits(), card.getId());
+        }
+    }
+
+    /**
+     * Moves the card's striped balance back to the card row and splits it into {@code stripes} new
+     * empty stripes, or none to make it an ordinary card again. Returns the card row balance, which
+     * is then the whole balance. Credits in flight on the old stripes are waited for, and credits that
+     * miss them fall back to the card row, so none is lost. The card row is locked before the stripes
+     * are deleted, so a debit that holds it never sees the stripes both in the row and in the table.
+     */
+    public long restripe(UUID cardId, int stripes) {
+        jdbcTemplate.queryForList(LOCK_CARD, UUID.class, cardId);
+        Long balance = jdbcTemplate.queryForObject(FOLD, Long.class, cardId, stripes, cardId);
+        if (stripes > 0) {
+            jdbcTemplate.update(CREATE, cardId, stripes);
+        }
+        return balance;
+    }
+}
@@ -7,5 +7,5 @@ import org.springframework.stereotype.Repository;
 import java.util.UUID;
 @Repository
 public interface CardBlockingRequestRepository extends JpaRepository<CardBlockingRequest, UUID> {
-    boolean existsByCard_CardLastFourDigits(String cardLastFourDigits);
+    boolean existsByCard_Id(UUID cardId);
 }
@@ -0,0 +1,130 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.CardTokenizer;
+import com.example.bankcards.util.UuidV7Generator;
+import com.example.bankcards.util.mappers.CardMapper;
+import com.example.bankcards.util.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+@Repository
+public class CardBulkRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_CARDS = "INSERT INTO cards (id, card_number, card_token, owner_id, expiry_date, card_last_four_digits, status, balance, currency) VALUES ";
+    private static final String INSERT_CARD_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS = "UPDATE cards SET status = ? WHERE card_token = ANY(?) AND status <> ?";
+    private static final String ONLY_EXPIRED = " AND expiry_date <= CURRENT_DATE";
+    private static final String RETURNING_CARD = " RETURNING id, card_number, card_token, owner_id, expiry_date, card_last_four_digits, status, balance, currency, balance_stripes,"
+            + " (SELECT coalesce(sum(s.balance), 0) FROM card_balance_stripes s WHERE s.card_id = cards.id) AS striped_balance";
+
+    private static final RowMapper<CardEntity> CARD = (rs, rowNum) -> {
+        UserEntity owner = new UserEntity();
+        owner.setId(rs.getObject("owner_id", UUID.class));
+        CardEntity card = new CardEntity();
+        card.setId(rs.getObject("id", UUID.class));
+        card.setCardNumber(rs.getString("card_number"));
+        card.setCardToken(rs.getString("card_token"));
+        card.setUserEntity(owner);
+        card.setExpiryDate(rs.getObject("expiry_date", LocalDate.class));
+        card.setStatus(CardStatus.valueOf(rs.getString("status")));
+        card.setBalance(Money.ofMinor(rs.getLong("balance"), Currency.getInstance(rs.getString("currency"))));
+        card.setBalanceStripes(rs.getInt("balance_stripes"));
+        card.setStripedBalance(rs.getLong("striped_balance"));
+        return card;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardTokenizer cardTokenizer;
+
+    public CardBulkRepository(JdbcTemplate jdbcTemplate, CardTokenizer cardTokenizer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardTokenizer = cardTokenizer;
+    }
+
+    public Set<UUID> findExistingUserIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query("SELECT id FROM users WHERE id = ANY(?)",
+                ps -> {
+                    Array array = ps.getConnection().createArrayOf("uuid", ids.toArray());
+                    ps.setArray(1, array);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    public Set<String> findExistingCardNumbers(Collection<String> cardNumbers) {
+        if (cardNumbers.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query("SELECT card_number FROM cards WHERE card_token = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", tokenize(cardNumbers))),
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    /**
+     * Inserts cards with multi-row INSERT statements and returns the cards that were actually
+     * inserted; rows conflicting with existing cards are skipped by the database. The returned
+     * entities are detached and only carry the owner id.
+     */
+    public List<CardEntity> insertCards(List<CardCreationRequest> cards) {
+        List<CardEntity> inserted = new ArrayList<>(cards.size());
+        for (int from = 0; from < cards.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<CardCreationRequest> statementRows = cards.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, cards.size()));
+            String sql = INSERT_CARDS
+                    + String.join(", ", Collections.nCopies(statementRows.size(), INSERT_CARD_VALUES))
+                    + " ON CONFLICT DO NOTHING" + RETURNING_CARD;
+            inserted.addAll(jdbcTemplate.query(sql,
+                    ps -> {
+                        int index = 1;
+                        for (CardCreationRequest card : statementRows) {
+                            String cardNumber = card.getCardNumber();
+                            ps.setObject(index++, UuidV7Generator.next());
+                            ps.setString(index++, cardNumber);
+                            ps.setString(index++, cardTokenizer.tokenize(cardNumber));
+                            ps.setObject(index++, card.getOwnerId());
+                            ps.setDate(index++, Date.valueOf(card.getExpiresIn()));
+                            ps.setString(index++, cardNumber.substring(cardNumber.length() - 4));
+                            ps.setString(index++, card.getStatus().name());
+                            Money startBalance = CardMapper.startBalance(card);
+                            ps.setLong(index++, startBalance.getMinorUnits());
+                            ps.setString(index++, startBalance.getCurrency().getCurrencyCode());
+                        }
+                    },
+                    CARD));
+        }
+        return inserted;
+    }
+
+    /**
+     * Moves all listed cards to the given status with one UPDATE and returns the rows that changed.
+     * Cards already in that status are left untouched; cards can only be expired after their expiry date.
+     * The returned entities are detached and only carry the owner id.
+     */
+    public List<CardEntity> updateStatus(Collection<String> cardNumbers, CardStatus status) {
+        String sql = UPDATE_STATUS + (status == CardStatus.EXPIRED ? ONLY_EXPIRED : "") + RETURNING_CARD;
+        return jdbcTemplate.query(sql,
+                ps -> {
+                    ps.setString(1, status.name());
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", tokenize(cardNumbers)));
+                    ps.setString(3, status.name());
+                },
+                CARD);
+    }
+
+    private Object[] tokenize(Collection<String> cardNumbers) {
+        return cardNumbers.stream().map(cardTokenizer::tokenize).toArray();
+    }
+}
@@ -1,20 +1,22 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.CardEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CardRepository extends JpaRepository<CardEntity, UUID> {
-    Optional<CardEntity> findByCardLastFourDigits(String cardLastFourDigits);
-
     Page<CardEntity> findByUserEntityIdAndCardLastFourDigitsContaining(
             UUID userId,
             String searchQuery,
@@ -23,7 +25,13 @@ public interface CardRepository extends JpaRepository<CardEntity, UUID> {
 
     Page<CardEntity> findAllByUserEntityId(UUID userId, Pageable pageable);
 
-    boolean existsByCardLastFourDigits(String cardLastFourDigits);
+    @EntityGraph(attributePaths = "userEntity")
+    List<CardEntity> findAllByCardTokenInOrCardLastFourDigitsIn(Collection<String> cardTokens, Collection<String> cardLastFourDigits);
+
+    @EntityGraph(attributePaths = "userEntity")
+    List<CardEntity> findAllByCardTokenInOrUserEntityIdAndCardLastFourDigitsIn(Collection<String> cardTokens, UUID userId, Collection<String> cardLastFourDigits);
 
-    List<CardEntity> findByCardLastFourDigitsIn(Collection<String> cardLastFourDigits);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CardEntity c where c.Id in :ids order by c.Id")
+    List<CardEntity> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
 }
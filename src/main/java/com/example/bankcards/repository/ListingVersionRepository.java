@@ -0,0 +1,51 @@
+package com.example.bankcards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Cheap versions of the listings clients poll. The cards version is the row count and a checksum of
+ * every row's id and {@code xmin}, which PostgreSQL changes on each insert or update of the row, so
+ * any change to a listed row changes the version without the write paths having to maintain a
+ * counter; it only scans one owner's cards. The block requests listing spans the whole table, so
+ * its version is a counter in {@code listing_versions} that the writers bump instead.
+ */
+@Repository
+public class ListingVersionRepository {
+
+    private static final String CARDS = "SELECT count(*) || '.' || coalesce(sum(hashtext(c.id::text || c.xmin::text)), 0)"
+            + " || '.' || coalesce((SELECT sum(hashtext(s.card_id::text || s.stripe || s.xmin::text))"
+            + " FROM card_balance_stripes s JOIN cards h ON h.id = s.card_id WHERE h.owner_id = ?), 0)"
+            + " FROM cards c WHERE c.owner_id = ?";
+    private static final String VERSION = "SELECT version::text FROM listing_versions WHERE listing = ?";
+    private static final String BUMP = "UPDATE listing_versions SET version = version + 1 WHERE listing = ?";
+    private static final String BLOCK_REQUESTS = "block_requests";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ListingVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Version of the owner's cards, including the balance stripes of their hot cards.
+     */
+    public String cardsVersion(UUID ownerId) {
+        return jdbcTemplate.queryForObject(CARDS, String.class, ownerId, ownerId);
+    }
+
+    public String blockRequestsVersion() {
+        return jdbcTemplate.queryForObject(VERSION, String.class, BLOCK_REQUESTS);
+    }
+
+    /**
+     * Changes the block requests version; call it in the transaction that inserts or updates a
+     * request. The counter row stays locked until that transaction ends, which serializes block
+     * request writes, but those are rare admin and user actions.
+     */
+    public void blockRequestsChanged() {
+        jdbcTemplate.update(BUMP, BLOCK_REQUESTS);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.outbox.OutboxMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT = "INSERT INTO outbox_events (event_type, aggregate_id, payload) VALUES (?, ?, ?)";
+    private static final String CLAIM = "SELECT id, event_type, aggregate_id, payload, created_at FROM outbox_events"
+            + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE = "DELETE FROM outbox_events WHERE id = ANY(?)";
+    private static final String OLDEST = "SELECT created_at FROM outbox_events ORDER BY id LIMIT 1";
+
+    private static final RowMapper<OutboxMessage> MESSAGE = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getObject("aggregate_id", UUID.class),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<OutboxMessage> messages) {
+        if (messages.size() == 1) {
+            OutboxMessage message = messages.get(0);
+            jdbcTemplate.update(INSERT, message.eventType(), message.aggregateId(), message.payload());
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, messages, messages.size(), (ps, message) -> {
+            ps.setString(1, message.eventType());
+            ps.setObject(2, message.aggregateId());
+            ps.setString(3, message.payload());
+        });
+    }
+
+    /**
+     * Locks up to {@code limit} of the oldest messages for the current transaction. Rows locked by
+     * another relay are skipped rather than waited for, so several nodes can drain the outbox at once.
+     */
+    public List<OutboxMessage> claim(int limit) {
+        return jdbcTemplate.query(CLAIM, MESSAGE, limit);
+    }
+
+    public int delete(Collection<Long> ids) {
+        return jdbcTemplate.update(DELETE, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    public Optional<Instant> oldestCreatedAt() {
+        return jdbcTemplate.query(OLDEST, (rs, rowNum) -> rs.getTimestamp(1).toInstant()).stream().findFirst();
+    }
+}
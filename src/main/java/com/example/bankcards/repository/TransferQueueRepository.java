@@ -0,0 +1,154 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.responses.TransferStatusResponse;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.queue.QueuedTransfer;
+import com.example.bankcards.queue.TransferOutcome;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Queue of asynchronous transfers kept in the {@code transfers} ledger: a submitted transfer is a
+ * {@code PENDING} row that a worker later completes or fails in place.
+ */
+@Repository
+public class TransferQueueRepository {
+
+    private static final String ENQUEUE = "INSERT INTO transfers (id, owner_id, source_card_id, target_card_id, amount, currency, status, created_at)"
+            + " SELECT ?, ?, ?, ?, ?, ?, 'PENDING', ?"
+            + " WHERE (SELECT count(*) FROM (SELECT 1 FROM transfers WHERE status = 'PENDING' LIMIT ?) pending) < ?";
+    private static final String CLAIM = "SELECT id, owner_id, source_card_id, target_card_id, amount, currency, created_at FROM transfers"
+            + " WHERE status = 'PENDING' ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String PENDING = "SELECT id FROM transfers WHERE status = 'PENDING' ORDER BY created_at LIMIT ?";
+    private static final String CLAIM_ONE = "SELECT id, owner_id, source_card_id, target_card_id, amount, currency, created_at FROM transfers"
+            + " WHERE id = ? AND status = 'PENDING' FOR UPDATE SKIP LOCKED";
+    private static final String FAIL = "UPDATE transfers SET status = 'FAILED', failure_reason = ?, completed_at = now() WHERE id = ? AND status = 'PENDING'";
+    private static final String COMPLETE = "UPDATE transfers SET status = ?, amount = ?, currency = ?, credited_amount = ?, credited_currency = ?,"
+            + " failure_reason = ?, completed_at = now() WHERE id = ?";
+    private static final String FIND = "SELECT t.id, t.status, t.amount, t.currency, t.credited_amount, t.credited_currency, t.failure_reason,"
+            + " t.created_at, t.completed_at, s.card_number AS source_number, g.card_number AS target_number"
+            + " FROM transfers t LEFT JOIN cards s ON s.id = t.source_card_id LEFT JOIN cards g ON g.id = t.target_card_id"
+            + " WHERE t.id = ? AND t.owner_id = ?";
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private static final RowMapper<QueuedTransfer> QUEUED = (rs, rowNum) -> new QueuedTransfer(
+            rs.getObject("id", UUID.class),
+            rs.getObject("owner_id", UUID.class),
+            rs.getObject("source_card_id", UUID.class),
+            rs.getObject("target_card_id", UUID.class),
+            Money.ofMinor(rs.getLong("amount"), Currency.getInstance(rs.getString("currency"))),
+            rs.getTimestamp("created_at").toInstant());
+
+    private static final RowMapper<TransferStatusResponse> STATUS = (rs, rowNum) -> {
+        Money amount = money(rs, "amount", "currency");
+        Money credited = money(rs, "credited_amount", "credited_currency");
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        return TransferStatusResponse.builder()
+                .transferId(rs.getObject("id", UUID.class))
+                .status(TransferStatus.valueOf(rs.getString("status")))
+                .sourceCardNumber(masked(rs.getString("source_number")))
+                .targetCardNumber(masked(rs.getString("target_number")))
+                .amount(amount)
+                .currency(amount.getCurrency())
+                .creditedAmount(credited)
+                .creditedCurrency(credited == null ? null : credited.getCurrency())
+                .failureReason(rs.getString("failure_reason"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .completedAt(completedAt == null ? null : completedAt.toInstant())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferQueueRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queues the transfer unless {@code maxPending} transfers are already waiting. Returns whether it
+     * was queued. The count is not locked, so concurrent enqueues can overshoot the limit by as many
+     * as race; it bounds the backlog, it is not an exact quota.
+     */
+    public boolean enqueue(QueuedTransfer transfer, int maxPending) {
+        return jdbcTemplate.update(ENQUEUE,
+                transfer.id(), transfer.ownerId(), transfer.sourceCardId(), transfer.targetCardId(),
+                transfer.amount().getMinorUnits(), transfer.amount().getCurrency().getCurrencyCode(),
+                Timestamp.from(transfer.createdAt()), maxPending, maxPending) == 1;
+    }
+
+    /**
+     * Locks up to {@code limit} of the oldest pending transfers for the current transaction. Rows
+     * locked by another worker are skipped, so workers on several nodes never apply the same transfer.
+     */
+    public List<QueuedTransfer> claim(int limit) {
+        return jdbcTemplate.query(CLAIM, QUEUED, limit);
+    }
+
+    /**
+     * Ids of up to {@code limit} of the oldest pending transfers, without locking them.
+     */
+    public List<UUID> pending(int limit) {
+        return jdbcTemplate.queryForList(PENDING, UUID.class, limit);
+    }
+
+    /**
+     * Locks the transfer for the current transaction if it is still pending and not locked by
+     * another worker.
+     */
+    public Optional<QueuedTransfer> claim(UUID id) {
+        return jdbcTemplate.query(CLAIM_ONE, QUEUED, id).stream().findFirst();
+    }
+
+    /**
+     * Fails the transfer without applying it, unless another worker has completed it meanwhile.
+     */
+    public void fail(UUID id, String reason) {
+        jdbcTemplate.update(FAIL, truncate(reason), id);
+    }
+
+    public void complete(List<TransferOutcome> outcomes) {
+        jdbcTemplate.batchUpdate(COMPLETE, outcomes, outcomes.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.status().name());
+            ps.setLong(2, outcome.debit().getMinorUnits());
+            ps.setString(3, outcome.debit().getCurrency().getCurrencyCode());
+            if (outcome.credit() == null) {
+                ps.setNull(4, Types.BIGINT);
+                ps.setNull(5, Types.VARCHAR);
+            } else {
+                ps.setLong(4, outcome.credit().getMinorUnits());
+                ps.setString(5, outcome.credit().getCurrency().getCurrencyCode());
+            }
+            ps.setString(6, truncate(outcome.failureReason()));
+            ps.setObject(7, outcome.id());
+        });
+    }
+
+    public Optional<TransferStatusResponse> find(UUID id, UUID ownerId) {
+        return jdbcTemplate.query(FIND, STATUS, id, ownerId).stream().findFirst();
+    }
+
+    private static Money money(ResultSet rs, String amountColumn, String currencyColumn) throws SQLException {
+        String currency = rs.getString(currencyColumn);
+        return currency == null ? null : Money.ofMinor(rs.getLong(amountColumn), Currency.getInstance(currency));
+    }
+
+    private static String truncate(String reason) {
+        return reason == null || reason.length() <= MAX_REASON_LENGTH ? reason : reason.substring(0, MAX_REASON_LENGTH);
+    }
+
+    private static String masked(String cardNumber) {
+        return cardNumber == null ? null : CardLookup.mask(cardNumber);
+    }
+}
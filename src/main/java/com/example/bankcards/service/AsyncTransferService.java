@@ -0,0 +1,26 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferStatusResponse;
+
+import java.util.UUID;
+
+public interface AsyncTransferService {
+
+    TransferStatusResponse submit(TransferRequest request);
+
+    TransferStatusResponse getTransfer(UUID transferId);
+
+    /**
+     * Applies up to {@code limit} pending transfers in one transaction and returns how many were
+     * claimed.
+     */
+    int processPending(int limit);
+
+    /**
+     * Applies up to {@code limit} pending transfers in a transaction each, for when a batch could not
+     * be applied as a whole. A transfer that cannot be applied even on its own is failed with the
+     * error as its reason, so it is not claimed again. Returns how many were processed.
+     */
+    int processPendingIndividually(int limit);
+}
@@ -1,16 +1,22 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardBlockingRequestDto;
+import com.example.bankcards.util.Versioned;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface CardBlockingService {
 
     CardBlockingRequestDto createBlockRequest(String lastFourCardDigits);
 
-    Page<CardBlockingRequestDto> getAllRequests(Pageable pageable);
+    /**
+     * Reads the version of the block requests and, unless {@code unchanged} accepts it, the page,
+     * both in one read-only transaction so they come from the same database.
+     */
+    Versioned<Page<CardBlockingRequestDto>> getAllRequests(Pageable pageable, Predicate<String> unchanged);
 
     CardBlockingRequestDto resolveRequest(UUID requestId);
 }
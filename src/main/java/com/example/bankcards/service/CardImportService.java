@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.requests.CardImportFormat;
+import com.example.bankcards.dto.responses.CardImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CardImportService {
+    CardImportReport importCards(InputStream input, CardImportFormat format) throws IOException;
+}
@@ -2,6 +2,8 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
+import com.example.bankcards.dto.responses.CardStatusUpdateResponse;
 
 import java.util.List;
 
@@ -10,7 +12,11 @@ public interface CardService {
 
     CardDto updateCard(String cardNumber, String activate);
 
+    CardStatusUpdateResponse updateCards(CardStatusUpdateRequest request);
+
     void deleteCard(String cardNumber);
 
     List<CardDto> getAllCards();
+
+    CardDto setBalanceStripes(String cardReference, int stripes);
 }
@@ -6,18 +6,24 @@ import com.example.bankcards.dto.requests.BalanceRequest;
 import com.example.bankcards.dto.requests.TransferRequest;
 import com.example.bankcards.dto.responses.BalanceResponse;
 import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.util.Versioned;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface UserService {
     List<UserDto> getAllUsers();
 
     void deleteUser(UUID id);
 
-    Page<CardDto> getCards(Pageable pageable, String searchQuery);
+    /**
+     * Reads the version of the current user's cards and, unless {@code unchanged} accepts it, the
+     * page, both in one read-only transaction so they come from the same database.
+     */
+    Versioned<Page<CardDto>> getCards(Pageable pageable, String searchQuery, Predicate<String> unchanged);
 
     List<BalanceResponse> getBalance(BalanceRequest request);
 
@@ -0,0 +1,238 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferQueueProperties;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferStatusResponse;
+import com.example.bankcards.engine.TransferEngine;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.exception.exceptions.FxRateUnavailableException;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.exception.exceptions.TransferNotFoundException;
+import com.example.bankcards.exception.exceptions.TransferQueueFullException;
+import com.example.bankcards.queue.QueuedTransfer;
+import com.example.bankcards.queue.TransferOutcome;
+import com.example.bankcards.queue.TransferQueuedEvent;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferQueueRepository;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.UuidV7Generator;
+import com.example.bankcards.util.money.FxRateTable;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Observed(name = "bankcards.service")
+@Transactional
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private final TransferQueueRepository transferQueueRepository;
+    private final CardRepository cardRepository;
+    private final CardLookup cardLookup;
+    private final FxRateTable fxRateTable;
+    private final CardEventRecorder cardEvents;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferEngine transferEngine;
+    private final TransactionOperations transactionOperations;
+    private final int maxPending;
+    private final Clock clock;
+    private final Counter enqueued;
+    private final Counter rejected;
+    private final Counter completed;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Timer latency;
+
+    public AsyncTransferServiceImpl(TransferQueueRepository transferQueueRepository,
+                                    CardRepository cardRepository,
+                                    CardLookup cardLookup,
+                                    FxRateTable fxRateTable,
+                                    CardEventRecorder cardEvents,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectProvider<TransferEngine> transferEngine,
+                                    TransferQueueProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    TransactionOperations transactionOperations) {
+        this.transferQueueRepository = transferQueueRepository;
+        this.cardRepository = cardRepository;
+        this.cardLookup = cardLookup;
+        this.fxRateTable = fxRateTable;
+        this.cardEvents = cardEvents;
+        this.eventPublisher = eventPublisher;
+        this.transferEngine = transferEngine.getIfAvailable();
+        this.transactionOperations = transactionOperations;
+        this.maxPending = properties.getMaxPending();
+        this.clock = Clock.systemUTC();
+        this.enqueued = meterRegistry.counter("transfer.queue.enqueued");
+        this.rejected = meterRegistry.counter("transfer.queue.rejected");
+        this.completed = meterRegistry.counter("transfer.queue.processed", "outcome", "completed");
+        this.failed = meterRegistry.counter("transfer.queue.processed", "outcome", "failed");
+        this.batchSize = DistributionSummary.builder("transfer.queue.batch.size")
+                .description("Transfers applied per worker transaction")
+                .register(meterRegistry);
+        this.latency = Timer.builder("transfer.queue.latency")
+                .description("Time from submission until a queued transfer is completed or failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TransferStatusResponse submit(TransferRequest request) {
+        if (transferEngine != null) {
+            throw new TransferException("Asynchronous transfers are not available while the transfer engine is enabled");
+        }
+        String source = request.getSourceLastFourCardDigits();
+        String target = request.getTargetLastFourCardDigits();
+        Money amount = request.getAmount();
+        if (source.equals(target)) {
+            throw new TransferException("Cannot transfer to the same card");
+        }
+        if (!amount.isPositive()) {
+            throw new TransferException("Transfer amount must be positive");
+        }
+
+        UUID userId = getCurrentUserId();
+        Map<String, CardEntity> cards = cardLookup.getOwnCards(userId, List.of(source, target));
+        CardEntity sourceCard = cards.get(source);
+        CardEntity targetCard = cards.get(target);
+        if (sourceCard.getId().equals(targetCard.getId())) {
+            throw new TransferException("Cannot transfer to the same card");
+        }
+
+        QueuedTransfer transfer = new QueuedTransfer(UuidV7Generator.next(), userId,
+                sourceCard.getId(), targetCard.getId(), amount.withCurrency(sourceCard.getBalance().getCurrency()), clock.instant());
+        if (!transferQueueRepository.enqueue(transfer, maxPending)) {
+            rejected.increment();
+            throw new TransferQueueFullException(String.format("Transfer queue is full (%d pending), try again later", maxPending));
+        }
+        enqueued.increment();
+        eventPublisher.publishEvent(new TransferQueuedEvent(transfer.id()));
+
+        return TransferStatusResponse.builder()
+                .transferId(transfer.id())
+                .status(TransferStatus.PENDING)
+                .sourceCardNumber(CardLookup.mask(sourceCard.getCardNumber()))
+                .targetCardNumber(CardLookup.mask(targetCard.getCardNumber()))
+                .amount(transfer.amount())
+                .currency(transfer.amount().getCurrency())
+                .createdAt(transfer.createdAt())
+                .build();
+    }
+
+    @Override
+    public TransferStatusResponse getTransfer(UUID transferId) {
+        return transferQueueRepository.find(transferId, getCurrentUserId())
+                .orElseThrow(() -> new TransferNotFoundException(String.format("Transfer with id %s not found", transferId)));
+    }
+
+    @Override
+    public int processPending(int limit) {
+        List<QueuedTransfer> batch = transferQueueRepository.claim(limit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        process(batch);
+        return batch.size();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processPendingIndividually(int limit) {
+        int processed = 0;
+        for (UUID id : transferQueueRepository.pending(limit)) {
+            try {
+                processed += transactionOperations.execute(status -> transferQueueRepository.claim(id)
+                        .map(transfer -> process(List.of(transfer)))
+                        .orElse(0));
+            } catch (RuntimeException e) {
+                log.error("event=transfer_queue_transfer_failed transfer_id={} error=\"{}\"", id, e.getMessage());
+                transactionOperations.executeWithoutResult(status -> transferQueueRepository.fail(id, "Transfer could not be applied: " + e.getMessage()));
+                failed.increment();
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    private int process(List<QueuedTransfer> batch) {
+        Set<UUID> cardIds = new HashSet<>();
+        for (QueuedTransfer transfer : batch) {
+            cardIds.add(transfer.sourceCardId());
+            cardIds.add(transfer.targetCardId());
+        }
+        Map<UUID, CardEntity> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(CardEntity::getId, Function.identity()));
+
+        List<TransferOutcome> outcomes = new ArrayList<>(batch.size());
+        for (QueuedTransfer transfer : batch) {
+            outcomes.add(apply(transfer, cards));
+        }
+        transferQueueRepository.complete(outcomes);
+
+        Instant now = clock.instant();
+        for (TransferOutcome outcome : outcomes) {
+            (outcome.status() == TransferStatus.COMPLETED ? completed : failed).increment();
+            latency.record(Duration.between(outcome.createdAt(), now));
+        }
+        batchSize.record(batch.size());
+        return batch.size();
+    }
+
+    private TransferOutcome apply(QueuedTransfer transfer, Map<UUID, CardEntity> cards) {
+        CardEntity sourceCard = cards.get(transfer.sourceCardId());
+        CardEntity targetCard = cards.get(transfer.targetCardId());
+        if (sourceCard == null || targetCard == null) {
+            return TransferOutcome.failed(transfer, "Card not found");
+        }
+        try {
+            Money debit = transfer.amount().withCurrency(sourceCard.getBalance().getCurrency());
+            if (sourceCard.getTotalBalance().isLessThan(debit)) {
+                return TransferOutcome.failed(transfer, "Insufficient funds on card " + CardLookup.mask(sourceCard.getCardNumber()));
+            }
+            Currency targetCurrency = targetCard.getBalance().getCurrency();
+            Money credit = fxRateTable.convert(debit, targetCurrency);
+            if (!credit.isPositive()) {
+                return TransferOutcome.failed(transfer, String.format("Transfer amount %s %s is too small to convert to %s", debit, debit.getCurrency(), targetCurrency));
+            }
+            sourceCard.setBalance(sourceCard.getBalance().minus(debit));
+            targetCard.setBalance(targetCard.getBalance().plus(credit));
+            cardEvents.transfer(sourceCard, targetCard, debit, credit);
+            return TransferOutcome.completed(transfer, debit, credit);
+        } catch (FxRateUnavailableException | ArithmeticException | IllegalArgumentException e) {
+            return TransferOutcome.failed(transfer, e.getMessage());
+        }
+    }
+
+    private UUID getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserDetails) {
+            return ((UserEntity) auth.getPrincipal()).getId();
+        }
+        throw new AccessDeniedException("User not authenticated");
+    }
+}
@@ -9,6 +9,7 @@ import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.AuthService;
 import com.example.bankcards.service.JwtService;
 import com.example.bankcards.util.mappers.UserMapper;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Observed(name = "bankcards.service")
 @Transactional
 public class AuthServiceImpl implements AuthService {
 
@@ -6,15 +6,18 @@ import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.enums.BlockRequestStatus;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEventRecorder;
 import com.example.bankcards.exception.exceptions.CardBlockingRequestAlreadyExists;
 import com.example.bankcards.exception.exceptions.CardBlockingRequestNotFoundException;
-import com.example.bankcards.exception.exceptions.CardNotFoundException;
 import com.example.bankcards.exception.exceptions.UserNotFoundException;
 import com.example.bankcards.repository.CardBlockingRequestRepository;
-import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ListingVersionRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.CardBlockingService;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.Versioned;
 import com.example.bankcards.util.mappers.CardBlockingRequestMapper;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -25,36 +28,46 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Service
+@Observed(name = "bankcards.service")
 @Transactional
 public class CardBlockingServiceImpl implements CardBlockingService {
 
-    private final CardRepository cardRepository;
+    private final CardLookup cardLookup;
     private final CardBlockingRequestRepository cardBlockingRequestRepository;
     private final CardBlockingRequestMapper cardBlockingRequestMapper;
     private final UserRepository userRepository;
+    private final CardEventRecorder cardEvents;
+    private final ListingVersionRepository listingVersions;
 
-    public CardBlockingServiceImpl(CardRepository cardRepository, CardBlockingRequestRepository cardBlockingRequestRepository, CardBlockingRequestMapper cardBlockingRequestMapper, UserRepository userRepository) {
-        this.cardRepository = cardRepository;
+    public CardBlockingServiceImpl(CardLookup cardLookup, CardBlockingRequestRepository cardBlockingRequestRepository, CardBlockingRequestMapper cardBlockingRequestMapper, UserRepository userRepository, CardEventRecorder cardEvents, ListingVersionRepository listingVersions) {
+        this.cardLookup = cardLookup;
         this.cardBlockingRequestRepository = cardBlockingRequestRepository;
         this.cardBlockingRequestMapper = cardBlockingRequestMapper;
         this.userRepository = userRepository;
+        this.cardEvents = cardEvents;
+        this.listingVersions = listingVersions;
     }
 
     @Override
-    public CardBlockingRequestDto createBlockRequest(String lastFourCardDigits) {
-        if(cardBlockingRequestRepository.existsByCard_CardLastFourDigits(lastFourCardDigits)){
-            throw new CardBlockingRequestAlreadyExists(String.format("Request with card %s already exists",lastFourCardDigits));
+    public CardBlockingRequestDto createBlockRequest(String cardReference) {
+        CardEntity card = cardLookup.getOwnCard(getCurrentUserId(), cardReference);
+        if(cardBlockingRequestRepository.existsByCard_Id(card.getId())){
+            throw new CardBlockingRequestAlreadyExists(String.format("Request with card %s already exists",card.getCardLastFourDigits()));
         }
-        CardEntity card = cardRepository.findByCardLastFourDigits(lastFourCardDigits).stream().findFirst()
-                .orElseThrow(() -> new CardNotFoundException(String.format("Card %s not found", lastFourCardDigits)));
         return createCardBlockRequest(card);
     }
 
     @Override
-    public Page<CardBlockingRequestDto> getAllRequests(Pageable pageable) {
-        return cardBlockingRequestRepository.findAll(pageable).map(cardBlockingRequestMapper::toDto);
+    @Transactional(readOnly = true)
+    public Versioned<Page<CardBlockingRequestDto>> getAllRequests(Pageable pageable, Predicate<String> unchanged) {
+        String version = listingVersions.blockRequestsVersion();
+        if (unchanged.test(version)) {
+            return Versioned.unchanged(version);
+        }
+        return new Versioned<>(version, cardBlockingRequestRepository.findAll(pageable).map(cardBlockingRequestMapper::toDto));
     }
 
     @Override
@@ -68,7 +81,8 @@ public class CardBlockingServiceImpl implements CardBlockingService {
             request.setAdmin(admin);
             request.setStatus(BlockRequestStatus.APPROVED);
             request.getCard().setStatus(CardStatus.BLOCKED);
-        request = cardBlockingRequestRepository.saveAndFlush(request);
+            cardEvents.blockRequestResolved(request);
+            listingVersions.blockRequestsChanged();
         return cardBlockingRequestMapper.toDto(request);
     }
 
@@ -77,7 +91,8 @@ public class CardBlockingServiceImpl implements CardBlockingService {
         cardBlockingRequest.setCard(card);
         cardBlockingRequest.setUser(card.getUserEntity());
         cardBlockingRequest.setStatus(BlockRequestStatus.PENDING);
-        cardBlockingRequest = cardBlockingRequestRepository.saveAndFlush(cardBlockingRequest);
+        cardBlockingRequest = cardBlockingRequestRepository.save(cardBlockingRequest);
+        listingVersions.blockRequestsChanged();
         return cardBlockingRequestMapper.toDto(cardBlockingRequest);
     }
 
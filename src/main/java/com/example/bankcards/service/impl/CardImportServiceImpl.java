@@ -0,0 +1,196 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardImportFormat;
+import com.example.bankcards.dto.responses.CardImportError;
+import com.example.bankcards.dto.responses.CardImportReport;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.repository.CardBulkRepository;
+import com.example.bankcards.service.CardImportService;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.mappers.CardMapper;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Observed(name = "bankcards.service")
+public class CardImportServiceImpl implements CardImportService {
+
+    private static final String CSV_HEADER_PREFIX = "card_number";
+
+    private final CardBulkRepository cardBulkRepository;
+    private final CardEventRecorder cardEvents;
+    private final TransactionOperations transactionOperations;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public CardImportServiceImpl(CardBulkRepository cardBulkRepository,
+                                 CardEventRecorder cardEvents,
+                                 TransactionOperations transactionOperations,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${card-import.chunk-size:500}") int chunkSize,
+                                 @Value("${card-import.max-errors:1000}") int maxErrors) {
+        this.cardBulkRepository = cardBulkRepository;
+        this.cardEvents = cardEvents;
+        this.transactionOperations = transactionOperations;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public CardImportReport importCards(InputStream input, CardImportFormat format) throws IOException {
+        CardImportReport report = new CardImportReport();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && format == CardImportFormat.CSV && line.trim().startsWith(CSV_HEADER_PREFIX))) {
+                continue;
+            }
+            report.setTotalRows(report.getTotalRows() + 1);
+            try {
+                CardCreationRequest request = format == CardImportFormat.CSV ? parseCsv(line) : parseJson(line);
+                String violations = validate(request);
+                if (violations != null) {
+                    reject(report, lineNumber, violations);
+                    continue;
+                }
+                request.setStartBalance(CardMapper.startBalance(request));
+                chunk.add(new ImportRow(lineNumber, request));
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                reject(report, lineNumber, e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, report);
+            }
+        }
+        flush(chunk, report);
+        log.info("event=card_import_finished format={} rows={} imported={} failed={}",
+                format, report.getTotalRows(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void flush(List<ImportRow> chunk, CardImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionOperations.executeWithoutResult(status -> importChunk(chunk, report));
+        chunk.clear();
+        log.info("event=card_import_progress rows={} imported={} failed={}",
+                report.getTotalRows(), report.getImported(), report.getFailed());
+    }
+
+    private void importChunk(List<ImportRow> chunk, CardImportReport report) {
+        Map<String, ImportRow> rowsByCardNumber = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            String cardNumber = row.request().getCardNumber();
+            if (rowsByCardNumber.putIfAbsent(cardNumber, row) != null) {
+                reject(report, row.line(), String.format("Duplicate card %s in import", CardLookup.mask(cardNumber)));
+            }
+        }
+
+        Set<UUID> ownerIds = rowsByCardNumber.values().stream()
+                .map(row -> row.request().getOwnerId())
+                .collect(Collectors.toSet());
+        Set<UUID> existingOwners = cardBulkRepository.findExistingUserIds(ownerIds);
+        Set<String> existingCards = cardBulkRepository.findExistingCardNumbers(rowsByCardNumber.keySet());
+
+        List<ImportRow> accepted = new ArrayList<>(rowsByCardNumber.size());
+        rowsByCardNumber.forEach((cardNumber, row) -> {
+            if (!existingOwners.contains(row.request().getOwnerId())) {
+                reject(report, row.line(), String.format("User with id %s not found", row.request().getOwnerId()));
+            } else if (existingCards.contains(cardNumber)) {
+                reject(report, row.line(), String.format("Card %s already exists", CardLookup.mask(cardNumber)));
+            } else {
+                accepted.add(row);
+            }
+        });
+
+        List<CardEntity> inserted = cardBulkRepository.insertCards(accepted.stream().map(ImportRow::request).toList());
+        cardEvents.cardsCreated(inserted);
+        Set<String> insertedNumbers = inserted.stream().map(CardEntity::getCardNumber).collect(Collectors.toSet());
+        for (ImportRow row : accepted) {
+            if (!insertedNumbers.contains(row.request().getCardNumber())) {
+                reject(report, row.line(), String.format("Card %s already exists", CardLookup.mask(row.request().getCardNumber())));
+            }
+        }
+        report.setImported(report.getImported() + inserted.size());
+    }
+
+    private CardCreationRequest parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length < 4 || columns.length > 6) {
+            throw new IllegalArgumentException(String.format("Expected 4 to 6 columns but got %d", columns.length));
+        }
+        String startBalance = columns.length >= 5 ? columns[4].trim() : "";
+        String currencyCode = columns.length == 6 ? columns[5].trim() : "";
+        Currency currency = currencyCode.isEmpty() ? null : Currency.getInstance(currencyCode);
+        return CardCreationRequest.builder()
+                .cardNumber(columns[0].trim())
+                .ownerId(UUID.fromString(columns[1].trim()))
+                .expiresIn(LocalDate.parse(columns[2].trim()))
+                .status(CardStatus.valueOf(columns[3].trim()))
+                .startBalance(startBalance.isEmpty() ? null : Money.parse(startBalance, currency == null ? Money.DEFAULT_CURRENCY : currency))
+                .currency(currency)
+                .build();
+    }
+
+    private CardCreationRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, CardCreationRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    private String validate(CardCreationRequest request) {
+        Set<ConstraintViolation<CardCreationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void reject(CardImportReport report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new CardImportError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private record ImportRow(long line, CardCreationRequest request) {
+    }
+}
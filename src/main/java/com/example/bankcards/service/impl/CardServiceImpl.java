@@ -2,60 +2,107 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
+import com.example.bankcards.dto.responses.CardStatusUpdateResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEventRecorder;
 import com.example.bankcards.exception.exceptions.CardAlreadyExistsException;
-import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.repository.CardBalanceStripeRepository;
+import com.example.bankcards.repository.CardBulkRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.CardLookup;
 import com.example.bankcards.util.mappers.CardMapper;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.observation.annotation.Observed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "bankcards.service")
 @Transactional
 public class CardServiceImpl implements CardService {
 
+    private static final int MAX_BALANCE_STRIPES = 64;
+    private static final Set<String> CARD_UNIQUE_CONSTRAINTS = Set.of("cards_card_number_key", "uk_cards_card_token");
+
     private final CardRepository cardRepository;
     private final CardMapper cardMapper;
+    private final CardBulkRepository cardBulkRepository;
+    private final CardLookup cardLookup;
+    private final CardEventRecorder cardEvents;
+    private final CardBalanceStripeRepository cardBalanceStripes;
 
-    public CardServiceImpl(CardRepository cardRepository, CardMapper cardMapper) {
+    public CardServiceImpl(CardRepository cardRepository, CardMapper cardMapper, CardBulkRepository cardBulkRepository, CardLookup cardLookup,
+                           CardEventRecorder cardEvents, CardBalanceStripeRepository cardBalanceStripes) {
         this.cardRepository = cardRepository;
         this.cardMapper = cardMapper;
+        this.cardBulkRepository = cardBulkRepository;
+        this.cardLookup = cardLookup;
+        this.cardEvents = cardEvents;
+        this.cardBalanceStripes = cardBalanceStripes;
     }
 
     @Override
     public CardDto createCard(CardCreationRequest request) {
-        String lastFourCardDigits = getLastFourCardDigits(request.getCardNumber());
-        if (cardRepository.findByCardLastFourDigits(lastFourCardDigits).isPresent()) {
-            throw new CardAlreadyExistsException(String.format("Card with last four digits %s already exists", lastFourCardDigits));
-        }
         CardEntity newCard = cardMapper.toEntity(request);
-        newCard = cardRepository.saveAndFlush(newCard);
+        try {
+            newCard = cardRepository.saveAndFlush(newCard);
+        } catch (DataIntegrityViolationException e) {
+            if (!(e.getCause() instanceof ConstraintViolationException violation)
+                    || !CARD_UNIQUE_CONSTRAINTS.contains(violation.getConstraintName())) {
+                throw e;
+            }
+            throw new CardAlreadyExistsException(String.format("Card %s already exists", CardLookup.mask(request.getCardNumber())));
+        }
+        cardEvents.cardCreated(newCard);
         return cardMapper.toDto(newCard);
     }
 
     @Override
-    public CardDto updateCard(String lastFourCardDigits, String activate) {
-        CardEntity existingCard = cardRepository.findByCardLastFourDigits(lastFourCardDigits)
-                .orElseThrow(() -> new CardNotFoundException(String.format("Card with last four digits %s not found", lastFourCardDigits)));
+    public CardDto updateCard(String cardReference, String activate) {
+        CardEntity existingCard = cardLookup.getCard(cardReference);
+        CardStatus previousStatus = existingCard.getStatus();
         existingCard = switch (activate) {
             case "activate" -> activateCard(existingCard);
             case "deactivate" -> deactivateCard(existingCard);
             case "expired" -> expireCard(existingCard);
             default -> throw new IllegalArgumentException("Param activate an only be activate,deactivate and expired");
         };
+        if (existingCard.getStatus() != previousStatus) {
+            cardEvents.statusChanged(existingCard);
+        }
         return cardMapper.toDto(existingCard);
     }
 
+    @Override
+    public CardStatusUpdateResponse updateCards(CardStatusUpdateRequest request) {
+        Set<String> requested = new LinkedHashSet<>(request.getCardNumbers());
+        List<CardEntity> updated = cardBulkRepository.updateStatus(requested, request.getStatus());
+        cardEvents.statusChanged(updated);
+        Set<String> updatedNumbers = updated.stream().map(CardEntity::getCardNumber).collect(Collectors.toSet());
+        List<String> notUpdated = requested.stream().filter(cardNumber -> !updatedNumbers.contains(cardNumber)).toList();
+        Set<String> existing = cardBulkRepository.findExistingCardNumbers(notUpdated);
+        return CardStatusUpdateResponse.builder()
+                .status(request.getStatus())
+                .updated(updated.stream().map(cardMapper::toDto).collect(Collectors.toList()))
+                .unchanged(notUpdated.stream().filter(existing::contains).map(CardLookup::mask).collect(Collectors.toList()))
+                .notFound(notUpdated.stream().filter(cardNumber -> !existing.contains(cardNumber)).map(CardLookup::mask).collect(Collectors.toList()))
+                .build();
+    }
+
     private CardEntity activateCard(CardEntity existingCard) {
         if (existingCard.getStatus() != CardStatus.ACTIVE) {
             existingCard.setStatus(CardStatus.ACTIVE);
-            existingCard = cardRepository.saveAndFlush(existingCard);
         }
         return existingCard;
     }
@@ -63,7 +110,6 @@ public class CardServiceImpl implements CardService {
     private CardEntity deactivateCard(CardEntity existingCard) {
         if (existingCard.getStatus() != CardStatus.BLOCKED) {
             existingCard.setStatus(CardStatus.BLOCKED);
-            existingCard = cardRepository.saveAndFlush(existingCard);
         }
         return existingCard;
     }
@@ -74,26 +120,32 @@ public class CardServiceImpl implements CardService {
         }
         if (existingCard.getStatus() != CardStatus.EXPIRED) {
             existingCard.setStatus(CardStatus.EXPIRED);
-            existingCard = cardRepository.saveAndFlush(existingCard);
         }
         return existingCard;
     }
 
     @Override
-    public void deleteCard(String lastFourCardDigits) {
-        if(cardRepository.findByCardLastFourDigits(lastFourCardDigits).isPresent()) {
-            cardRepository.delete(cardRepository.findByCardLastFourDigits(lastFourCardDigits).get());
-        }else{
-            throw new CardNotFoundException(String.format("Card with last four digits %s not found", lastFourCardDigits));
-        }
+    public void deleteCard(String cardReference) {
+        CardEntity card = cardLookup.getCard(cardReference);
+        cardRepository.delete(card);
+        cardEvents.cardDeleted(card);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CardDto> getAllCards() {
         return cardRepository.findAll().stream().map(cardMapper::toDto).collect(Collectors.toList());
     }
 
-    private String getLastFourCardDigits(String cardNumber) {
-        return cardNumber.substring(cardNumber.length() - 4);
+    @Override
+    public CardDto setBalanceStripes(String cardReference, int stripes) {
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new IllegalArgumentException(String.format("Balance stripes must be between 0 and %d", MAX_BALANCE_STRIPES));
+        }
+        CardEntity card = cardLookup.getCard(cardReference);
+        long balance = cardBalanceStripes.restripe(card.getId(), stripes);
+        CardDto dto = cardMapper.toDto(card);
+        dto.setBalance(Money.ofMinor(balance, card.getBalance().getCurrency()));
+        return dto;
     }
 }
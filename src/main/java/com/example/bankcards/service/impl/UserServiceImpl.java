@@ -8,14 +8,28 @@ import com.example.bankcards.dto.responses.BalanceResponse;
 import com.example.bankcards.dto.responses.TransferResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
-import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.engine.TransferEngine;
+import com.example.bankcards.engine.TransferReceipt;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
 import com.example.bankcards.exception.exceptions.TransferException;
 import com.example.bankcards.exception.exceptions.UserNotFoundException;
+import com.example.bankcards.groupcommit.TransferGroupCommitter;
+import com.example.bankcards.lock.CardLockManager;
+import com.example.bankcards.repository.CardBalanceRepository;
+import com.example.bankcards.repository.CardBalanceStripeRepository;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ListingVersionRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.Versioned;
 import com.example.bankcards.util.mappers.CardMapper;
 import com.example.bankcards.util.mappers.UserMapper;
+import com.example.bankcards.util.money.FxRateTable;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -23,15 +37,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.math.BigDecimal;
-import java.util.Arrays;
+import java.util.Currency;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "bankcards.service")
 @Transactional
 public class UserServiceImpl implements UserService {
 
@@ -39,18 +57,49 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final CardRepository cardRepository;
     private final CardMapper cardMapper;
+    private final CardLookup cardLookup;
+    private final FxRateTable fxRateTable;
+    private final TransferEngine transferEngine;
+    private final CardEventRecorder cardEvents;
+    private final CardBalanceRepository cardBalances;
+    private final CardBalanceStripeRepository cardBalanceStripes;
+    private final ListingVersionRepository listingVersions;
+    private final TransferGroupCommitter groupCommitter;
+    private final CardLockManager cardLocks;
+    private final TransactionOperations transactionOperations;
 
     public UserServiceImpl(UserRepository userRepository,
                            UserMapper userMapper,
                            CardRepository cardRepository,
-                           CardMapper cardMapper) {
+                           CardMapper cardMapper,
+                           CardLookup cardLookup,
+                           FxRateTable fxRateTable,
+                           ObjectProvider<TransferEngine> transferEngine,
+                           CardEventRecorder cardEvents,
+                           CardBalanceRepository cardBalances,
+                           CardBalanceStripeRepository cardBalanceStripes,
+                           ListingVersionRepository listingVersions,
+                           ObjectProvider<TransferGroupCommitter> groupCommitter,
+                           ObjectProvider<CardLockManager> cardLocks,
+                           TransactionOperations transactionOperations) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.cardRepository = cardRepository;
         this.cardMapper = cardMapper;
+        this.cardLookup = cardLookup;
+        this.fxRateTable = fxRateTable;
+        this.transferEngine = transferEngine.getIfAvailable();
+        this.cardEvents = cardEvents;
+        this.cardBalances = cardBalances;
+        this.cardBalanceStripes = cardBalanceStripes;
+        this.listingVersions = listingVersions;
+        this.groupCommitter = groupCommitter.getIfAvailable();
+        this.cardLocks = cardLocks.getIfAvailable();
+        this.transactionOperations = transactionOperations;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream().map(userMapper::toDto).collect(Collectors.toList());
     }
@@ -65,80 +114,170 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Page<CardDto> getCards(Pageable pageable, String searchQuery) {
+    @Transactional(readOnly = true)
+    public Versioned<Page<CardDto>> getCards(Pageable pageable, String searchQuery, Predicate<String> unchanged) {
         UUID userId = getCurrentUserId();
+        String version = listingVersions.cardsVersion(userId);
+        if (unchanged.test(version)) {
+            return Versioned.unchanged(version);
+        }
         if (searchQuery != null && !searchQuery.isEmpty()) {
-            return cardRepository.findByUserEntityIdAndCardLastFourDigitsContaining(userId, searchQuery, pageable)
-                    .map(cardMapper::toDto);
+            return new Versioned<>(version, cardRepository.findByUserEntityIdAndCardLastFourDigitsContaining(userId, searchQuery, pageable)
+                    .map(cardMapper::toDto));
         }
-        return cardRepository.findAllByUserEntityId(userId, pageable).map(cardMapper::toDto);
+        return new Versioned<>(version, cardRepository.findAllByUserEntityId(userId, pageable).map(cardMapper::toDto));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BalanceResponse> getBalance(BalanceRequest request) {
         List<String> lastFourCardDigits = request.getLastFourCardDigits();
         if (lastFourCardDigits.isEmpty()) {
             throw new IllegalArgumentException("Last four card digits must be provided");
         }
-        return lastFourCardDigits.stream()
-                .map(digit -> {
-                    CardEntity card = cardRepository.findByCardLastFourDigits(digit)
-                            .orElseThrow(() -> new CardNotFoundException("Card with last four digits " + digit + " not found"));
-                    return new BalanceResponse(card.getBalance(), card.getCardLastFourDigits());
-                })
+        return cardLookup.getOwnCards(getCurrentUserId(), lastFourCardDigits).values().stream()
+                .map(card -> new BalanceResponse(currentBalance(card), card.getCardLastFourDigits(), card.getBalance().getCurrency()))
                 .toList();
     }
 
+    /**
+     * Runs in its own transaction, except with group commit, where the caller only reads the cards
+     * and waits for the committer; holding a connection while waiting would starve the committer.
+     * With card locks the transaction is only started once both cards are locked in memory.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TransferResponse transfer(TransferRequest request) {
         String source = request.getSourceLastFourCardDigits();
         String target = request.getTargetLastFourCardDigits();
-        BigDecimal amount = request.getAmount();
+        Money amount = request.getAmount();
 
         validateTransferAbility(source, target, amount);
-        return processTransfer(source,target,amount);
+        UUID userId = getCurrentUserId();
+        if (groupCommitter != null) {
+            return processTransfer(userId, source, target, amount);
+        }
+        if (cardLocks == null || transferEngine != null) {
+            return transactionOperations.execute(status -> processTransfer(userId, source, target, amount));
+        }
+        try (CardLockManager.Held held = cardLocks.lock(List.of(lockKey(source), lockKey(target)))) {
+            return transactionOperations.execute(status -> processTransfer(userId, source, target, amount));
+        }
     }
 
-    private TransferResponse processTransfer(String sourceDigits, String targetDigits, BigDecimal amount) {
-        List<CardEntity> cards = cardRepository.findByCardLastFourDigitsIn((Arrays.asList(sourceDigits, targetDigits)));
+    /**
+     * Both ways of referring to a card end with its last four digits, so they key the card's lock
+     * without a lookup; cards that share them merely share a lock.
+     */
+    private static String lockKey(String reference) {
+        return reference.length() > 4 ? reference.substring(reference.length() - 4) : reference;
+    }
 
-        CardEntity sourceCard = cards.stream()
-                .filter(c -> c.getCardLastFourDigits().equals(sourceDigits))
-                .findFirst()
-                .orElseThrow(() -> new CardNotFoundException("Source card not found"));
+    private TransferResponse processTransfer(UUID userId, String source, String target, Money amount) {
+        Map<String, CardEntity> cards = groupCommitter == null
+                ? cardLookup.getOwnCards(userId, List.of(source, target))
+                : transactionOperations.execute(status -> cardLookup.getOwnCards(userId, List.of(source, target)));
+        CardEntity sourceCard = cards.get(source);
+        CardEntity targetCard = cards.get(target);
 
-        CardEntity targetCard = cards.stream()
-                .filter(c -> c.getCardLastFourDigits().equals(targetDigits))
-                .findFirst()
-                .orElseThrow(() -> new CardNotFoundException("Target card not found"));
+        if (sourceCard.getId().equals(targetCard.getId())) {
+            throw new TransferException("Cannot transfer to the same card");
+        }
 
-        if (sourceCard.getBalance().compareTo(amount) < 0) {
-            throw new TransferException("Insufficient funds on card " + cardMapper.toDto(sourceCard).getCardNumber());
+        Currency sourceCurrency = sourceCard.getBalance().getCurrency();
+        Currency targetCurrency = targetCard.getBalance().getCurrency();
+        Money debit = amount.withCurrency(sourceCurrency);
+        if (transferEngine == null && sourceCard.getTotalBalance().isLessThan(debit)) {
+            throw insufficientFunds(sourceCard);
+        }
+        Money credit = fxRateTable.convert(debit, targetCurrency);
+        if (!credit.isPositive()) {
+            throw new TransferException(String.format("Transfer amount %s %s is too small to convert to %s", debit, sourceCurrency, targetCurrency));
         }
 
-        sourceCard.setBalance(sourceCard.getBalance().subtract(amount));
-        targetCard.setBalance(targetCard.getBalance().add(amount));
+        if (transferEngine != null) {
+            try {
+                TransferReceipt receipt = transferEngine.transfer(sourceCard.getId(), targetCard.getId(), debit, credit);
+                cardEvents.transfer(sourceCard, targetCard, receipt.debit(), receipt.credit());
+                return transferResponse(sourceCard, targetCard, receipt.debit(), receipt.credit());
+            } catch (InsufficientFundsException e) {
+                throw insufficientFunds(sourceCard);
+            }
+        }
 
-        cardRepository.saveAll(List.of(sourceCard, targetCard));
+        if (groupCommitter != null) {
+            groupCommitter.transfer(sourceCard.getId(), targetCard.getId(), debit, credit);
+            return transferResponse(sourceCard, targetCard, debit, credit);
+        }
 
-        return new TransferResponse(
-                sourceCard.getCardNumber(),
-                targetCard.getCardNumber(),
-                amount
-        );
+        if (compareIds(sourceCard.getId(), targetCard.getId()) < 0) {
+            debit(sourceCard, debit);
+            credit(targetCard, credit);
+        } else {
+            credit(targetCard, credit);
+            debit(sourceCard, debit);
+        }
+        cardEvents.transfer(sourceCard, targetCard, debit, credit);
+
+        return transferResponse(sourceCard, targetCard, debit, credit);
     }
 
-    private void validateTransferAbility(String sourceDigits, String targetDigits, BigDecimal amount) {
-        if (sourceDigits.equals(targetDigits)) {
-            throw new TransferException("Cannot transfer to the same card");
+    /**
+     * The balances change in place on the rows, not through the entities read above, which another
+     * transaction may have changed since; the debit re-checks the funds against the locked row.
+     */
+    private void debit(CardEntity card, Money amount) {
+        if (!cardBalances.debit(card.getId(), amount)) {
+            throw insufficientFunds(card);
         }
+    }
+
+    private void credit(CardEntity card, Money amount) {
+        if (card.isHot()) {
+            cardBalanceStripes.credit(card, amount);
+        } else {
+            cardBalances.credit(card.getId(), amount);
+        }
+    }
+
+    /**
+     * Orders ids as PostgreSQL does, byte by byte, so card rows are locked in the same order as by
+     * {@link CardRepository#findAllByIdForUpdate} and two transfers between the same cards cannot deadlock.
+     */
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
 
-        if (!cardRepository.existsByCardLastFourDigits(targetDigits)) {
-            throw new CardNotFoundException("Target card not found");
+    private TransferResponse transferResponse(CardEntity sourceCard, CardEntity targetCard, Money debit, Money credit) {
+        return TransferResponse.builder()
+                .sourceLastFourCardDigits(sourceCard.getCardNumber())
+                .targetLastFourCardDigits(targetCard.getCardNumber())
+                .amount(debit)
+                .currency(debit.getCurrency())
+                .creditedAmount(credit)
+                .creditedCurrency(credit.getCurrency())
+                .build();
+    }
+
+    private InsufficientFundsException insufficientFunds(CardEntity card) {
+        return new InsufficientFundsException("Insufficient funds on card " + cardMapper.toDto(card).getCardNumber());
+    }
+
+    private Money currentBalance(CardEntity card) {
+        if (transferEngine == null) {
+            return card.getTotalBalance();
+        }
+        return transferEngine.balance(card.getId()).orElse(card.getBalance());
+    }
+
+    private void validateTransferAbility(String source, String target, Money amount) {
+        if (source.equals(target)) {
+            throw new TransferException("Cannot transfer to the same card");
         }
 
         // Проверка суммы
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new TransferException("Transfer amount must be positive");
         }
     }
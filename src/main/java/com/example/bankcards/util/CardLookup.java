@@ -0,0 +1,89 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.exception.exceptions.AmbiguousCardReferenceException;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Resolves card references sent by clients. A 16-digit reference is the full card number and is
+ * looked up by its card token; a 4-digit reference is the last four digits, which are not unique
+ * and are only accepted while they match exactly one card. User-facing calls resolve the last four
+ * digits among the caller's own cards only ({@link #getOwnCards}), so neither a match nor an
+ * ambiguity reveals another user's cards; admin endpoints search all cards.
+ */
+@Component
+public class CardLookup {
+
+    private final CardRepository cardRepository;
+    private final CardTokenizer cardTokenizer;
+
+    public CardLookup(CardRepository cardRepository, CardTokenizer cardTokenizer) {
+        this.cardRepository = cardRepository;
+        this.cardTokenizer = cardTokenizer;
+    }
+
+    public CardEntity getCard(String reference) {
+        return getCards(List.of(reference)).get(reference);
+    }
+
+    public Map<String, CardEntity> getCards(Collection<String> references) {
+        return resolve(null, references);
+    }
+
+    public CardEntity getOwnCard(UUID ownerId, String reference) {
+        return getOwnCards(ownerId, List.of(reference)).get(reference);
+    }
+
+    /**
+     * Like {@link #getCards}, but the last four digits only match cards of {@code ownerId}. Full
+     * card numbers still match any card, so a transfer can target another user's card.
+     */
+    public Map<String, CardEntity> getOwnCards(UUID ownerId, Collection<String> references) {
+        return resolve(Objects.requireNonNull(ownerId), references);
+    }
+
+    private Map<String, CardEntity> resolve(UUID ownerId, Collection<String> references) {
+        Map<String, String> tokens = new HashMap<>();
+        Set<String> lastFourDigits = new HashSet<>();
+        for (String reference : references) {
+            if (CardTokenizer.isFullCardNumber(reference)) {
+                tokens.put(reference, cardTokenizer.tokenize(reference));
+            } else if (reference != null && reference.length() == 4) {
+                lastFourDigits.add(reference);
+            } else {
+                throw new IllegalArgumentException("Card reference must be the full card number or its last four digits");
+            }
+        }
+        List<CardEntity> cards = ownerId == null
+                ? cardRepository.findAllByCardTokenInOrCardLastFourDigitsIn(tokens.values(), lastFourDigits)
+                : cardRepository.findAllByCardTokenInOrUserEntityIdAndCardLastFourDigitsIn(tokens.values(), ownerId, lastFourDigits);
+
+        Map<String, CardEntity> resolved = new LinkedHashMap<>();
+        for (String reference : references) {
+            String token = tokens.get(reference);
+            List<CardEntity> matches = cards.stream()
+                    .filter(card -> token != null ? token.equals(card.getCardToken()) : reference.equals(card.getCardLastFourDigits())
+                            && (ownerId == null || ownerId.equals(card.getUserEntity().getId())))
+                    .toList();
+            if (matches.isEmpty()) {
+                throw new CardNotFoundException(token != null
+                        ? String.format("Card %s not found", mask(reference))
+                        : String.format("Card with last four digits %s not found", reference));
+            }
+            if (matches.size() > 1) {
+                throw new AmbiguousCardReferenceException(String.format(
+                        "Last four digits %s match %d cards, use the full card number", reference, matches.size()));
+            }
+            resolved.put(reference, matches.get(0));
+        }
+        return resolved;
+    }
+
+    public static String mask(String cardNumber) {
+        return "************" + cardNumber.substring(cardNumber.length() - 4);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Derives the card token, a keyed HMAC-SHA256 of the full card number, which is the indexed
+ * lookup key for cards. The same number always yields the same token for a given secret, so
+ * {@code card.token.secret} has no default outside the dev profile and the application does not
+ * start without it.
+ */
+@Component
+public class CardTokenizer {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public CardTokenizer(@Value("${card.token.secret}") String secret) {
+        requireSecret(secret);
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize card tokenizer", e);
+            }
+        });
+        this.mac.get();
+    }
+
+    public String tokenize(String cardNumber) {
+        return HexFormat.of().formatHex(mac.get().doFinal(cardNumber.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static void requireSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("card.token.secret is not set; set CARD_TOKEN_SECRET");
+        }
+    }
+
+    public static boolean isFullCardNumber(String reference) {
+        return reference != null && reference.length() == 16;
+    }
+}
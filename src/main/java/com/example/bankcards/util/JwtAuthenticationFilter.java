@@ -4,6 +4,8 @@ import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.JwtService;
 import com.example.bankcards.util.mappers.UserMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,18 +33,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ObservationRegistry observationRegistry;
 
     public JwtAuthenticationFilter(JwtService jwtService,
                                    UserDetailsService userDetailsService,
                                    HandlerExceptionResolver handlerExceptionResolver,
                                    UserRepository userRepository,
-                                   UserMapper userMapper) {
+                                   UserMapper userMapper,
+                                   ObservationRegistry observationRegistry) {
 
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.observationRegistry = observationRegistry;
     }
 
 
@@ -55,25 +60,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtService.extractUsername(jwt);
-
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-            if (username != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                UserDto user = userRepository.findByUsername(userDetails.getUsername()).map(userMapper::toDto)
-                        .orElseThrow(() -> new UsernameNotFoundException(String.format("User with username %s not found", username)));
-                if (jwtService.isTokenValid(jwt, user)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            }
+            Observation.createNotStarted("security.jwt.authentication", observationRegistry)
+                    .contextualName("jwt-authentication")
+                    .observe(() -> authenticate(request, jwt));
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             handlerExceptionResolver.resolveException(request, response, null, e);
         }
     }
 
+    private void authenticate(HttpServletRequest request, String jwt) {
+        final String username = jwtService.extractUsername(jwt);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (username != null && authentication == null) {
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDto user = userRepository.findByUsername(userDetails.getUsername()).map(userMapper::toDto)
+                    .orElseThrow(() -> new UsernameNotFoundException(String.format("User with username %s not found", username)));
+            if (jwtService.isTokenValid(jwt, user)) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+    }
 }
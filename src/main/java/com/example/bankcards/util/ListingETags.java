@@ -0,0 +1,48 @@
+package com.example.bankcards.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Conditional GET for polled listings. The ETag is derived from the listing's version, the request
+ * parameters and the {@code Accept} header, so a client that sends it back in {@code If-None-Match}
+ * gets a 304 without the listing being queried, mapped or serialized. The tag is weak, as the
+ * servlet container only compresses responses whose ETag is not strong.
+ * <p>
+ * The service reads the version and, if the client's tag is stale, the listing in one read-only
+ * transaction, so with reads routed to replicas the tag and the body cannot come from different ones.
+ */
+@Component
+public class ListingETags {
+
+    private final MeterRegistry meterRegistry;
+
+    public ListingETags(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ResponseEntity<?> respond(WebRequest request, String listing, Object parameters,
+                                     Function<Predicate<String>, ? extends Versioned<?>> read) {
+        Versioned<?> result = read.apply(version -> request.checkNotModified(etag(request, version, parameters)));
+        if (result.isUnchanged()) {
+            meterRegistry.counter("http.conditional.requests", "listing", listing, "outcome", "not_modified").increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        meterRegistry.counter("http.conditional.requests", "listing", listing, "outcome", "modified").increment();
+        return ResponseEntity.ok(result.body());
+    }
+
+    private static String etag(WebRequest request, String version, Object parameters) {
+        String key = version + '|' + parameters + '|' + request.getHeader(HttpHeaders.ACCEPT);
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Page} as a fixed envelope: the content followed by the page counters. Unlike the
+ * bean serialization of {@code PageImpl} it does not depend on the page implementation, leaves out
+ * the nested {@code pageable} and {@code sort} objects and also works for unpaged pages.
+ */
+@SuppressWarnings("rawtypes")
+public class PageSerializer extends StdSerializer<Page> {
+
+    public PageSerializer() {
+        super(Page.class);
+    }
+
+    @Override
+    public void serialize(Page page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(page);
+        gen.writeFieldName("content");
+        provider.defaultSerializeValue(page.getContent(), gen);
+        gen.writeNumberField("totalElements", page.getTotalElements());
+        gen.writeNumberField("totalPages", page.getTotalPages());
+        gen.writeNumberField("number", page.getNumber());
+        gen.writeNumberField("size", page.getSize());
+        gen.writeNumberField("numberOfElements", page.getNumberOfElements());
+        gen.writeBooleanField("first", page.isFirst());
+        gen.writeBooleanField("last", page.isLast());
+        gen.writeBooleanField("empty", page.isEmpty());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bankcards.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Marks the bean definitions of the listed packages or classes lazy, leaving the rest of the context
+ * eager, unlike {@code spring.main.lazy-initialization} which defers every bean to the first request.
+ * A lazy controller is still mapped at startup from its type and is created on its first request.
+ */
+@Slf4j
+public class SelectiveLazyInitialization implements BeanFactoryPostProcessor {
+
+    private final List<String> prefixes;
+
+    public SelectiveLazyInitialization(List<String> prefixes) {
+        this.prefixes = prefixes;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        int lazy = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            String source = source(definition);
+            if (!definition.isLazyInit() && definition.getRole() == BeanDefinition.ROLE_APPLICATION
+                    && source != null && prefixes.stream().anyMatch(source::startsWith)) {
+                definition.setLazyInit(true);
+                lazy++;
+            }
+        }
+        log.info("event=lazy_initialization beans={} prefixes={}", lazy, prefixes);
+    }
+
+    private static String source(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.responses.StartupReportResponse;
+import com.example.bankcards.dto.responses.StartupStepTime;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of the startup steps buffered by {@link BufferingApplicationStartup}: time per phase
+ * (context refresh, repository scanning and init, ...), bean creation time per package, and the
+ * slowest beans. A bean's total time includes the beans created while it was being created, its
+ * self time does not. A bean behind a JDK proxy, such as the entity manager factory whose creation
+ * covers the Hibernate metamodel build, is attributed to its factory bean. Beans created lazily
+ * after startup are included while the buffer has room. The raw timeline is at
+ * {@code /actuator/startup}; a POST there drains the buffer this reads.
+ */
+@Component
+public class StartupReport {
+
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+    private static final int SLOWEST_BEANS = 20;
+    private static final int PACKAGE_DEPTH = 4;
+
+    private final ApplicationStartup applicationStartup;
+    private final ConfigurableListableBeanFactory beanFactory;
+    private volatile Long applicationReadyMs;
+    private volatile Long jvmToReadyMs;
+
+    public StartupReport(ApplicationStartup applicationStartup, ConfigurableListableBeanFactory beanFactory) {
+        this.applicationStartup = applicationStartup;
+        this.beanFactory = beanFactory;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        applicationReadyMs = event.getTimeTaken() == null ? null : event.getTimeTaken().toMillis();
+        jvmToReadyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    public StartupReportResponse report() {
+        List<StartupTimeline.TimelineEvent> events = applicationStartup instanceof BufferingApplicationStartup buffering
+                ? buffering.getBufferedTimeline().getEvents()
+                : List.of();
+
+        Map<Long, Long> childrenNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childrenNanos.merge(parentId, event.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        Map<String, Times> phases = new LinkedHashMap<>();
+        Map<String, Times> packages = new LinkedHashMap<>();
+        List<Times> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            long totalNanos = event.getDuration().toNanos();
+            long selfNanos = Math.max(0, totalNanos - childrenNanos.getOrDefault(step.getId(), 0L));
+            if (!BEAN_INSTANTIATION.equals(step.getName())) {
+                phases.computeIfAbsent(step.getName(), name -> new Times(name, null)).add(totalNanos, selfNanos);
+                continue;
+            }
+            String beanName = tag(step, "beanName");
+            String type = beanType(beanName);
+            packages.computeIfAbsent(type == null ? "unknown" : packageOf(type), name -> new Times(name, null)).add(totalNanos, selfNanos);
+            Times bean = new Times(beanName, type);
+            bean.add(totalNanos, selfNanos);
+            beans.add(bean);
+        }
+
+        return StartupReportResponse.builder()
+                .jvmToReadyMs(jvmToReadyMs)
+                .applicationReadyMs(applicationReadyMs)
+                .recordedSteps(events.size())
+                .phases(sorted(phases.values(), Comparator.comparingLong(Times::totalNanos), phases.size()))
+                .packages(sorted(packages.values(), Comparator.comparingLong(Times::selfNanos), packages.size()))
+                .slowestBeans(sorted(beans, Comparator.comparingLong(Times::selfNanos), SLOWEST_BEANS))
+                .build();
+    }
+
+    private static List<StartupStepTime> sorted(Collection<Times> times, Comparator<Times> comparator, int limit) {
+        return times.stream().sorted(comparator.reversed()).limit(limit).map(Times::toStepTime).toList();
+    }
+
+    private String beanType(String beanName) {
+        if (beanName == null) {
+            return null;
+        }
+        try {
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null && Proxy.isProxyClass(type) && beanFactory.isFactoryBean(beanName)) {
+                type = beanFactory.getType(BeanFactory.FACTORY_BEAN_PREFIX + beanName, false);
+            }
+            return type == null ? null : type.getName();
+        } catch (NoSuchBeanDefinitionException e) {
+            return null;
+        }
+    }
+
+    private static String packageOf(String typeName) {
+        String[] segments = typeName.split("\\.");
+        int depth = Math.min(PACKAGE_DEPTH, segments.length - 1);
+        return String.join(".", Arrays.copyOf(segments, depth));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals(key)) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static final class Times {
+
+        private final String name;
+        private final String type;
+        private long count;
+        private long totalNanos;
+        private long selfNanos;
+
+        private Times(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        private void add(long totalNanos, long selfNanos) {
+            count++;
+            this.totalNanos += totalNanos;
+            this.selfNanos += selfNanos;
+        }
+
+        private long totalNanos() {
+            return totalNanos;
+        }
+
+        private long selfNanos() {
+            return selfNanos;
+        }
+
+        private StartupStepTime toStepTime() {
+            return StartupStepTime.builder().name(name).type(type).count(count)
+                    .totalMs(totalNanos / 1_000_000).selfMs(selfNanos / 1_000_000).build();
+        }
+    }
+}
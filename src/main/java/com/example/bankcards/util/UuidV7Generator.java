@@ -0,0 +1,34 @@
+package com.example.bankcards.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): 48-bit Unix millisecond timestamp, then a 12-bit
+ * counter that keeps ids generated within the same millisecond increasing, then 62 random bits.
+ * Consecutive inserts therefore land on the right-most page of the primary key index.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << COUNTER_BITS;
+        long stamp = LAST_STAMP.updateAndGet(previous -> Math.max(previous + 1, candidate));
+        long mostSignificantBits = ((stamp >>> COUNTER_BITS) << 16)
+                | 0x7000L
+                | (stamp & ((1L << COUNTER_BITS) - 1));
+        long leastSignificantBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
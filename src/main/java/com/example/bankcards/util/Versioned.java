@@ -0,0 +1,16 @@
+package com.example.bankcards.util;
+
+/**
+ * A listing page and the version of the listing it was read at. The page is {@code null} when it was
+ * not read because the client already has that version.
+ */
+public record Versioned<T>(String version, T body) {
+
+    public static <T> Versioned<T> unchanged(String version) {
+        return new Versioned<>(version, null);
+    }
+
+    public boolean isUnchanged() {
+        return body == null;
+    }
+}
@@ -6,15 +6,19 @@ import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.exception.exceptions.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardTokenizer;
+import com.example.bankcards.util.money.Money;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.Currency;
 
 @Component
 public class CardMapper {
     private final UserRepository userRepository;
-    public CardMapper(UserRepository userRepository) {
+    private final CardTokenizer cardTokenizer;
+    public CardMapper(UserRepository userRepository, CardTokenizer cardTokenizer) {
         this.userRepository = userRepository;
+        this.cardTokenizer = cardTokenizer;
     }
 
     public CardEntity toEntity(CardCreationRequest request) {
@@ -22,10 +26,11 @@ public class CardMapper {
 
         CardEntity cardEntity = new CardEntity();
         cardEntity.setCardNumber(request.getCardNumber());
+        cardEntity.setCardToken(cardTokenizer.tokenize(request.getCardNumber()));
         cardEntity.setUserEntity(owner);
         cardEntity.setExpiryDate(request.getExpiresIn());
         cardEntity.setStatus(request.getStatus());
-        cardEntity.setBalance(request.getStartBalance() == null ?BigDecimal.ZERO:request.getStartBalance());
+        cardEntity.setBalance(startBalance(request));
         return cardEntity;
     }
 
@@ -37,9 +42,15 @@ public class CardMapper {
                 .lastFourCardDigits(newCard.getCardLastFourDigits())
                 .expiresIn(newCard.getExpiryDate())
                 .status(newCard.getStatus())
-                .balance(newCard.getBalance())
+                .balance(newCard.getTotalBalance())
+                .currency(newCard.getBalance().getCurrency())
                 .build();
     }
+    public static Money startBalance(CardCreationRequest request) {
+        Currency currency = request.getCurrency() == null ? Money.DEFAULT_CURRENCY : request.getCurrency();
+        return request.getStartBalance() == null ? Money.zero(currency) : request.getStartBalance().withCurrency(currency);
+    }
+
     private String processCardNumber(String lastFourDigits) {
         return "************" + lastFourDigits;
     }
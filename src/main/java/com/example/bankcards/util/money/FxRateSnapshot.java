@@ -0,0 +1,104 @@
+package com.example.bankcards.util.money;
+
+import com.example.bankcards.exception.exceptions.FxRateUnavailableException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable table of cross rates between every pair of loaded currencies, precomputed in minor
+ * units so {@link #convert} is a map lookup and one long multiplication. Conversion rounds half up;
+ * products that do not fit in a long fall back to {@link BigDecimal}.
+ */
+public final class FxRateSnapshot {
+
+    static final long RATE_SCALE = 1_000_000_000_000L;
+    private static final int RATE_SCALE_DIGITS = 12;
+
+    private final Map<Currency, Integer> index;
+    private final long[] scaledRates;
+    private final BigDecimal[] exactRates;
+    private final Instant oldestRateAt;
+    private final Instant loadedAt;
+
+    private FxRateSnapshot(Map<Currency, Integer> index, long[] scaledRates, BigDecimal[] exactRates,
+                           Instant oldestRateAt, Instant loadedAt) {
+        this.index = index;
+        this.scaledRates = scaledRates;
+        this.exactRates = exactRates;
+        this.oldestRateAt = oldestRateAt;
+        this.loadedAt = loadedAt;
+    }
+
+    public static FxRateSnapshot empty() {
+        return new FxRateSnapshot(Map.of(), new long[0], new BigDecimal[0], null, null);
+    }
+
+    /**
+     * @param ratesToBase price of one unit of each currency in the base currency
+     */
+    public static FxRateSnapshot of(Map<Currency, BigDecimal> ratesToBase, Instant oldestRateAt, Instant loadedAt) {
+        List<Currency> currencies = new ArrayList<>(ratesToBase.keySet());
+        int size = currencies.size();
+        Map<Currency, Integer> index = new HashMap<>();
+        long[] scaledRates = new long[size * size];
+        BigDecimal[] exactRates = new BigDecimal[size * size];
+        for (int from = 0; from < size; from++) {
+            Currency source = currencies.get(from);
+            index.put(source, from);
+            for (int to = 0; to < size; to++) {
+                Currency target = currencies.get(to);
+                BigDecimal rate = ratesToBase.get(source)
+                        .divide(ratesToBase.get(target), MathContext.DECIMAL128)
+                        .movePointRight(target.getDefaultFractionDigits() - source.getDefaultFractionDigits());
+                exactRates[from * size + to] = rate;
+                scaledRates[from * size + to] = rate.movePointRight(RATE_SCALE_DIGITS)
+                        .setScale(0, RoundingMode.HALF_EVEN)
+                        .longValueExact();
+            }
+        }
+        return new FxRateSnapshot(Map.copyOf(index), scaledRates, exactRates, oldestRateAt, loadedAt);
+    }
+
+    public Money convert(Money amount, Currency target) {
+        Currency source = amount.getCurrency();
+        if (source.equals(target)) {
+            return amount;
+        }
+        Integer from = index.get(source);
+        Integer to = index.get(target);
+        if (from == null || to == null) {
+            throw new FxRateUnavailableException(String.format("No FX rate for %s to %s", source, target));
+        }
+        int slot = from * index.size() + to;
+        long units = amount.getMinorUnits();
+        long product;
+        try {
+            product = Math.multiplyExact(units, scaledRates[slot]);
+        } catch (ArithmeticException overflow) {
+            return Money.ofMinor(exactRates[slot].multiply(BigDecimal.valueOf(units))
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact(), target);
+        }
+        long converted = product / RATE_SCALE;
+        if (Math.abs(product % RATE_SCALE) >= RATE_SCALE / 2) {
+            converted += Long.signum(product);
+        }
+        return Money.ofMinor(converted, target);
+    }
+
+    public boolean supports(Currency currency) {
+        return index.containsKey(currency);
+    }
+
+    public Instant getOldestRateAt() {
+        return oldestRateAt;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
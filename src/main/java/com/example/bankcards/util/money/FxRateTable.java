@@ -0,0 +1,89 @@
+package com.example.bankcards.util.money;
+
+import com.example.bankcards.entity.FxRateEntity;
+import com.example.bankcards.repository.FxRateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the current {@link FxRateSnapshot}. The fx_rates table is re-read on a fixed delay and the
+ * snapshot reference is swapped atomically, so conversions never touch the database or take a lock.
+ * A failed refresh keeps serving the previous snapshot; fx.rates.age shows how stale it is.
+ */
+@Slf4j
+@Component
+public class FxRateTable {
+
+    private final FxRateRepository fxRateRepository;
+    private final Clock clock;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+
+    private volatile FxRateSnapshot snapshot = FxRateSnapshot.empty();
+
+    @Autowired
+    public FxRateTable(FxRateRepository fxRateRepository, MeterRegistry meterRegistry) {
+        this(fxRateRepository, meterRegistry, Clock.systemUTC());
+    }
+
+    FxRateTable(FxRateRepository fxRateRepository, MeterRegistry meterRegistry, Clock clock) {
+        this.fxRateRepository = fxRateRepository;
+        this.clock = clock;
+        this.refreshSuccess = meterRegistry.counter("fx.rates.refresh", "outcome", "success");
+        this.refreshFailure = meterRegistry.counter("fx.rates.refresh", "outcome", "failure");
+        Gauge.builder("fx.rates.age", this, table -> table.ageSeconds(table.snapshot.getOldestRateAt()))
+                .description("Age of the oldest rate in the snapshot")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("fx.snapshot.age", this, table -> table.ageSeconds(table.snapshot.getLoadedAt()))
+                .description("Time since the snapshot was last reloaded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public Money convert(Money amount, Currency target) {
+        return snapshot.convert(amount, target);
+    }
+
+    public FxRateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${fx.refresh-interval:PT1M}", initialDelayString = "${fx.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            List<FxRateEntity> rates = fxRateRepository.findAll();
+            Map<Currency, BigDecimal> ratesToBase = new HashMap<>();
+            for (FxRateEntity rate : rates) {
+                ratesToBase.put(Currency.getInstance(rate.getCurrency()), rate.getRateToBase());
+            }
+            Instant oldest = rates.stream().map(FxRateEntity::getUpdatedAt).min(Comparator.naturalOrder()).orElse(null);
+            snapshot = FxRateSnapshot.of(ratesToBase, oldest, clock.instant());
+            refreshSuccess.increment();
+        } catch (RuntimeException e) {
+            refreshFailure.increment();
+            log.warn("event=fx_rates_refresh_failed error=\"{}\"", e.getMessage());
+        }
+    }
+
+    private double ageSeconds(Instant since) {
+        return since == null ? Double.NaN : Duration.between(since, clock.instant()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.bankcards.util.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.Currency;
+
+/**
+ * Immutable amount of money stored as a {@code long} of minor units (kopecks for RUB).
+ * Arithmetic is overflow-checked and never goes through {@link java.math.BigDecimal}; on the
+ * wire it is a plain JSON number with the currency's fraction digits, e.g. {@code 1000.50}.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("RUB");
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+    private static final Currency THREE_DIGIT_CURRENCY = Currency.getInstance("KWD");
+    private static final Currency FOUR_DIGIT_CURRENCY = Currency.getInstance("CLF");
+    private static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money zero() {
+        return ZERO;
+    }
+
+    public static Money zero(Currency currency) {
+        return DEFAULT_CURRENCY.equals(currency) ? ZERO : new Money(0, currency);
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money parse(CharSequence text) {
+        return parse(text, DEFAULT_CURRENCY);
+    }
+
+    public static Money parse(CharSequence text, Currency currency) {
+        int length = text.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parse(chars, 0, length, currency);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code -12}, {@code 12.5} or {@code 12.50}. Exponents and more
+     * fraction digits than the currency allows are rejected rather than rounded.
+     */
+    public static Money parse(char[] chars, int offset, int length, Currency currency) {
+        int fractionDigits = fractionDigits(currency);
+        int end = offset + length;
+        int position = offset;
+        boolean negative = false;
+        if (position < end && (chars[position] == '-' || chars[position] == '+')) {
+            negative = chars[position] == '-';
+            position++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        while (position < end && chars[position] != '.') {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(chars, position, offset, length));
+            integerDigits++;
+            position++;
+        }
+        int scale = 0;
+        if (position < end) {
+            position++;
+            while (position < end) {
+                if (scale == fractionDigits) {
+                    if (digit(chars, position, offset, length) != 0) {
+                        throw invalid(chars, offset, length, "too many fraction digits");
+                    }
+                } else {
+                    units = Math.addExact(Math.multiplyExact(units, 10), digit(chars, position, offset, length));
+                    scale++;
+                }
+                position++;
+            }
+        }
+        if (integerDigits == 0 && scale == 0) {
+            throw invalid(chars, offset, length, "no digits");
+        }
+        units = Math.multiplyExact(units, POWERS_OF_TEN[fractionDigits - scale]);
+        return ofMinor(negative ? -units : units, currency);
+    }
+
+    /**
+     * Parses an amount whose currency is not known yet, such as a request amount before the card is
+     * looked up. It is denominated in the default currency if that holds it exactly, otherwise in a
+     * currency with as many fraction digits as it has (e.g. {@code 1.234} in KWD), so that
+     * {@link #withCurrency} checks the scale against the actual currency instead of the default one.
+     */
+    public static Money parseUndenominated(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int point = offset;
+        while (point < end && chars[point] != '.') {
+            point++;
+        }
+        int last = end - 1;
+        while (last > point && chars[last] == '0') {
+            last--;
+        }
+        int scale = Math.max(last - point, 0);
+        Currency currency = scale <= fractionDigits(DEFAULT_CURRENCY) ? DEFAULT_CURRENCY
+                : scale == 3 ? THREE_DIGIT_CURRENCY : FOUR_DIGIT_CURRENCY;
+        return parse(chars, offset, length, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Re-denominates the same decimal amount in another currency (no FX conversion), e.g. a request
+     * amount parsed before the card's currency was known. Fails if the amount has more fraction
+     * digits than the target currency allows.
+     */
+    public Money withCurrency(Currency target) {
+        if (currency.equals(target)) {
+            return this;
+        }
+        int shift = fractionDigits(target) - fractionDigits(currency);
+        if (shift >= 0) {
+            return new Money(Math.multiplyExact(minorUnits, POWERS_OF_TEN[shift]), target);
+        }
+        long divisor = POWERS_OF_TEN[-shift];
+        if (minorUnits % divisor != 0) {
+            throw new IllegalArgumentException(String.format("Amount %s has too many fraction digits for %s", this, target));
+        }
+        return new Money(minorUnits / divisor, target);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        int fractionDigits = fractionDigits(currency);
+        if (fractionDigits == 0) {
+            return Long.toString(minorUnits);
+        }
+        long divisor = POWERS_OF_TEN[fractionDigits];
+        StringBuilder builder = new StringBuilder(24);
+        if (minorUnits < 0) {
+            builder.append('-');
+        }
+        builder.append(Math.abs(minorUnits / divisor)).append('.');
+        String fraction = Long.toString(Math.abs(minorUnits % divisor));
+        for (int i = fraction.length(); i < fractionDigits; i++) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException(String.format("Currency mismatch: %s and %s", currency, other.currency));
+        }
+    }
+
+    private static int fractionDigits(Currency currency) {
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+
+    private static int digit(char[] chars, int position, int offset, int length) {
+        char c = chars[position];
+        if (c < '0' || c > '9') {
+            throw invalid(chars, offset, length, "unexpected character '" + c + "'");
+        }
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(char[] chars, int offset, int length, String reason) {
+        return new IllegalArgumentException(String.format("Invalid amount %s: %s", new String(chars, offset, length), reason));
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return parseUndenominated(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.util.money;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.ValueAccess;
+import org.hibernate.usertype.CompositeUserType;
+
+import java.io.Serializable;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Maps {@link Money} onto two columns, minor units ({@code BIGINT}) and currency code, so a card's
+ * balance is always read back in the card's currency.
+ */
+public class MoneyType implements CompositeUserType<Money> {
+
+    public static class MoneyMapping {
+        Currency currency;
+        Long minorUnits;
+    }
+
+    @Override
+    public Object getPropertyValue(Money component, int property) {
+        return switch (property) {
+            case 0 -> component.getCurrency();
+            case 1 -> component.getMinorUnits();
+            default -> throw new IllegalArgumentException("Unknown Money property " + property);
+        };
+    }
+
+    @Override
+    public Money instantiate(ValueAccess values, SessionFactoryImplementor sessionFactory) {
+        Currency currency = values.getValue(0, Currency.class);
+        Long minorUnits = values.getValue(1, Long.class);
+        return currency == null || minorUnits == null ? null : Money.ofMinor(minorUnits, currency);
+    }
+
+    @Override
+    public Class<?> embeddable() {
+        return MoneyMapping.class;
+    }
+
+    @Override
+    public Class<Money> returnedClass() {
+        return Money.class;
+    }
+
+    @Override
+    public boolean equals(Money x, Money y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Money x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Money deepCopy(Money value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(Money value) {
+        return value == null ? null : new Object[]{value.getCurrency(), value.getMinorUnits()};
+    }
+
+    @Override
+    public Money assemble(Serializable cached, Object owner) {
+        if (cached == null) {
+            return null;
+        }
+        Object[] parts = (Object[]) cached;
+        return Money.ofMinor((Long) parts[1], (Currency) parts[0]);
+    }
+
+    @Override
+    public Money replace(Money detached, Money managed, Object owner) {
+        return detached;
+    }
+}
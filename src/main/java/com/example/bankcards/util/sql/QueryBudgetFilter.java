@@ -0,0 +1,78 @@
+package com.example.bankcards.util.sql;
+
+import com.example.bankcards.config.SqlBudgetProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".STATS";
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryStats stats = QueryStatsHolder.start(request.getMethod(), request.getRequestURI());
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        long startedAt = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStatsHolder.clear();
+            report(request, response, stats, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, RequestQueryStats stats, long requestMillis) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "UNMATCHED" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+                .tag("method", method)
+                .tag("uri", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .tag("method", method)
+                .tag("uri", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .tag("method", method)
+                .tag("uri", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        int budget = properties.budgetFor(method, endpoint);
+        boolean overBudget = stats.getStatements() > budget;
+        boolean slow = stats.getElapsedMillis() >= properties.getSlowRequestThreshold().toMillis();
+        if (overBudget || slow) {
+            log.warn("event=sql_budget_exceeded method={} uri={} status={} statements={} budget={} rows={} sql_time_ms={} slow_statements={} request_time_ms={}",
+                    method, endpoint, response.getStatus(), stats.getStatements(), budget, stats.getRows(),
+                    stats.getElapsedMillis(), stats.getSlowStatements(), requestMillis);
+        }
+    }
+}
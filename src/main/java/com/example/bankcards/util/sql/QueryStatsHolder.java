@@ -0,0 +1,23 @@
+package com.example.bankcards.util.sql;
+
+public final class QueryStatsHolder {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryStatsHolder() {
+    }
+
+    public static RequestQueryStats start(String method, String uri) {
+        RequestQueryStats stats = new RequestQueryStats(method, uri);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.util.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class QueryStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final long slowQueryThresholdMillis;
+
+    public QueryStatsListener(Duration slowQueryThreshold) {
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryStats stats = QueryStatsHolder.current();
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= slowQueryThresholdMillis;
+        if (slow) {
+            log.warn("event=slow_sql elapsed_ms={} method={} uri={} batch_size={} sql=\"{}\"",
+                    elapsed,
+                    stats == null ? null : stats.getMethod(),
+                    stats == null ? null : stats.getUri(),
+                    execInfo.getBatchSize(),
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+        if (stats == null) {
+            return;
+        }
+        stats.recordStatements(1, elapsed, slow);
+        stats.recordRows(affectedRows(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            RequestQueryStats stats = QueryStatsHolder.current();
+            if (stats != null) {
+                stats.recordRows(1);
+            }
+        }
+    }
+
+    private long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.util.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes methods annotated {@code @Transactional(readOnly = true)} to a replica. It runs ahead of the
+ * transaction interceptor, so the mark is in place when the transaction takes its connection; a
+ * read-only method called from a transaction that is already running keeps that transaction's
+ * connection.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ReadOnlyRoutingAspect {
+
+    @Around("@annotation(transactional)")
+    public Object route(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Boolean previous = ReadWriteRoutingDataSource.markReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.restore(previous);
+        }
+    }
+}
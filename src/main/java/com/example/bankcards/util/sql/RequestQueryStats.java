@@ -0,0 +1,31 @@
+package com.example.bankcards.util.sql;
+
+import lombok.Getter;
+
+@Getter
+public class RequestQueryStats {
+
+    private final String method;
+    private final String uri;
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+    private int slowStatements;
+
+    public RequestQueryStats(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    void recordStatements(int count, long elapsedMillis, boolean slow) {
+        this.statements += count;
+        this.elapsedMillis += elapsedMillis;
+        if (slow) {
+            this.slowStatements++;
+        }
+    }
+
+    void recordRows(long count) {
+        this.rows += count;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.Bank_RESTApplication;
+import com.example.bankcards.entity.UserEntity;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a running PostgreSQL for database-backed benchmarks.
+ * Defaults match the docker-compose database and the dev profile's card token key; override with
+ * -Dbench.datasource.url, -Dbench.card-token-secret etc.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String profile, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--sql.budget.enabled=false",
+                "--management.tracing.enabled=false",
+                "--spring.datasource.url=" + System.getProperty("bench.datasource.url", "jdbc:postgresql://localhost:5438/bankcards"),
+                "--spring.datasource.username=" + System.getProperty("bench.datasource.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("bench.datasource.password", "password"),
+                "--card.token.secret=" + System.getProperty("bench.card-token-secret", "8f1c2e7a94b3d6f05e2a71c48b9d3f60a5e7c1b2d4f6a8e0c3b5d7f9a1e3c5b7")));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(Bank_RESTApplication.class)
+                .profiles(profile)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Signs the calling thread in as {@code user}, as the JWT filter does for a request, so that
+     * user-facing services resolve card references among the user's cards.
+     */
+    static void authenticate(UserEntity user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
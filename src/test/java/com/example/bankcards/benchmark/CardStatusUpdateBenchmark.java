@@ -0,0 +1,84 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
+import com.example.bankcards.dto.responses.CardStatusUpdateResponse;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardBulkRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares changing the status of many cards one request at a time through
+ * {@link CardService#updateCard} with the single set-based UPDATE of
+ * {@link CardService#updateCards}. Each invocation flips the cards between
+ * ACTIVE and BLOCKED so every call changes rows; the seeded cards are removed
+ * after the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardStatusUpdateBenchmark {
+
+    private static final String CARD_NUMBER_PREFIX = "410000000000";
+
+    @Param({"100"})
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private JdbcTemplate jdbcTemplate;
+    private List<String> cardNumbers;
+    private boolean block;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("default");
+        cardService = context.getBean(CardService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UUID ownerId = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow().getId();
+        List<CardCreationRequest> seed = new ArrayList<>(cards);
+        cardNumbers = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            String cardNumber = CARD_NUMBER_PREFIX + String.format("%04d", 6000 + i);
+            seed.add(new CardCreationRequest(cardNumber, ownerId, LocalDate.now().plusYears(3), CardStatus.ACTIVE, Money.zero(), null));
+            cardNumbers.add(cardNumber);
+        }
+        context.getBean(CardBulkRepository.class).insertCards(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cards WHERE card_number LIKE ?", CARD_NUMBER_PREFIX + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public int singleCardUpdates() {
+        block = !block;
+        String action = block ? "deactivate" : "activate";
+        for (String cardNumber : cardNumbers) {
+            cardService.updateCard(cardNumber, action);
+        }
+        return cardNumbers.size();
+    }
+
+    @Benchmark
+    public CardStatusUpdateResponse bulkStatusUpdate() {
+        block = !block;
+        return cardService.updateCards(new CardStatusUpdateRequest(cardNumbers, block ? CardStatus.BLOCKED : CardStatus.ACTIVE));
+    }
+}
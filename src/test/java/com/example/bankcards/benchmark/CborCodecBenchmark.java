@@ -0,0 +1,93 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.JacksonConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.BalanceResponse;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes the bodies of {@code /user/cards/get}, {@code /user/cards/balance} and
+ * {@code /user/cards/transfer} as JSON and as CBOR with the modules of {@link JacksonConfig}.
+ * The encoded size of each body is printed at the end of the trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CborCodecBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private Page<CardDto> page;
+    private List<BalanceResponse> balances;
+    private TransferResponse transferResponse;
+    private byte[] pageBytes;
+    private byte[] transferRequestBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        MapperBuilder<?, ?> builder = "cbor".equals(format) ? CBORMapper.builder() : JsonMapper.builder();
+        JacksonConfig config = new JacksonConfig();
+        objectMapper = builder.addModule(new JavaTimeModule())
+                .addModule(config.blackbirdModule())
+                .addModule(config.pageEnvelopeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        page = JsonPageBenchmark.cardPage(100);
+        balances = page.getContent().stream().limit(2)
+                .map(card -> new BalanceResponse(card.getBalance(), card.getLastFourCardDigits(), card.getCurrency()))
+                .toList();
+        transferResponse = new TransferResponse("1234", "1221", Money.parse("812.50"), Money.DEFAULT_CURRENCY, null, null);
+        pageBytes = objectMapper.writeValueAsBytes(page);
+        transferRequestBytes = objectMapper.writeValueAsBytes(new TransferRequest("1234", "1221", Money.parse("812.50")));
+    }
+
+    @TearDown
+    public void reportSizes() throws IOException {
+        System.out.printf("%n%s: card_page=%d transfer_request=%d transfer_response=%d balance_response=%d bytes%n", format,
+                pageBytes.length, transferRequestBytes.length, encodeTransferResponse().length, encodeBalance().length);
+    }
+
+    @Benchmark
+    public byte[] encodeCardPage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Object decodeCardPage() throws IOException {
+        return objectMapper.readTree(pageBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeBalance() throws IOException {
+        return objectMapper.writeValueAsBytes(balances);
+    }
+
+    @Benchmark
+    public TransferRequest decodeTransferRequest() throws IOException {
+        return objectMapper.readValue(transferRequestBytes, TransferRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeTransferResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(transferResponse);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.EventJournalProperties;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.events.EventJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency an event append adds to a write path: {@link EventJournal} copies into a mapped segment
+ * and leaves the fsync to the background sync, while {@code writeAndForce} is the naive journal that
+ * writes and forces each event itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EventJournalBenchmark {
+
+    private final CardEvent event = CardEvent.statusChanged(UUID.randomUUID(), CardStatus.BLOCKED);
+    private Path directory;
+    private EventJournal journal;
+    private FileChannel channel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("event-journal");
+        EventJournalProperties properties = new EventJournalProperties();
+        properties.setDirectory(directory.resolve("mapped"));
+        journal = new EventJournal(properties, new SimpleMeterRegistry());
+        journal.start();
+        channel = FileChannel.open(directory.resolve("plain.events"), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        channel.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long mappedAppend() {
+        return journal.append(event);
+    }
+
+    @Benchmark
+    public int writeAndForce() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(80);
+        synchronized (channel) {
+            int written = channel.write(buffer);
+            channel.force(false);
+            return written;
+        }
+    }
+}
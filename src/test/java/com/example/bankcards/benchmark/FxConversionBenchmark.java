@@ -0,0 +1,64 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.money.FxRateSnapshot;
+import com.example.bankcards.util.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion throughput of the precomputed {@link FxRateSnapshot} against dividing BigDecimal rates
+ * per call, with several reader threads. {@code writer} swaps in a fresh snapshot the same way the
+ * scheduled refresh does, to show that readers are not blocked by it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FxConversionBenchmark {
+
+    private static final Currency RUB = Currency.getInstance("RUB");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private final Map<Currency, BigDecimal> ratesToBase = Map.of(
+            RUB, BigDecimal.ONE,
+            USD, new BigDecimal("81.25"),
+            EUR, new BigDecimal("94.70"));
+    private final Money amount = Money.parse("12345.67");
+    private final BigDecimal decimalAmount = new BigDecimal("12345.67");
+
+    private volatile FxRateSnapshot snapshot = FxRateSnapshot.of(ratesToBase, Instant.now(), Instant.now());
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(4)
+    public Money snapshotConvert() {
+        return snapshot.convert(amount, USD);
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public FxRateSnapshot writer() {
+        FxRateSnapshot next = FxRateSnapshot.of(ratesToBase, Instant.now(), Instant.now());
+        snapshot = next;
+        return next;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BigDecimal bigDecimalConvert() {
+        return decimalAmount.multiply(ratesToBase.get(RUB))
+                .divide(ratesToBase.get(USD), MathContext.DECIMAL64)
+                .setScale(USD.getDefaultFractionDigits(), RoundingMode.HALF_UP);
+    }
+}
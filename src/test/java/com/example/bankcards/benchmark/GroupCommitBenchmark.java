@@ -0,0 +1,119 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.CardTokenizer;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers per second against commits per second with and without group commit, with 16
+ * concurrent callers moving money between 16 dedicated cards. The cards are created for the trial
+ * and deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class GroupCommitBenchmark {
+
+    private static final int CARDS = 16;
+    private static final String CARD_NUMBER_PREFIX = "400000000099";
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private CardRepository cardRepository;
+    private Counter groupCommits;
+    private List<CardEntity> cards;
+    private UserEntity owner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("oltp",
+                "transfer.group-commit.enabled=" + groupCommit,
+                "transfer.queue.workers-enabled=false",
+                "outbox.relay-enabled=false");
+        userService = context.getBean(UserService.class);
+        cardRepository = context.getBean(CardRepository.class);
+        groupCommits = context.getBean(MeterRegistry.class).counter("transfer.group.commits");
+        owner = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+        CardTokenizer cardTokenizer = context.getBean(CardTokenizer.class);
+        context.getBean(JdbcTemplate.class).update("DELETE FROM cards WHERE card_number LIKE ?", CARD_NUMBER_PREFIX + "%");
+        List<CardEntity> created = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            CardEntity card = new CardEntity();
+            card.setCardNumber(CARD_NUMBER_PREFIX + (9000 + i));
+            card.setCardToken(cardTokenizer.tokenize(card.getCardNumber()));
+            card.setUserEntity(owner);
+            card.setExpiryDate(LocalDate.now().plusYears(3));
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(Money.parse("1000000.00"));
+            created.add(card);
+        }
+        cards = cardRepository.saveAll(created);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cardRepository.deleteAll(cards);
+        context.close();
+    }
+
+    /**
+     * Commits made while the iteration ran, reported next to the transfer rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Commits {
+
+        public long commits;
+
+        private int thread;
+        private double groupCommitsAtStart;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(GroupCommitBenchmark benchmark, ThreadParams threadParams) {
+            commits = 0;
+            thread = threadParams.getThreadIndex();
+            groupCommitsAtStart = benchmark.groupCommits.count();
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+    }
+
+    @Benchmark
+    public TransferResponse transfer(Commits commits) {
+        int from = (commits.thread + commits.next++) % CARDS;
+        int to = (from + 1 + commits.thread % (CARDS - 1)) % CARDS;
+        TransferResponse response = userService.transfer(new TransferRequest(
+                cards.get(from).getCardNumber(), cards.get(to).getCardNumber(), Money.parse("0.01")));
+        if (!groupCommit) {
+            commits.commits++;
+        } else if (commits.thread == 0) {
+            commits.commits = (long) (groupCommits.count() - commits.groupCommitsAtStart);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.requests.BalanceRequest;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.BalanceResponse;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.grpc.CardGrpcService;
+import com.example.bankcards.grpc.proto.CardsGrpc;
+import com.example.bankcards.grpc.proto.CardsProto;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.Versioned;
+import com.example.bankcards.util.money.Money;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Per-call cost of the gRPC transport and protobuf messages, without the database: the service is
+ * backed by a {@link UserService} that answers at once. {@code transferBatch} sends
+ * {@value #BATCH} transfers on one client-streaming call and is reported per transfer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GrpcTransferBenchmark {
+
+    private static final int BATCH = 100;
+
+    private final CardsProto.TransferRequest transferRequest = CardsProto.TransferRequest.newBuilder()
+            .setSource("1234").setTarget("1221")
+            .setAmount(CardsProto.Money.newBuilder().setMinorUnits(81250).setCurrency("RUB"))
+            .build();
+    private final CardsProto.BalanceRequest balanceRequest = CardsProto.BalanceRequest.newBuilder()
+            .addLastFourCardDigits("1234").addLastFourCardDigits("1221")
+            .build();
+
+    private CardGrpcService service;
+    private Server server;
+    private ManagedChannel channel;
+    private CardsGrpc.CardsBlockingStub blockingStub;
+    private CardsGrpc.CardsStub stub;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new CardGrpcService(new FixedUserService(), null, Duration.ofSeconds(1));
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        blockingStub = CardsGrpc.newBlockingStub(channel);
+        stub = CardsGrpc.newStub(channel);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        service.close();
+    }
+
+    @Benchmark
+    public CardsProto.TransferResponse transfer() {
+        return blockingStub.transfer(transferRequest);
+    }
+
+    @Benchmark
+    public CardsProto.BalanceResponse getBalance() {
+        return blockingStub.getBalance(balanceRequest);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public CardsProto.TransferBatchReport transferBatch() throws ExecutionException, InterruptedException {
+        CompletableFuture<CardsProto.TransferBatchReport> report = new CompletableFuture<>();
+        StreamObserver<CardsProto.TransferRequest> requests = stub.transferBatch(new StreamObserver<>() {
+            @Override
+            public void onNext(CardsProto.TransferBatchReport value) {
+                report.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                report.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        for (int i = 0; i < BATCH; i++) {
+            requests.onNext(transferRequest);
+        }
+        requests.onCompleted();
+        return report.get();
+    }
+
+    private static class FixedUserService implements UserService {
+
+        private final TransferResponse transferResponse = TransferResponse.builder()
+                .sourceLastFourCardDigits("1234").targetLastFourCardDigits("1221")
+                .amount(Money.parse("812.50")).currency(Money.DEFAULT_CURRENCY).build();
+        private final List<BalanceResponse> balances = List.of(
+                new BalanceResponse(Money.parse("9104.69"), "1234", Money.DEFAULT_CURRENCY),
+                new BalanceResponse(Money.parse("4.37"), "1221", Money.DEFAULT_CURRENCY));
+
+        @Override
+        public List<UserDto> getAllUsers() {
+            return List.of();
+        }
+
+        @Override
+        public void deleteUser(UUID id) {
+        }
+
+        @Override
+        public Versioned<Page<CardDto>> getCards(Pageable pageable, String searchQuery, Predicate<String> unchanged) {
+            return new Versioned<>("0", Page.empty());
+        }
+
+        @Override
+        public List<BalanceResponse> getBalance(BalanceRequest request) {
+            return balances;
+        }
+
+        @Override
+        public TransferResponse transfer(TransferRequest request) {
+            return transferResponse;
+        }
+    }
+}
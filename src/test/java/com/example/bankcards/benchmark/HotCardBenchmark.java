@@ -0,0 +1,111 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.CardTokenizer;
+import com.example.bankcards.util.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers from 16 concurrent callers, each from its own card, into one merchant card, with the
+ * merchant card as an ordinary card ({@code stripes = 0}) and as a hot card. The cards are created
+ * for the trial and deleted afterwards, once the trial has checked that no money was lost or made:
+ * the sources' balances plus the merchant's row and stripes still add up to the starting total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class HotCardBenchmark {
+
+    private static final int SOURCES = 16;
+    private static final String CARD_NUMBER_PREFIX = "400000000098";
+    private static final Money STARTING_BALANCE = Money.parse("1000000.00");
+    private static final String TOTAL_BALANCE = "SELECT sum(c.balance) + coalesce((SELECT sum(s.balance) FROM card_balance_stripes s"
+            + " JOIN cards h ON h.id = s.card_id WHERE h.card_number LIKE ?), 0) FROM cards c WHERE c.card_number LIKE ?";
+
+    @Param({"0", "8"})
+    public int stripes;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserService userService;
+    private CardRepository cardRepository;
+    private List<CardEntity> cards;
+    private String merchant;
+    private UserEntity owner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("oltp", "transfer.queue.workers-enabled=false", "outbox.relay-enabled=false");
+        userService = context.getBean(UserService.class);
+        cardRepository = context.getBean(CardRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM cards WHERE card_number LIKE ?", CARD_NUMBER_PREFIX + "%");
+        owner = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+        CardTokenizer cardTokenizer = context.getBean(CardTokenizer.class);
+        List<CardEntity> created = new ArrayList<>(SOURCES + 1);
+        for (int i = 0; i <= SOURCES; i++) {
+            CardEntity card = new CardEntity();
+            card.setCardNumber(CARD_NUMBER_PREFIX + (8000 + i));
+            card.setCardToken(cardTokenizer.tokenize(card.getCardNumber()));
+            card.setUserEntity(owner);
+            card.setExpiryDate(LocalDate.now().plusYears(3));
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(STARTING_BALANCE);
+            created.add(card);
+        }
+        cards = cardRepository.saveAll(created);
+        merchant = cards.get(SOURCES).getCardNumber();
+        context.getBean(CardService.class).setBalanceStripes(merchant, stripes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            long expected = STARTING_BALANCE.getMinorUnits() * (SOURCES + 1);
+            Long total = jdbcTemplate.queryForObject(TOTAL_BALANCE, Long.class, CARD_NUMBER_PREFIX + "%", CARD_NUMBER_PREFIX + "%");
+            if (total == null || total != expected) {
+                throw new IllegalStateException(String.format("Money not conserved: the cards hold %s minor units, expected %d", total, expected));
+            }
+            cardRepository.deleteAll(cards);
+        } finally {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        private String cardNumber;
+
+        @Setup(Level.Trial)
+        public void setUp(HotCardBenchmark benchmark, ThreadParams threadParams) {
+            cardNumber = benchmark.cards.get(threadParams.getThreadIndex() % SOURCES).getCardNumber();
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+    }
+
+    @Benchmark
+    public TransferResponse transferToMerchant(Source source) {
+        return userService.transfer(new TransferRequest(source.cardNumber, merchant, Money.parse("0.01")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardTokenizer;
+import com.example.bankcards.util.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JDBC batching settings of the default, oltp and bulk profiles on
+ * bulk card creation through saveAll. Transfers are not measured: they write
+ * balances with JdbcTemplate updates, which Hibernate batching does not touch.
+ * Every invocation flushes and then rolls back, so the database is left unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcBatchingBenchmark {
+
+    @Param({"default", "oltp", "bulk"})
+    public String profile;
+
+    @Param({"500"})
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private CardRepository cardRepository;
+    private CardTokenizer cardTokenizer;
+    private TransactionTemplate transactionTemplate;
+    private UserEntity owner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(profile);
+        cardRepository = context.getBean(CardRepository.class);
+        cardTokenizer = context.getBean(CardTokenizer.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        owner = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int bulkCardCreation() {
+        return transactionTemplate.execute(status -> {
+            List<CardEntity> batch = new ArrayList<>(cards);
+            for (int i = 0; i < cards; i++) {
+                CardEntity card = new CardEntity();
+                card.setCardNumber(String.format("400000000000%04d", 5000 + i));
+                card.setCardToken(cardTokenizer.tokenize(card.getCardNumber()));
+                card.setUserEntity(owner);
+                card.setExpiryDate(LocalDate.now().plusYears(3));
+                card.setStatus(CardStatus.ACTIVE);
+                card.setBalance(Money.zero());
+                batch.add(card);
+            }
+            int saved = cardRepository.saveAll(batch).size();
+            cardRepository.flush();
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.JacksonConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes a 100-card page as {@code /user/cards/get} returns it, with a plain mapper writing the
+ * {@code PageImpl} bean ({@code default}) and with the modules of {@link JacksonConfig}
+ * ({@code tuned}); {@code gzip} adds the compression the server applies to it. The raw and
+ * compressed sizes of one page are printed at the end of the trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPageBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"default", "tuned"})
+    public String mapper;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private ObjectMapper objectMapper;
+    private Page<CardDto> page;
+
+    @Setup
+    public void setUp() {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("tuned".equals(mapper)) {
+            JacksonConfig config = new JacksonConfig();
+            builder.addModule(config.blackbirdModule()).addModule(config.pageEnvelopeModule());
+        }
+        objectMapper = builder.build();
+        page = cardPage(PAGE_SIZE);
+    }
+
+    static Page<CardDto> cardPage(int size) {
+        List<CardDto> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(CardDto.builder()
+                    .Id(UUID.randomUUID())
+                    .cardNumber(String.format("**** **** **** %04d", i))
+                    .lastFourCardDigits(String.format("%04d", i))
+                    .ownerId(UUID.randomUUID())
+                    .expiresIn(LocalDate.of(2030, 1 + i % 12, 1))
+                    .status(CardStatus.values()[i % CardStatus.values().length])
+                    .balance(Money.ofMinor(100_000L + i * 137L, Money.DEFAULT_CURRENCY))
+                    .currency(Money.DEFAULT_CURRENCY)
+                    .build());
+        }
+        return new PageImpl<>(cards, PageRequest.of(0, size, Sort.Direction.DESC, "id"), 1_000);
+    }
+
+    @TearDown
+    public void reportSizes() throws IOException {
+        System.out.printf("%n%s: page=%d bytes gzip=%d bytes%n", mapper, json(), gzip());
+    }
+
+    @Benchmark
+    public int json() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, page);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int gzip() throws IOException {
+        buffer.reset();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8 * 1024)) {
+            objectMapper.writeValue(out, page);
+        }
+        return buffer.size();
+    }
+}
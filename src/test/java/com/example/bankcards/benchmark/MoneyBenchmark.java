@@ -0,0 +1,90 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the transfer arithmetic (balance check, debit, credit) and the JSON encode/decode of a
+ * transfer body for {@link BigDecimal} and {@link Money}. Run with {@code -prof gc} to see the
+ * allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    public record DecimalTransfer(String source, String target, BigDecimal amount) {
+    }
+
+    public record MoneyTransfer(String source, String target, Money amount) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BigDecimal decimalSource;
+    private BigDecimal decimalTarget;
+    private BigDecimal decimalAmount;
+    private Money moneySource;
+    private Money moneyTarget;
+    private Money moneyAmount;
+    private DecimalTransfer decimalTransfer;
+    private MoneyTransfer moneyTransfer;
+    private byte[] transferJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        decimalSource = new BigDecimal("10000.00");
+        decimalTarget = new BigDecimal("250.35");
+        decimalAmount = new BigDecimal("100.15");
+        moneySource = Money.parse("10000.00");
+        moneyTarget = Money.parse("250.35");
+        moneyAmount = Money.parse("100.15");
+        decimalTransfer = new DecimalTransfer("1111", "1221", decimalAmount);
+        moneyTransfer = new MoneyTransfer("1111", "1221", moneyAmount);
+        transferJson = objectMapper.writeValueAsBytes(moneyTransfer);
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        if (decimalSource.compareTo(decimalAmount) >= 0) {
+            blackhole.consume(decimalSource.subtract(decimalAmount));
+            blackhole.consume(decimalTarget.add(decimalAmount));
+        }
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        if (!moneySource.isLessThan(moneyAmount)) {
+            blackhole.consume(moneySource.minus(moneyAmount));
+            blackhole.consume(moneyTarget.plus(moneyAmount));
+        }
+    }
+
+    @Benchmark
+    public byte[] bigDecimalEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(decimalTransfer);
+    }
+
+    @Benchmark
+    public byte[] moneyEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(moneyTransfer);
+    }
+
+    @Benchmark
+    public DecimalTransfer bigDecimalDecode() throws Exception {
+        return objectMapper.readValue(transferJson, DecimalTransfer.class);
+    }
+
+    @Benchmark
+    public MoneyTransfer moneyDecode() throws Exception {
+        return objectMapper.readValue(transferJson, MoneyTransfer.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.TransferEngineProperties;
+import com.example.bankcards.engine.InMemoryBalanceStore;
+import com.example.bankcards.engine.TransferEngine;
+import com.example.bankcards.engine.TransferReceipt;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journaled transfers per second through {@link TransferEngine} with an in-memory store, so the
+ * number reflects the shards and the fsync per batch rather than the database. Each invocation
+ * submits a burst of transfers between random cards and waits until all of them are durable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferEngineBenchmark {
+
+    private static final int TRANSFERS = 10_000;
+    private static final int CARDS = 1_000;
+    private static final Currency RUB = Currency.getInstance("RUB");
+
+    @Param({"1", "4"})
+    public int shards;
+
+    private final Money amount = Money.ofMinor(1, RUB);
+    private UUID[] cards;
+    private Path journal;
+    private TransferEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journal = Files.createTempDirectory("transfer-journal");
+        InMemoryBalanceStore store = new InMemoryBalanceStore();
+        cards = new UUID[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            cards[i] = UUID.randomUUID();
+            store.addCard(cards[i], RUB, Long.MAX_VALUE / 4);
+        }
+        TransferEngineProperties properties = new TransferEngineProperties();
+        properties.setShards(shards);
+        properties.setJournalDirectory(journal);
+        engine = new TransferEngine(properties, store, new SimpleMeterRegistry());
+        engine.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        engine.close();
+        FileSystemUtils.deleteRecursively(journal);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void transfers() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<TransferReceipt>[] results = new CompletableFuture[TRANSFERS];
+        for (int i = 0; i < TRANSFERS; i++) {
+            UUID source = cards[(i * 7) % CARDS];
+            UUID target = cards[(i * 13 + 1) % CARDS];
+            results[i] = engine.submit(source, target, amount, amount);
+        }
+        CompletableFuture.allOf(results).join();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts {@code rows} rows keyed by random (v4) or time-ordered (v7) UUIDs into a scratch table
+ * and reports the primary key index size after each iteration. Uses plain JDBC against the
+ * benchmark database (-Dbench.datasource.url etc.); the scratch table is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 2)
+@Fork(1)
+public class UuidPrimaryKeyBenchmark {
+
+    private static final String TABLE = "bench_uuid_keys";
+    private static final int BATCH_SIZE = 5000;
+
+    @Param({"random", "v7"})
+    public String idType;
+
+    @Param({"10000000"})
+    public int rows;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        String url = System.getProperty("bench.datasource.url", "jdbc:postgresql://localhost:5438/bankcards");
+        connection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                System.getProperty("bench.datasource.username", "postgres"),
+                System.getProperty("bench.datasource.password", "password"));
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id UUID PRIMARY KEY, payload BIGINT NOT NULL)");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIndexSize() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + TABLE + "_pkey'), pg_relation_size('" + TABLE + "')")) {
+            rs.next();
+            System.out.printf("%n%s: rows=%d pkey_index=%d MiB table=%d MiB%n",
+                    idType, rows, rs.getLong(1) >> 20, rs.getLong(2) >> 20);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        boolean timeOrdered = "v7".equals(idType);
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE + " (id, payload) VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                statement.setObject(1, timeOrdered ? UuidV7Generator.next() : UUID.randomUUID());
+                statement.setLong(2, i);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.grpc.proto.CardsProto;
+import com.example.bankcards.migration.CardTokenBackfillChange;
+import com.example.bankcards.util.money.Money;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldCoverDtosAndTheirJsonSerializers() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CardDto.class.getMethod("getLastFourCardDigits")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TransferRequest.class.getMethod("setAmount", Money.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Money.Serializer.class).test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldCoverJjwtAndJdbcProxiesAndChangelogs() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/db.changelog-master.yaml").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CardTokenBackfillChange.class, "setSecret").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CardsProto.TransferRequest.class, "getAmount").test(hints));
+    }
+}
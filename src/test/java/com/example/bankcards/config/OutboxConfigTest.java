@@ -0,0 +1,45 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.outbox.FileOutboxSink;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxConfigTest {
+
+    private final OutboxConfig config = new OutboxConfig();
+
+    @Test
+    void defaults_ShouldLeaveTheRelayOffWithoutASink() {
+        OutboxProperties properties = new OutboxProperties();
+
+        assertFalse(properties.isRelayEnabled());
+        assertNull(properties.getSink());
+    }
+
+    @Test
+    void outboxSink_WithoutSink_ShouldFail() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> config.outboxSink(new OutboxProperties()));
+
+        assertTrue(exception.getMessage().contains("outbox.sink"), exception.getMessage());
+    }
+
+    @Test
+    void outboxSink_FileWithoutPath_ShouldFail() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setSink(OutboxProperties.SinkType.FILE);
+
+        assertThrows(IllegalStateException.class, () -> config.outboxSink(properties));
+    }
+
+    @Test
+    void outboxSink_FileWithPath_ShouldWriteToIt() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setSink(OutboxProperties.SinkType.FILE);
+        properties.setFile(Path.of("data", "outbox", "events.ndjson"));
+
+        assertInstanceOf(FileOutboxSink.class, config.outboxSink(properties));
+    }
+}
@@ -4,34 +4,50 @@ import com.example.bankcards.dto.CardBlockingRequestDto;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardImportFormat;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
 import com.example.bankcards.dto.requests.RegisterRequest;
+import com.example.bankcards.dto.responses.CardImportError;
+import com.example.bankcards.dto.responses.CardImportReport;
+import com.example.bankcards.dto.responses.CardStatusUpdateResponse;
+import com.example.bankcards.dto.responses.StartupReportResponse;
+import com.example.bankcards.dto.responses.StartupStepTime;
 import com.example.bankcards.entity.enums.BlockRequestStatus;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.Role;
 import com.example.bankcards.service.AuthService;
 import com.example.bankcards.service.CardBlockingService;
+import com.example.bankcards.service.CardImportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ListingETags;
+import com.example.bankcards.util.StartupReport;
+import com.example.bankcards.util.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static com.example.bankcards.util.VersionedListings.listing;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -60,6 +76,15 @@ class AdminControllerTest {
     @Mock
     private CardBlockingService cardBlockingService;
 
+    @Mock
+    private CardImportService cardImportService;
+
+    @Mock
+    private StartupReport startupReport;
+
+    @Spy
+    private ListingETags listingETags = new ListingETags(new SimpleMeterRegistry());
+
     @InjectMocks
     private AdminController adminController;
 
@@ -90,11 +115,31 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.expires_in[1]").value(1))
                 .andExpect(jsonPath("$.expires_in[2]").value(1))
                 .andExpect(jsonPath("$.status").value(expectedResponse.getStatus().toString()))
-                .andExpect(jsonPath("$.balance").value(expectedResponse.getBalance().doubleValue()));
+                .andExpect(jsonPath("$.balance").value(0.0));
 
         verify(cardService, times(1)).createCard(any(CardCreationRequest.class));
     }
 
+    @Test
+    void importCards_ShouldReturnReport() throws Exception {
+        CardImportReport report = new CardImportReport(2, 1, 1,
+                List.of(new CardImportError(2, "Card with last four digits 1234 already exists")), false);
+        when(cardImportService.importCards(any(InputStream.class), eq(CardImportFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/admin/cards/import")
+                        .contentType("text/csv")
+                        .content(TEST_CARD_NUMBER + "," + TEST_USER_ID + ",2027-01-01,ACTIVE\n"
+                                + TEST_CARD_NUMBER + "," + TEST_USER_ID + ",2027-01-01,ACTIVE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total_rows").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors_truncated").value(false));
+
+        verify(cardImportService, times(1)).importCards(any(InputStream.class), eq(CardImportFormat.CSV));
+    }
+
     private CardDto createCardDtoFromRequest(CardCreationRequest request) {
         return CardDto.builder()
                 .Id(UUID.randomUUID())
@@ -103,7 +148,7 @@ class AdminControllerTest {
                 .ownerId(TEST_USER_ID)
                 .expiresIn(TEST_EXPIRY_DATE)
                 .status(CardStatus.ACTIVE)
-                .balance(BigDecimal.ZERO)
+                .balance(Money.zero())
                 .build();
     }
 
@@ -113,7 +158,7 @@ class AdminControllerTest {
                 .ownerId(TEST_USER_ID)
                 .expiresIn(TEST_EXPIRY_DATE)
                 .status(CardStatus.ACTIVE)
-                .startBalance(BigDecimal.ZERO)
+                .startBalance(Money.zero())
                 .build();
     }
 
@@ -151,11 +196,43 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.expires_in[1]").value(1))
                 .andExpect(jsonPath("$.expires_in[2]").value(1))
                 .andExpect(jsonPath("$.status").value(expectedResponse.getStatus().toString()))
-                .andExpect(jsonPath("$.balance").value(expectedResponse.getBalance().doubleValue()));
+                .andExpect(jsonPath("$.balance").value(0.0));
 
         verify(cardService, times(1)).updateCard(lastFourDigits, activate);
     }
 
+    @Test
+    void updateCards_ShouldReturnBulkResult() throws Exception {
+        CardStatusUpdateRequest request = new CardStatusUpdateRequest(List.of(TEST_CARD_NUMBER, "4000000000000000"), CardStatus.BLOCKED);
+        CardDto updatedCard = createCardDtoFromRequest(createCardCreationRequest());
+        updatedCard.setStatus(CardStatus.BLOCKED);
+        CardStatusUpdateResponse expectedResponse = new CardStatusUpdateResponse(CardStatus.BLOCKED, List.of(updatedCard), List.of("************0000"), List.of("************1111"));
+        when(cardService.updateCards(any(CardStatusUpdateRequest.class))).thenReturn(expectedResponse);
+
+        mockMvc.perform(patch("/admin/cards/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BLOCKED"))
+                .andExpect(jsonPath("$.updated[0].last_four_card_digits").value(TEST_LAST_FOUR_CARD_DIGITS))
+                .andExpect(jsonPath("$.updated[0].status").value("BLOCKED"))
+                .andExpect(jsonPath("$.unchanged[0]").value("************0000"))
+                .andExpect(jsonPath("$.not_found[0]").value("************1111"));
+
+        verify(cardService, times(1)).updateCards(any(CardStatusUpdateRequest.class));
+        verify(cardService, never()).updateCard(any(), any());
+    }
+
+    @Test
+    void updateCards_InvalidRequest_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/admin/cards/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"card_numbers\":[],\"status\":\"BLOCKED\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).updateCards(any(CardStatusUpdateRequest.class));
+    }
+
     @Test
     void deleteCard_ShouldReturnNoContent() throws Exception {
         String lastFourDigits = "1234";
@@ -189,7 +266,7 @@ class AdminControllerTest {
                 1
         );
 
-        when(cardBlockingService.getAllRequests(any(Pageable.class))).thenReturn(page);
+        when(cardBlockingService.getAllRequests(any(Pageable.class), any())).thenAnswer(listing(page, "1.42"));
 
         mockMvc.perform(get("/admin/cards/block/requests")
                         .param("page", "0")
@@ -201,6 +278,22 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void getAllCardsBlockRequests_AfterRequestsChanged_ShouldReturnNewPage() throws Exception {
+        when(cardBlockingService.getAllRequests(any(Pageable.class), any()))
+                .thenAnswer(listing(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0), "1.42", "1.42", "2.-7"));
+        String etag = mockMvc.perform(get("/admin/cards/block/requests"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/admin/cards/block/requests").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/admin/cards/block/requests").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+
+        verify(cardBlockingService, times(3)).getAllRequests(any(Pageable.class), any());
+    }
+
     private CardBlockingRequestDto createCardBlockingRequest() {
         return CardBlockingRequestDto.builder()
                 .Id(TEST_CARD_BLOCKING_REQUEST_ID)
@@ -276,4 +369,22 @@ class AdminControllerTest {
 
         verify(userService, times(1)).deleteUser(userId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStartupReport_ShouldReturnOk() throws Exception {
+        when(startupReport.report()).thenReturn(StartupReportResponse.builder()
+                .applicationReadyMs(30_000L)
+                .recordedSteps(1)
+                .phases(List.of())
+                .packages(List.of())
+                .slowestBeans(List.of(StartupStepTime.builder().name("entityManagerFactory").count(1).totalMs(9_000).selfMs(5_000).build()))
+                .build());
+
+        mockMvc.perform(get("/admin/startup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.application_ready_ms").value(30000))
+                .andExpect(jsonPath("$.slowest_beans[0].name").value("entityManagerFactory"))
+                .andExpect(jsonPath("$.slowest_beans[0].self_ms").value(5000))
+                .andExpect(jsonPath("$.slowest_beans[0].type").doesNotExist());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs against the spec the build generated into target/classes before the tests.
+ */
+class OpenApiSpecControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new OpenApiSpecController()).build();
+    }
+
+    @Test
+    void getJson_ShouldServeGeneratedSpecWithAllControllers() throws Exception {
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.paths['/auth/login']").exists())
+                .andExpect(jsonPath("$.paths['/admin/cards/create']").exists())
+                .andExpect(jsonPath("$.paths['/user/cards/transfer'].post.requestBody.content['application/cbor']").exists());
+    }
+
+    @Test
+    void getJson_AcceptingGzip_ShouldServePrecompressedBytes() throws Exception {
+        byte[] plain = mockMvc.perform(get("/v3/api-docs")).andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult result = mockMvc.perform(get("/v3/api-docs").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        assertTrue(compressed.length < plain.length);
+        assertArrayEquals(plain, gunzip(compressed));
+    }
+
+    @Test
+    void getYaml_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/v3/api-docs.yaml"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.oai.openapi"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v3/api-docs.yaml").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v3/api-docs.yaml").header(HttpHeaders.IF_NONE_MATCH, etag).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk());
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
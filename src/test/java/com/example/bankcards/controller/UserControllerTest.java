@@ -6,31 +6,42 @@ import com.example.bankcards.dto.requests.BalanceRequest;
 import com.example.bankcards.dto.requests.TransferRequest;
 import com.example.bankcards.dto.responses.BalanceResponse;
 import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.dto.responses.TransferStatusResponse;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.CardBlockingService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ListingETags;
+import com.example.bankcards.util.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.example.bankcards.util.VersionedListings.listing;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -52,6 +63,14 @@ class UserControllerTest {
     @Mock
     private CardBlockingService cardBlockingService;
 
+    @Mock
+    private AsyncTransferService asyncTransferService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ListingETags listingETags = new ListingETags(meterRegistry);
+
     @InjectMocks
     private UserController userController;
 
@@ -64,17 +83,37 @@ class UserControllerTest {
                 .build();
     }
 
+    @Test
+    void getCards_WithCurrentETag_ShouldReturnNotModifiedWithoutLoadingCards() throws Exception {
+        when(userService.getCards(any(Pageable.class), any(), any()))
+                .thenAnswer(listing(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0), "2.-812"));
+        String etag = mockMvc.perform(get("/user/cards/get"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/user/cards/get").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/user/cards/get").param("page", "1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(userService, times(3)).getCards(any(Pageable.class), any(), any());
+        assertEquals(1, meterRegistry.counter("http.conditional.requests", "listing", "user_cards", "outcome", "not_modified").count());
+        assertEquals(2, meterRegistry.counter("http.conditional.requests", "listing", "user_cards", "outcome", "modified").count());
+    }
+
     @Test
     void getCards_ShouldReturnPageOfCards() throws Exception {
         Page<CardDto> mockPage = new PageImpl<>(List.of(
                 new CardDto(UUID.randomUUID(), "****1234", "1234", UUID.randomUUID(), LocalDate.of(2020, 1, 1),
-                        CardStatus.ACTIVE, BigDecimal.valueOf(1000)),
+                        CardStatus.ACTIVE, Money.parse("1000"), Money.DEFAULT_CURRENCY),
                 new CardDto(UUID.randomUUID(), "****5678", "5678", UUID.randomUUID(), LocalDate.of(2020, 1, 1),
-                        CardStatus.ACTIVE, BigDecimal.valueOf(1000))
+                        CardStatus.ACTIVE, Money.parse("1000"), Money.DEFAULT_CURRENCY)
         ), PageRequest.of(0, 10, Sort.Direction.DESC, "id"), 2);
 
-        when(userService.getCards(any(Pageable.class), anyString()))
-                .thenReturn(mockPage);
+        when(userService.getCards(any(Pageable.class), anyString(), any()))
+                .thenAnswer(listing(mockPage, "2.-812"));
 
         mockMvc.perform(get("/user/cards/get")
                         .param("page", "0")
@@ -97,8 +136,8 @@ class UserControllerTest {
                 PageRequest.of(0, 10, Sort.Direction.DESC, "id"),
                 1
         );
-        when(userService.getCards(any(Pageable.class), any()))
-                .thenReturn(page);
+        when(userService.getCards(any(Pageable.class), any(), any()))
+                .thenAnswer(listing(page, "2.-812"));
 
         mockMvc.perform(get("/user/cards/get"))
                 .andExpect(status().isOk());
@@ -161,7 +200,7 @@ class UserControllerTest {
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(TEST_SOURCE_LAST4DIGITS);
         request.setTargetLastFourCardDigits(TEST_TARGET_LAST4DIGITS);
-        request.setAmount(new BigDecimal("500.00"));
+        request.setAmount(Money.parse("500.00"));
         TransferResponse expectedResponse = createTransferResponse();
         when(userService.transfer(any(TransferRequest.class)))
                 .thenReturn(expectedResponse);
@@ -173,11 +212,29 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.source").value(expectedResponse.getSourceLastFourCardDigits()));
     }
 
+    @Test
+    void transfer_WithCbor_ShouldReadAndWriteCbor() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        TransferRequest request = new TransferRequest(TEST_SOURCE_LAST4DIGITS, TEST_TARGET_LAST4DIGITS, Money.parse("500.00"));
+        TransferResponse expectedResponse = createTransferResponse();
+        when(userService.transfer(request)).thenReturn(expectedResponse);
+
+        byte[] body = mockMvc.perform(post("/user/cards/transfer")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(expectedResponse, cborMapper.readValue(body, TransferResponse.class));
+    }
+
     private TransferResponse createTransferResponse() {
         return TransferResponse.builder()
                 .sourceLastFourCardDigits(TEST_SOURCE_LAST4DIGITS)
                 .targetLastFourCardDigits(TEST_TARGET_LAST4DIGITS)
-                .amount(new BigDecimal("500.00"))
+                .amount(Money.parse("500.00"))
                 .build();
     }
 
@@ -186,11 +243,41 @@ class UserControllerTest {
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(TEST_SOURCE_LAST4DIGITS);
         request.setTargetLastFourCardDigits(TEST_TARGET_LAST4DIGITS);
-        request.setAmount(new BigDecimal("-100.00"));
+        request.setAmount(Money.parse("-100.00"));
 
         mockMvc.perform(post("/user/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void submitTransfer_ShouldReturnAcceptedWithLocation() throws Exception {
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(TEST_SOURCE_LAST4DIGITS);
+        request.setTargetLastFourCardDigits(TEST_TARGET_LAST4DIGITS);
+        request.setAmount(Money.parse("500.00"));
+        UUID transferId = UUID.randomUUID();
+        when(asyncTransferService.submit(any(TransferRequest.class)))
+                .thenReturn(TransferStatusResponse.builder().transferId(transferId).status(TransferStatus.PENDING).build());
+
+        mockMvc.perform(post("/user/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/user/transfers/" + transferId))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void getTransfer_ShouldReturnStatus() throws Exception {
+        UUID transferId = UUID.randomUUID();
+        when(asyncTransferService.getTransfer(transferId))
+                .thenReturn(TransferStatusResponse.builder().transferId(transferId).status(TransferStatus.COMPLETED).build());
+
+        mockMvc.perform(get("/user/transfers/" + transferId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transfer_id").value(transferId.toString()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.engine;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link BalanceStore} backed by maps, for engine tests and benchmarks that should not need a
+ * database. Projection is atomic per call, like the JDBC store's transaction.
+ */
+public class InMemoryBalanceStore implements BalanceStore {
+
+    private final Map<UUID, Account> cards = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> checkpoints = new ConcurrentHashMap<>();
+    private final Map<UUID, String> transfers = new ConcurrentHashMap<>();
+    private volatile boolean failing;
+
+    public void addCard(UUID id, Currency currency, long balance) {
+        cards.put(id, new Account(id, currency, balance));
+    }
+
+    public long balance(UUID id) {
+        return cards.get(id).getBalance();
+    }
+
+    public Map<UUID, String> transfers() {
+        return transfers;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    @Override
+    public Optional<Account> loadAccount(UUID cardId) {
+        Account account = cards.get(cardId);
+        return account == null ? Optional.empty() : Optional.of(new Account(cardId, account.getCurrency(), account.getBalance()));
+    }
+
+    @Override
+    public long checkpoint(int shard) {
+        return checkpoints.getOrDefault(shard, 0L);
+    }
+
+    @Override
+    public synchronized void project(int shard, List<JournalRecord> records) {
+        if (failing) {
+            throw new IllegalStateException("store unavailable");
+        }
+        for (JournalRecord record : records) {
+            switch (record.type()) {
+                case TRANSFER -> {
+                    add(record.source(), -record.debit());
+                    add(record.target(), record.credit());
+                    transfers.put(record.transferId(), "COMPLETED");
+                }
+                case DEBIT -> add(record.source(), -record.debit());
+                case CREDIT -> {
+                    add(record.target(), record.credit());
+                    transfers.put(record.transferId(), "COMPLETED");
+                }
+                case REFUND -> {
+                    add(record.source(), record.debit());
+                    transfers.put(record.transferId(), "REFUNDED");
+                }
+            }
+        }
+        checkpoints.put(shard, records.get(records.size() - 1).sequence());
+    }
+
+    @Override
+    public Set<UUID> existingTransfers(Collection<UUID> transferIds) {
+        Set<UUID> existing = new HashSet<>(transferIds);
+        existing.retainAll(transfers.keySet());
+        return existing;
+    }
+
+    @Override
+    public synchronized void settle(JournalRecord debit) {
+        if (cards.containsKey(debit.target())) {
+            add(debit.target(), debit.credit());
+            transfers.put(debit.transferId(), "COMPLETED");
+        } else {
+            add(debit.source(), debit.debit());
+            transfers.put(debit.transferId(), "REFUNDED");
+        }
+    }
+
+    private void add(UUID id, long delta) {
+        Account account = cards.get(id);
+        if (account != null) {
+            account.setBalance(account.getBalance() + delta);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.bankcards.engine;
+
+import com.example.bankcards.config.TransferEngineProperties;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferEngineTest {
+
+    private static final Currency RUB = Currency.getInstance("RUB");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final int SHARDS = 2;
+
+    @TempDir
+    Path journal;
+
+    private InMemoryBalanceStore store;
+    private TransferEngine engine;
+
+    private UUID a;
+    private UUID b;
+    private UUID other;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBalanceStore();
+        a = cardOnShard(0);
+        b = cardOnShard(0);
+        other = cardOnShard(1);
+        store.addCard(a, RUB, 100_000);
+        store.addCard(b, RUB, 0);
+        store.addCard(other, USD, 0);
+        engine = newEngine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void transfer_SameShard_ShouldMoveFundsAndProjectOnClose() {
+        TransferReceipt receipt = engine.transfer(a, b, rub(250_00), rub(250_00));
+
+        assertEquals(rub(250_00), receipt.credit());
+        assertEquals(Money.ofMinor(750_00, RUB), engine.balance(a).orElseThrow());
+        assertEquals(Money.ofMinor(250_00, RUB), engine.balance(b).orElseThrow());
+
+        engine.close();
+
+        assertEquals(750_00, store.balance(a));
+        assertEquals(250_00, store.balance(b));
+        assertEquals("COMPLETED", store.transfers().get(receipt.transferId()));
+    }
+
+    @Test
+    void transfer_CrossShard_ShouldDebitSourceAndCreditTarget() {
+        TransferReceipt receipt = engine.transfer(a, other, rub(812_50), Money.ofMinor(10_00, USD));
+
+        assertEquals(Money.ofMinor(10_00, USD), receipt.credit());
+        engine.close();
+
+        assertEquals(100_000 - 812_50, store.balance(a));
+        assertEquals(10_00, store.balance(other));
+        assertEquals("COMPLETED", store.transfers().get(receipt.transferId()));
+    }
+
+    @Test
+    void transfer_InsufficientFunds_ShouldRejectWithoutJournaling() {
+        assertThrows(InsufficientFundsException.class, () -> engine.transfer(a, b, rub(1_000_01), rub(1_000_01)));
+
+        engine.close();
+
+        assertEquals(100_000, store.balance(a));
+        assertTrue(store.transfers().isEmpty());
+    }
+
+    @Test
+    void transfer_UnknownTargetOnOtherShard_ShouldRefundSource() {
+        UUID missing = cardOnShard(1);
+
+        assertThrows(CardNotFoundException.class, () -> engine.transfer(a, missing, rub(100_00), rub(100_00)));
+        assertEquals(Money.ofMinor(100_000, RUB), engine.balance(a).orElseThrow());
+
+        engine.close();
+
+        assertEquals(100_000, store.balance(a));
+        assertTrue(store.transfers().containsValue("REFUNDED"));
+    }
+
+    @Test
+    void submit_ManyConcurrentTransfers_ShouldConserveTotalBalance() {
+        List<CompletableFuture<TransferReceipt>> results = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            results.add(engine.submit(a, other, rub(1_00), Money.ofMinor(1, USD)));
+            results.add(engine.submit(a, b, rub(1_00), rub(1_00)));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        engine.close();
+
+        assertEquals(0, store.balance(a));
+        assertEquals(500_00, store.balance(b));
+        assertEquals(500, store.balance(other));
+    }
+
+    @Test
+    void start_AfterCrash_ShouldReplayUnprojectedJournal() {
+        store.setFailing(true);
+        TransferReceipt receipt = engine.transfer(a, b, rub(300_00), rub(300_00));
+        engine.halt();
+        store.setFailing(false);
+
+        assertEquals(100_000, store.balance(a));
+
+        engine = newEngine();
+
+        assertEquals(700_00, store.balance(a));
+        assertEquals(300_00, store.balance(b));
+        assertEquals("COMPLETED", store.transfers().get(receipt.transferId()));
+        assertTrue(engine.balance(a).isEmpty());
+    }
+
+    @Test
+    void start_WithTornTail_ShouldIgnoreIncompleteRecord() throws IOException {
+        store.setFailing(true);
+        engine.transfer(a, b, rub(300_00), rub(300_00));
+        engine.halt();
+        store.setFailing(false);
+        Path segment = segments(journal.resolve("shard-0")).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[JournalRecord.RECORD_BYTES / 2]));
+        }
+
+        engine = newEngine();
+
+        assertEquals(700_00, store.balance(a));
+        assertEquals(Money.ofMinor(700_00, RUB), engine.transfer(a, b, rub(700_00), rub(700_00)).debit());
+    }
+
+    @Test
+    void start_WithDebitButNoCredit_ShouldSettleTransfer() {
+        engine.close();
+        UUID transferId = UUID.randomUUID();
+        try (WriteAheadLog log = new WriteAheadLog(journal.resolve("shard-0"), 1 << 20, 16)) {
+            log.append(new JournalRecord(JournalRecord.Type.DEBIT, store.checkpoint(0) + 1, transferId,
+                    a, other, 812_50, RUB, 10_00, USD));
+            log.sync();
+        }
+
+        engine = newEngine();
+
+        assertEquals(100_000 - 812_50, store.balance(a));
+        assertEquals(10_00, store.balance(other));
+        assertEquals("COMPLETED", store.transfers().get(transferId));
+        assertTrue(segments(journal.resolve("shard-0")).isEmpty());
+    }
+
+    private TransferEngine newEngine() {
+        TransferEngineProperties properties = new TransferEngineProperties();
+        properties.setShards(SHARDS);
+        properties.setRingSize(4_096);
+        properties.setMaxBatch(256);
+        properties.setJournalDirectory(journal);
+        properties.setProjectionInterval(Duration.ofMillis(20));
+        TransferEngine transferEngine = new TransferEngine(properties, store, new SimpleMeterRegistry());
+        transferEngine.start();
+        return transferEngine;
+    }
+
+    private static Money rub(long minor) {
+        return Money.ofMinor(minor, RUB);
+    }
+
+    private static UUID cardOnShard(int shard) {
+        UUID id;
+        do {
+            id = UUID.randomUUID();
+        } while (Math.floorMod(id.hashCode(), SHARDS) != shard);
+        return id;
+    }
+
+    private static List<Path> segments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.bankcards.events;
+
+import com.example.bankcards.config.EventJournalProperties;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00.123456Z");
+    private static final UUID CARD_ID = UUID.randomUUID();
+    private static final UUID OTHER_CARD_ID = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    private EventJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = open(DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void append_ShouldRoundTripEveryEventType() {
+        Money debit = Money.parse("812.50");
+        Money credit = Money.ofMinor(1000, Currency.getInstance("USD"));
+        UUID ownerId = UUID.randomUUID();
+        UUID requestId = UUID.randomUUID();
+        journal.append(CardEvent.cardCreated(CARD_ID, ownerId, CardStatus.ACTIVE, Money.parse("10.00")));
+        journal.append(CardEvent.statusChanged(CARD_ID, CardStatus.EXPIRED));
+        journal.append(CardEvent.blockRequestResolved(CARD_ID, requestId));
+        journal.append(CardEvent.transfer(CARD_ID, OTHER_CARD_ID, debit, credit));
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+
+        List<CardEvent> events = replay(1);
+
+        assertEquals(List.of(
+                new CardEvent(1, CardEvent.Type.CARD_CREATED, micros(NOW), CARD_ID, ownerId, CardStatus.ACTIVE, Money.parse("10.00"), null),
+                new CardEvent(2, CardEvent.Type.CARD_STATUS_CHANGED, micros(NOW), CARD_ID, null, CardStatus.EXPIRED, null, null),
+                new CardEvent(3, CardEvent.Type.BLOCK_REQUEST_RESOLVED, micros(NOW), CARD_ID, requestId, CardStatus.BLOCKED, null, null),
+                new CardEvent(4, CardEvent.Type.TRANSFER, micros(NOW), CARD_ID, OTHER_CARD_ID, null, debit, credit),
+                new CardEvent(5, CardEvent.Type.CARD_DELETED, micros(NOW), CARD_ID, null, null, null, null)), events);
+    }
+
+    @Test
+    void tail_ShouldSeeEventsAppendedAfterItCaughtUp() {
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        List<CardEvent> seen = new ArrayList<>();
+        try (EventJournalReader reader = journal.tail(1)) {
+            assertEquals(1, reader.poll(seen::add, 100));
+            assertEquals(0, reader.poll(seen::add, 100));
+
+            journal.append(CardEvent.cardDeleted(OTHER_CARD_ID));
+
+            assertEquals(1, reader.poll(seen::add, 100));
+            assertEquals(3, reader.nextSequence());
+        }
+        assertEquals(List.of(CARD_ID, OTHER_CARD_ID), seen.stream().map(CardEvent::cardId).toList());
+    }
+
+    @Test
+    void append_PastSegmentSize_ShouldRollAndReadAcrossSegments() throws IOException {
+        journal.close();
+        Files.delete(EventJournal.segments(directory).get(0));
+        journal = open(DataSize.ofBytes(CardEvent.RECORD_BYTES * 10L));
+
+        for (int i = 0; i < 25; i++) {
+            journal.append(CardEvent.statusChanged(CARD_ID, CardStatus.ACTIVE));
+        }
+
+        assertEquals(3, EventJournal.segments(directory).size());
+        assertEquals(25, journal.replay(1, event -> { }));
+        assertEquals(List.of(12L, 13L), replay(12).stream().limit(2).map(CardEvent::sequence).toList());
+    }
+
+    @Test
+    void start_AfterRestart_ShouldContinueSequence() {
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        journal.close();
+
+        journal = open(DataSize.ofMegabytes(1));
+
+        assertEquals(2, journal.lastSequence());
+        assertEquals(3, journal.append(CardEvent.cardDeleted(OTHER_CARD_ID)));
+        assertEquals(3, replay(1).size());
+    }
+
+    @Test
+    void start_WithTornTail_ShouldDropIncompleteEvent() throws IOException {
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        journal.close();
+        Path segment = EventJournal.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), CardEvent.RECORD_BYTES + 20L);
+            channel.write(ByteBuffer.wrap(new byte[]{9}), CardEvent.RECORD_BYTES * 5L);
+        }
+
+        journal = open(DataSize.ofMegabytes(1));
+
+        assertEquals(1, journal.lastSequence());
+        assertEquals(2, journal.append(CardEvent.cardDeleted(OTHER_CARD_ID)));
+        assertEquals(List.of(CARD_ID, OTHER_CARD_ID), replay(1).stream().map(CardEvent::cardId).toList());
+    }
+
+    @Test
+    void sync_ShouldAdvanceDurableSequence() {
+        journal.append(CardEvent.cardDeleted(CARD_ID));
+        journal.sync();
+
+        assertEquals(1, journal.durableSequence());
+    }
+
+    private EventJournal open(DataSize segmentSize) {
+        EventJournalProperties properties = new EventJournalProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(segmentSize);
+        properties.setSyncInterval(Duration.ofSeconds(10));
+        EventJournal eventJournal = new EventJournal(properties, new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+        eventJournal.start();
+        return eventJournal;
+    }
+
+    private List<CardEvent> replay(long fromSequence) {
+        List<CardEvent> events = new ArrayList<>();
+        journal.replay(fromSequence, events::add);
+        return events;
+    }
+
+    private static long micros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.bankcards.groupcommit;
+
+import com.example.bankcards.config.GroupCommitProperties;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferGroupCommitterTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    @Captor
+    private ArgumentCaptor<Collection<UUID>> lockedIds;
+
+    @Captor
+    private ArgumentCaptor<List<CardEvent>> events;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GroupCommitProperties properties;
+    private TransferGroupCommitter committer;
+    private CardEntity source;
+    private CardEntity target;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GroupCommitProperties();
+        properties.setMaxWait(Duration.ofMillis(2));
+        committer = new TransferGroupCommitter(cardRepository, cardEvents, TransactionOperations.withoutTransaction(), properties, meterRegistry);
+        source = card("1234567890123456", "1000.00");
+        target = card("6543210987654321", "0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.close();
+    }
+
+    @Test
+    void commit_ShouldApplyValidTransfersAndFailOnlyTheInvalidOnes() {
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(source, target));
+        GroupedTransfer first = transfer(source.getId(), target.getId(), "600.00");
+        GroupedTransfer overdraft = transfer(source.getId(), target.getId(), "600.00");
+        GroupedTransfer unknownCard = transfer(source.getId(), UUID.randomUUID(), "1.00");
+        GroupedTransfer last = transfer(source.getId(), target.getId(), "400.00");
+
+        committer.commit(List.of(first, overdraft, unknownCard, last));
+
+        assertNull(first.result().join());
+        assertNull(last.result().join());
+        assertCause(InsufficientFundsException.class, overdraft.result());
+        assertCause(CardNotFoundException.class, unknownCard.result());
+        assertEquals(Money.parse("0.00"), source.getBalance());
+        assertEquals(Money.parse("1000.00"), target.getBalance());
+        verify(cardEvents).record(events.capture());
+        assertEquals(2, events.getValue().size());
+        verify(cardRepository).findAllByIdForUpdate(lockedIds.capture());
+        assertTrue(lockedIds.getValue().containsAll(List.of(source.getId(), target.getId())));
+        assertEquals(1, meterRegistry.counter("transfer.group.commits").count());
+    }
+
+    @Test
+    void commit_WhenTransactionFails_ShouldFailEveryTransferOfTheBatch() {
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenThrow(new IllegalStateException("connection lost"));
+        GroupedTransfer first = transfer(source.getId(), target.getId(), "1.00");
+        GroupedTransfer second = transfer(source.getId(), target.getId(), "1.00");
+
+        committer.commit(List.of(first, second));
+
+        assertCause(IllegalStateException.class, first.result());
+        assertCause(IllegalStateException.class, second.result());
+        assertEquals(0, meterRegistry.counter("transfer.group.commits").count());
+    }
+
+    @Test
+    void submit_FromManyThreads_ShouldShareCommits() throws Exception {
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(source, target));
+        committer.start();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 400; i++) {
+                results.add(CompletableFuture.supplyAsync(
+                        () -> committer.submit(source.getId(), target.getId(), Money.parse("1.00"), Money.parse("1.00")).join(), callers));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdown();
+        }
+
+        assertEquals(Money.parse("600.00"), source.getBalance());
+        assertEquals(Money.parse("400.00"), target.getBalance());
+        assertEquals(400, meterRegistry.counter("transfer.group.transfers").count());
+        assertTrue(meterRegistry.counter("transfer.group.commits").count() < 400);
+    }
+
+    @Test
+    void submit_AfterClose_ShouldBeRejected() {
+        committer.start();
+        committer.close();
+
+        assertThrows(TransferException.class,
+                () -> committer.submit(source.getId(), target.getId(), Money.parse("1.00"), Money.parse("1.00")));
+    }
+
+    @Test
+    void run_WhenCommitThrowsError_ShouldFailTheBatchAndKeepCommitting() {
+        when(cardRepository.findAllByIdForUpdate(anyCollection()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(List.of(source, target));
+        committer.start();
+
+        CompletableFuture<Void> failed = committer.submit(source.getId(), target.getId(), Money.parse("1.00"), Money.parse("1.00"));
+        assertCause(StackOverflowError.class, failed);
+        committer.transfer(source.getId(), target.getId(), Money.parse("1.00"), Money.parse("1.00"));
+
+        assertEquals(Money.parse("999.00"), source.getBalance());
+    }
+
+    @Test
+    void transfer_WhenNotCommittedInTime_ShouldThrowTransferException() {
+        properties.setTimeout(Duration.ofMillis(50));
+        committer = new TransferGroupCommitter(cardRepository, cardEvents, TransactionOperations.withoutTransaction(), properties, meterRegistry);
+        committer.start();
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return List.of(source, target);
+        });
+
+        TransferException e = assertThrows(TransferException.class,
+                () -> committer.transfer(source.getId(), target.getId(), Money.parse("1.00"), Money.parse("1.00")));
+        assertEquals("Transfer was accepted but not confirmed in time", e.getMessage());
+    }
+
+    @Test
+    void submit_RacingClose_ShouldNeverLeaveATransferWaiting() throws Exception {
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(source, target));
+        committer.start();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        try {
+            List<Future<?>> submitted = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                submitted.add(callers.submit(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        try {
+                            CompletableFuture<Void> result = committer.submit(source.getId(), target.getId(), Money.parse("0.01"), Money.parse("0.01"));
+                            synchronized (results) {
+                                results.add(result);
+                            }
+                        } catch (TransferException rejected) {
+                            return;
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(5);
+            committer.close();
+            for (Future<?> future : submitted) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        synchronized (results) {
+            assertFalse(results.isEmpty());
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).handle((ok, e) -> null).get(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static GroupedTransfer transfer(UUID source, UUID target, String amount) {
+        return new GroupedTransfer(source, target, Money.parse(amount), Money.parse(amount), new CompletableFuture<>());
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, CompletableFuture<Void> result) {
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(expected, e.getCause());
+    }
+
+    private static CardEntity card(String number, String balance) {
+        CardEntity card = new CardEntity();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(number);
+        card.setBalance(Money.parse(balance));
+        return card;
+    }
+}
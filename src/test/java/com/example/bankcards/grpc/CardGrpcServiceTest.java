@@ -0,0 +1,261 @@
+package com.example.bankcards.grpc;
+
+import com.example.bankcards.config.EventJournalProperties;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.requests.BalanceRequest;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.BalanceResponse;
+import com.example.bankcards.dto.responses.TransferResponse;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEvent;
+import com.example.bankcards.events.EventJournal;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
+import com.example.bankcards.grpc.proto.CardsGrpc;
+import com.example.bankcards.grpc.proto.CardsProto;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.mappers.UserMapper;
+import com.example.bankcards.util.money.Money;
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CardGrpcServiceTest {
+
+    private static final String TOKEN = "token";
+
+    @TempDir
+    Path directory;
+
+    private final UserService userService = mock(UserService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    private EventJournal eventJournal;
+    private CardGrpcService service;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EventJournalProperties properties = new EventJournalProperties();
+        properties.setDirectory(directory);
+        eventJournal = new EventJournal(properties, new SimpleMeterRegistry());
+        eventJournal.start();
+        service = new CardGrpcService(userService, eventJournal, Duration.ofMillis(10));
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, new JwtServerInterceptor(jwtService, userDetailsService, userRepository, userMapper)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+        service.close();
+        eventJournal.close();
+    }
+
+    @Test
+    void transfer_ShouldRunAsTheTokenUser() {
+        authenticateAs("USER");
+        TransferResponse response = TransferResponse.builder().sourceLastFourCardDigits("1234").targetLastFourCardDigits("1221")
+                .amount(Money.parse("10.00")).currency(Money.DEFAULT_CURRENCY)
+                .creditedAmount(Money.parse("0.11", Currency.getInstance("USD"))).creditedCurrency(Currency.getInstance("USD")).build();
+        List<String> callers = new ArrayList<>();
+        when(userService.transfer(new TransferRequest("1234", "1221", Money.parse("10.00")))).thenAnswer(invocation -> {
+            callers.add(SecurityContextHolder.getContext().getAuthentication().getName());
+            return response;
+        });
+
+        CardsProto.TransferResponse result = CardsGrpc.newBlockingStub(authenticated()).transfer(transferRequest(1000));
+
+        assertEquals("1234", result.getSource());
+        assertEquals("1221", result.getTarget());
+        assertEquals(money(1000, "RUB"), result.getAmount());
+        assertEquals(money(11, "USD"), result.getCreditedAmount());
+        assertEquals(List.of("user"), callers);
+    }
+
+    @Test
+    void getBalance_ShouldReturnBalancesInMinorUnits() {
+        authenticateAs("USER");
+        when(userService.getBalance(new BalanceRequest(List.of("1234")))).thenReturn(List.of(
+                new BalanceResponse(Money.parse("9104.69"), "1234", Money.DEFAULT_CURRENCY)));
+
+        CardsProto.BalanceResponse result = CardsGrpc.newBlockingStub(authenticated())
+                .getBalance(CardsProto.BalanceRequest.newBuilder().addLastFourCardDigits("1234").build());
+
+        assertEquals(1, result.getBalancesCount());
+        assertEquals("1234", result.getBalances(0).getLastFourCardDigits());
+        assertEquals(money(910469, "RUB"), result.getBalances(0).getBalance());
+    }
+
+    @Test
+    void getBalance_WithUnknownCard_ShouldFailWithNotFound() {
+        authenticateAs("USER");
+        when(userService.getBalance(any())).thenThrow(new CardNotFoundException("Card 9999 not found"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> CardsGrpc.newBlockingStub(authenticated())
+                .getBalance(CardsProto.BalanceRequest.newBuilder().addLastFourCardDigits("9999").build()));
+
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+        assertEquals("Card 9999 not found", e.getStatus().getDescription());
+    }
+
+    @Test
+    void transfer_WithUnknownCurrency_ShouldBeInvalidArgument() {
+        authenticateAs("USER");
+        CardsProto.TransferRequest request = transferRequest(100).toBuilder().setAmount(money(100, "XYZ")).build();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> CardsGrpc.newBlockingStub(authenticated()).transfer(request));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void call_WithoutToken_ShouldBeUnauthenticated() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> CardsGrpc.newBlockingStub(channel).transfer(transferRequest(100)));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, e.getStatus().getCode());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void transferBatch_ShouldReportFailuresWithoutStoppingTheBatch() throws Exception {
+        authenticateAs("USER");
+        TransferResponse response = TransferResponse.builder().sourceLastFourCardDigits("1234").targetLastFourCardDigits("1221")
+                .amount(Money.parse("1.00")).build();
+        when(userService.transfer(any())).thenReturn(response)
+                .thenThrow(new InsufficientFundsException("Insufficient funds on card 1234"))
+                .thenReturn(response);
+        CompletableFuture<CardsProto.TransferBatchReport> result = new CompletableFuture<>();
+
+        StreamObserver<CardsProto.TransferRequest> requests = CardsGrpc.newStub(authenticated()).transferBatch(observer(result));
+        for (int i = 0; i < 3; i++) {
+            requests.onNext(transferRequest(100));
+        }
+        requests.onCompleted();
+
+        CardsProto.TransferBatchReport report = result.get(5, TimeUnit.SECONDS);
+        assertEquals(3, report.getTotal());
+        assertEquals(2, report.getCompleted());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getTransfersCount());
+        assertEquals(1, report.getErrors(0).getIndex());
+        assertEquals("Insufficient funds on card 1234", report.getErrors(0).getMessage());
+    }
+
+    @Test
+    void streamCardEvents_ShouldSendJournalEventsFromSequence() throws Exception {
+        authenticateAs("ADMIN");
+        UUID cardId = UUID.randomUUID();
+        eventJournal.append(CardEvent.statusChanged(cardId, CardStatus.ACTIVE));
+        eventJournal.append(CardEvent.statusChanged(cardId, CardStatus.BLOCKED));
+
+        Context.CancellableContext context = Context.current().withCancellation();
+        Iterator<CardsProto.CardEvent> events = context.call(() -> CardsGrpc.newBlockingStub(authenticated())
+                .streamCardEvents(CardsProto.CardEventsRequest.newBuilder().setFromSequence(2).build()));
+        CardsProto.CardEvent first = events.next();
+        eventJournal.append(CardEvent.cardDeleted(cardId));
+        CardsProto.CardEvent second = events.next();
+        context.cancel(null);
+
+        assertEquals(2, first.getSequence());
+        assertEquals(CardsProto.CardEventType.CARD_STATUS_CHANGED, first.getType());
+        assertEquals(CardsProto.CardStatus.BLOCKED, first.getStatus());
+        assertEquals(cardId.toString(), first.getCardId());
+        assertTrue(first.getOccurredAt().getSeconds() > 0);
+        assertEquals(3, second.getSequence());
+        assertEquals(CardsProto.CardEventType.CARD_DELETED, second.getType());
+    }
+
+    @Test
+    void streamCardEvents_ForUser_ShouldBeDenied() {
+        authenticateAs("USER");
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> CardsGrpc.newBlockingStub(authenticated())
+                .streamCardEvents(CardsProto.CardEventsRequest.newBuilder().setFromSequence(1).build()).hasNext());
+
+        assertEquals(Status.Code.PERMISSION_DENIED, e.getStatus().getCode());
+    }
+
+    private void authenticateAs(String role) {
+        String username = role.toLowerCase();
+        UserDetails userDetails = User.withUsername(username).password("password").authorities(role).build();
+        UserEntity userEntity = new UserEntity();
+        UserDto userDto = new UserDto();
+        when(jwtService.extractUsername(TOKEN)).thenReturn(username);
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(userEntity));
+        when(userMapper.toDto(userEntity)).thenReturn(userDto);
+        when(jwtService.isTokenValid(TOKEN, userDto)).thenReturn(true);
+    }
+
+    private static CardsProto.TransferRequest transferRequest(long minorUnits) {
+        return CardsProto.TransferRequest.newBuilder().setSource("1234").setTarget("1221").setAmount(money(minorUnits, "")).build();
+    }
+
+    private static CardsProto.Money money(long minorUnits, String currency) {
+        return CardsProto.Money.newBuilder().setMinorUnits(minorUnits).setCurrency(currency).build();
+    }
+
+    private Channel authenticated() {
+        Metadata metadata = new Metadata();
+        metadata.put(JwtServerInterceptor.AUTHORIZATION, "Bearer " + TOKEN);
+        return ClientInterceptors.intercept(channel, MetadataUtils.newAttachHeadersInterceptor(metadata));
+    }
+
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
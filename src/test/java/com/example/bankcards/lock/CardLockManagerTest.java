@@ -0,0 +1,95 @@
+package com.example.bankcards.lock;
+
+import com.example.bankcards.config.CardLockProperties;
+import com.example.bankcards.exception.exceptions.CardLockTimeoutException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLockManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CardLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        CardLockProperties properties = new CardLockProperties();
+        properties.setStripes(16);
+        properties.setTimeout(Duration.ofMillis(50));
+        lockManager = new CardLockManager(properties, meterRegistry);
+    }
+
+    @Test
+    void lock_WhenCardIsHeldElsewhere_ShouldTimeOutAndReleaseWhatItTook() throws Exception {
+        String free = keyOnOtherStripeThan("3456");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try (CardLockManager.Held held = lockManager.lock(List.of("3456"))) {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+        assertThrows(CardLockTimeoutException.class, () -> lockManager.lock(List.of(free, "3456")));
+
+        assertEquals(1, meterRegistry.counter("transfer.card.lock.timeouts").count());
+        CompletableFuture.runAsync(() -> lockManager.lock(List.of(free)).close()).get(1, TimeUnit.SECONDS);
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lock_OppositeDirectionsFromManyThreads_ShouldNotDeadlock() throws Exception {
+        String other = keyOnOtherStripeThan("3456");
+        int[] counter = new int[1];
+        List<CompletableFuture<Void>> transfers = java.util.stream.IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        List<String> cards = (i + j) % 2 == 0 ? List.of("3456", other) : List.of(other, "3456");
+                        try (CardLockManager.Held held = lockManager.lock(cards)) {
+                            counter[0]++;
+                        }
+                    }
+                }))
+                .toList();
+
+        CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(4000, counter[0]);
+    }
+
+    @Test
+    void lock_BothCardsOnOneStripe_ShouldTakeItOnceAndRecordWaitForThatStripe() {
+        try (CardLockManager.Held held = lockManager.lock(List.of("3456", "3456"))) {
+            assertNotNull(held);
+        }
+
+        Timer waitTime = meterRegistry.get("transfer.card.lock.wait")
+                .tag("stripe", String.valueOf(lockManager.stripe("3456")))
+                .timer();
+        assertEquals(1, waitTime.count());
+        CompletableFuture.runAsync(() -> lockManager.lock(List.of("3456")).close()).join();
+    }
+
+    private String keyOnOtherStripeThan(String key) {
+        for (int i = 0; ; i++) {
+            String candidate = String.format("%04d", i);
+            if (lockManager.stripe(candidate) != lockManager.stripe(key)) {
+                return candidate;
+            }
+        }
+    }
+}
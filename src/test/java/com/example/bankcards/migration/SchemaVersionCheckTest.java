@@ -0,0 +1,84 @@
+package com.example.bankcards.migration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaVersionCheckTest {
+
+    private static final String QUERY = "SELECT id, author FROM databasechangelog";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void check_WithEveryChangeSetApplied_ShouldPassWithOneQuery() {
+        applied(IntStream.rangeClosed(1, 11));
+
+        check().afterPropertiesSet();
+
+        verify(jdbcTemplate).query(eq(QUERY), anyRowMapper());
+    }
+
+    @Test
+    void check_WithoutDemoData_ShouldPass() {
+        applied(IntStream.rangeClosed(1, 11).filter(id -> id != 2));
+
+        assertDoesNotThrow(() -> check().afterPropertiesSet());
+    }
+
+    @Test
+    void check_WithChangeSetsFromNewerRelease_ShouldPass() {
+        applied(IntStream.rangeClosed(1, 13));
+
+        assertDoesNotThrow(() -> check().afterPropertiesSet());
+    }
+
+    @Test
+    void check_WithMissingChangeSet_ShouldFailNamingIt() {
+        applied(IntStream.rangeClosed(1, 10));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> check().afterPropertiesSet());
+
+        assertTrue(exception.getMessage().contains("[11::zxcjabka]"), exception.getMessage());
+    }
+
+    @Test
+    void check_WithoutChangeLogTable_ShouldFail() {
+        when(jdbcTemplate.query(eq(QUERY), anyRowMapper()))
+                .thenThrow(new BadSqlGrammarException("schema", QUERY, new SQLException("relation does not exist")));
+
+        assertThrows(IllegalStateException.class, () -> check().afterPropertiesSet());
+    }
+
+    private static RowMapper<SchemaVersionCheck.ChangeSetId> anyRowMapper() {
+        return any();
+    }
+
+    private SchemaVersionCheck check() {
+        return new SchemaVersionCheck(jdbcTemplate, new ClassPathResource("db/migration/db.changelog-master.yaml"), "databasechangelog");
+    }
+
+    private void applied(IntStream ids) {
+        List<SchemaVersionCheck.ChangeSetId> rows = new ArrayList<>();
+        ids.forEach(id -> rows.add(new SchemaVersionCheck.ChangeSetId(String.valueOf(id), "zxcjabka", false)));
+        when(jdbcTemplate.query(eq(QUERY), anyRowMapper())).thenReturn(rows);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private final List<List<OutboxMessage>> published = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, published::add, TransactionOperations.withoutTransaction(),
+                2, 10, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void relay_ShouldPublishAndDeleteBatchesUntilOutboxIsEmpty() {
+        OutboxMessage first = message(1);
+        OutboxMessage second = message(2);
+        OutboxMessage third = message(3);
+        when(outboxRepository.claim(2)).thenReturn(List.of(first, second)).thenReturn(List.of(third));
+        when(outboxRepository.oldestCreatedAt()).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        assertEquals(List.of(List.of(first, second), List.of(third)), published);
+        verify(outboxRepository).delete(List.of(1L, 2L));
+        verify(outboxRepository).delete(List.of(3L));
+        assertEquals(3, meterRegistry.counter("outbox.published").count());
+        assertEquals(0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @Test
+    void relay_SinkFailure_ShouldKeepMessagesAndCountFailure() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, messages -> {
+            throw new IllegalStateException("sink down");
+        }, TransactionOperations.withoutTransaction(), 2, 10, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(outboxRepository.claim(2)).thenReturn(List.of(message(1)));
+        when(outboxRepository.oldestCreatedAt()).thenReturn(Optional.of(NOW.minusSeconds(30)));
+
+        relay.relay();
+
+        verify(outboxRepository, never()).delete(anyCollection());
+        assertEquals(1, meterRegistry.counter("outbox.publish.failures").count());
+        assertEquals(30, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @Test
+    void relay_EmptyOutbox_ShouldNotPublish() {
+        when(outboxRepository.claim(2)).thenReturn(List.of());
+        when(outboxRepository.oldestCreatedAt()).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        assertTrue(published.isEmpty());
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void relay_LargeBacklog_ShouldStopAfterMaxBatchesPerRun() {
+        when(outboxRepository.claim(2)).thenAnswer(invocation -> List.of(message(1), message(2)));
+        when(outboxRepository.oldestCreatedAt()).thenReturn(Optional.of(NOW));
+
+        relay.relay();
+
+        assertEquals(10, published.size());
+    }
+
+    @Test
+    void toJson_ShouldEmbedPayloadUnchanged() {
+        OutboxMessage message = new OutboxMessage(7, "TRANSFER", UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                "{\"amount\":1.50}", NOW);
+
+        assertEquals("{\"id\":7,\"type\":\"TRANSFER\",\"aggregate_id\":\"11111111-1111-1111-1111-111111111111\","
+                + "\"created_at\":\"2026-01-01T12:00:00Z\",\"payload\":{\"amount\":1.50}}", message.toJson());
+    }
+
+    private static OutboxMessage message(long id) {
+        return new OutboxMessage(id, "CARD_STATUS_CHANGED", UUID.randomUUID(), "{}", NOW);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.bankcards.outbox;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxSinkTest {
+
+    private static final OutboxMessage FIRST = new OutboxMessage(1, "CARD_DELETED", UUID.randomUUID(), "{\"type\":\"CARD_DELETED\"}", Instant.EPOCH);
+    private static final OutboxMessage SECOND = new OutboxMessage(2, "CARD_DELETED", UUID.randomUUID(), "{\"type\":\"CARD_DELETED\"}", Instant.EPOCH);
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void fileSink_ShouldAppendOneLinePerMessage() throws IOException {
+        Path file = directory.resolve("outbox").resolve("events.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(file);
+
+        sink.publish(List.of(FIRST));
+        sink.publish(List.of(SECOND));
+
+        assertEquals(List.of(FIRST.toJson(), SECOND.toJson()), Files.readAllLines(file));
+    }
+
+    @Test
+    void httpSink_ShouldPostBatchAsNdjson() throws IOException {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        List<String> contentTypes = new CopyOnWriteArrayList<>();
+        URI url = startServer(200, bodies, contentTypes);
+
+        new HttpOutboxSink(url, Duration.ofSeconds(2)).publish(List.of(FIRST, SECOND));
+
+        assertEquals(List.of(FIRST.toJson() + "\n" + SECOND.toJson() + "\n"), bodies);
+        assertEquals(List.of("application/x-ndjson"), contentTypes);
+    }
+
+    @Test
+    void httpSink_ErrorResponse_ShouldFailBatch() throws IOException {
+        URI url = startServer(503, new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>());
+        HttpOutboxSink sink = new HttpOutboxSink(url, Duration.ofSeconds(2));
+
+        assertThrows(RestClientResponseException.class, () -> sink.publish(List.of(FIRST)));
+    }
+
+    private URI startServer(int status, List<String> bodies, List<String> contentTypes) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/events");
+    }
+}
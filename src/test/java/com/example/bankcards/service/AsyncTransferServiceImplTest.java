@@ -0,0 +1,246 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferQueueProperties;
+import com.example.bankcards.dto.requests.TransferRequest;
+import com.example.bankcards.dto.responses.TransferStatusResponse;
+import com.example.bankcards.engine.TransferEngine;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.exception.exceptions.TransferException;
+import com.example.bankcards.exception.exceptions.TransferNotFoundException;
+import com.example.bankcards.exception.exceptions.TransferQueueFullException;
+import com.example.bankcards.queue.QueuedTransfer;
+import com.example.bankcards.queue.TransferOutcome;
+import com.example.bankcards.queue.TransferQueuedEvent;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferQueueRepository;
+import com.example.bankcards.service.impl.AsyncTransferServiceImpl;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.money.FxRateTable;
+import com.example.bankcards.util.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceImplTest {
+
+    private static final String SOURCE_NUMBER = "1234567890123456";
+    private static final String TARGET_NUMBER = "6543210987654321";
+
+    @Mock
+    private TransferQueueRepository transferQueueRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardLookup cardLookup;
+
+    @Mock
+    private FxRateTable fxRateTable;
+
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<TransferEngine> transferEngine;
+
+    @Captor
+    private ArgumentCaptor<List<TransferOutcome>> outcomes;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncTransferService asyncTransferService;
+    private UserEntity user;
+    private CardEntity source;
+    private CardEntity target;
+
+    @BeforeEach
+    void setUp() {
+        asyncTransferService = new AsyncTransferServiceImpl(transferQueueRepository, cardRepository, cardLookup, fxRateTable,
+                cardEvents, eventPublisher, transferEngine, new TransferQueueProperties(), meterRegistry,
+                TransactionOperations.withoutTransaction());
+
+        user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testUser");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        source = card(SOURCE_NUMBER, "1000.00");
+        target = card(TARGET_NUMBER, "500.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void submit_ShouldQueueTransferAndPublishEvent() {
+        when(cardLookup.getOwnCards(user.getId(), List.of("3456", "4321"))).thenReturn(Map.of("3456", source, "4321", target));
+        when(transferQueueRepository.enqueue(any(QueuedTransfer.class), eq(10_000))).thenReturn(true);
+
+        TransferStatusResponse response = asyncTransferService.submit(request("3456", "4321", "100.00"));
+
+        ArgumentCaptor<QueuedTransfer> queued = ArgumentCaptor.forClass(QueuedTransfer.class);
+        verify(transferQueueRepository).enqueue(queued.capture(), eq(10_000));
+        assertEquals(user.getId(), queued.getValue().ownerId());
+        assertEquals(source.getId(), queued.getValue().sourceCardId());
+        assertEquals(Money.parse("100.00"), queued.getValue().amount());
+        verify(eventPublisher).publishEvent(new TransferQueuedEvent(queued.getValue().id()));
+        assertEquals(queued.getValue().id(), response.getTransferId());
+        assertEquals(TransferStatus.PENDING, response.getStatus());
+        assertEquals("************3456", response.getSourceCardNumber());
+        assertEquals(1, meterRegistry.counter("transfer.queue.enqueued").count());
+        verifyNoInteractions(cardRepository, cardEvents);
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldThrowException() {
+        when(cardLookup.getOwnCards(eq(user.getId()), any())).thenReturn(Map.of("3456", source, "4321", target));
+        when(transferQueueRepository.enqueue(any(QueuedTransfer.class), anyInt())).thenReturn(false);
+
+        assertThrows(TransferQueueFullException.class, () -> asyncTransferService.submit(request("3456", "4321", "100.00")));
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1, meterRegistry.counter("transfer.queue.rejected").count());
+    }
+
+    @Test
+    void submit_WithNonPositiveAmount_ShouldThrowException() {
+        assertThrows(TransferException.class, () -> asyncTransferService.submit(request("3456", "4321", "0.00")));
+
+        verifyNoInteractions(cardLookup, transferQueueRepository);
+    }
+
+    @Test
+    void getTransfer_OfAnotherUser_ShouldThrowNotFound() {
+        UUID transferId = UUID.randomUUID();
+        when(transferQueueRepository.find(transferId, user.getId())).thenReturn(Optional.empty());
+
+        assertThrows(TransferNotFoundException.class, () -> asyncTransferService.getTransfer(transferId));
+    }
+
+    @Test
+    void processPending_ShouldApplyTransfersInOrderAndFailOverdrafts() {
+        QueuedTransfer first = queued("700.00");
+        QueuedTransfer second = queued("400.00");
+        when(transferQueueRepository.claim(100)).thenReturn(List.of(first, second));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(source, target));
+        when(fxRateTable.convert(any(Money.class), eq(Money.DEFAULT_CURRENCY))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(2, asyncTransferService.processPending(100));
+
+        assertEquals(Money.parse("300.00"), source.getBalance());
+        assertEquals(Money.parse("1200.00"), target.getBalance());
+        verify(cardEvents).transfer(source, target, Money.parse("700.00"), Money.parse("700.00"));
+        verify(transferQueueRepository).complete(outcomes.capture());
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.FAILED), outcomes.getValue().stream().map(TransferOutcome::status).toList());
+        assertEquals("Insufficient funds on card ************3456", outcomes.getValue().get(1).failureReason());
+        assertEquals(1, meterRegistry.counter("transfer.queue.processed", "outcome", "failed").count());
+    }
+
+    @Test
+    void processPending_WithDeletedCard_ShouldFailTransfer() {
+        QueuedTransfer transfer = queued("100.00");
+        when(transferQueueRepository.claim(100)).thenReturn(List.of(transfer));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(source));
+
+        asyncTransferService.processPending(100);
+
+        verify(transferQueueRepository).complete(List.of(TransferOutcome.failed(transfer, "Card not found")));
+        assertEquals(Money.parse("1000.00"), source.getBalance());
+    }
+
+    @Test
+    void processPending_WithEmptyQueue_ShouldNotLockCards() {
+        when(transferQueueRepository.claim(100)).thenReturn(List.of());
+
+        assertEquals(0, asyncTransferService.processPending(100));
+
+        verifyNoInteractions(cardRepository);
+        verify(transferQueueRepository, never()).complete(any());
+    }
+
+    @Test
+    void processPendingIndividually_ShouldFailOnlyTheTransferThatCannotBeApplied() {
+        QueuedTransfer poison = queued("100.00");
+        QueuedTransfer next = queued("200.00");
+        when(transferQueueRepository.pending(100)).thenReturn(List.of(poison.id(), next.id()));
+        when(transferQueueRepository.claim(poison.id())).thenReturn(Optional.of(poison));
+        when(transferQueueRepository.claim(next.id())).thenReturn(Optional.of(next));
+        when(cardRepository.findAllByIdForUpdate(anyCollection()))
+                .thenThrow(new IllegalStateException("corrupt row"))
+                .thenReturn(List.of(source, target));
+        when(fxRateTable.convert(any(Money.class), eq(Money.DEFAULT_CURRENCY))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(2, asyncTransferService.processPendingIndividually(100));
+
+        verify(transferQueueRepository).fail(poison.id(), "Transfer could not be applied: corrupt row");
+        verify(transferQueueRepository).complete(List.of(TransferOutcome.completed(next, Money.parse("200.00"), Money.parse("200.00"))));
+        verify(transferQueueRepository, never()).fail(eq(next.id()), any());
+        assertEquals(1, meterRegistry.counter("transfer.queue.processed", "outcome", "failed").count());
+    }
+
+    @Test
+    void processPendingIndividually_WhenClaimedElsewhere_ShouldSkipTransfer() {
+        UUID id = UUID.randomUUID();
+        when(transferQueueRepository.pending(100)).thenReturn(List.of(id));
+        when(transferQueueRepository.claim(id)).thenReturn(Optional.empty());
+
+        assertEquals(0, asyncTransferService.processPendingIndividually(100));
+
+        verifyNoInteractions(cardRepository);
+        verify(transferQueueRepository, never()).fail(any(), any());
+    }
+
+    private QueuedTransfer queued(String amount) {
+        return new QueuedTransfer(UUID.randomUUID(), user.getId(), source.getId(), target.getId(), Money.parse(amount), Instant.now());
+    }
+
+    private CardEntity card(String number, String balance) {
+        CardEntity card = new CardEntity();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(number);
+        card.setCardLastFourDigits(number.substring(12));
+        card.setUserEntity(user);
+        card.setBalance(Money.parse(balance));
+        return card;
+    }
+
+    private static TransferRequest request(String source, String target, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(source);
+        request.setTargetLastFourCardDigits(target);
+        request.setAmount(Money.parse(amount));
+        return request;
+    }
+}
@@ -6,14 +6,17 @@ import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.enums.BlockRequestStatus;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEventRecorder;
 import com.example.bankcards.exception.exceptions.CardBlockingRequestAlreadyExists;
 import com.example.bankcards.exception.exceptions.CardBlockingRequestNotFoundException;
 import com.example.bankcards.exception.exceptions.CardNotFoundException;
 import com.example.bankcards.exception.exceptions.UserNotFoundException;
 import com.example.bankcards.repository.CardBlockingRequestRepository;
-import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ListingVersionRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.impl.CardBlockingServiceImpl;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.Versioned;
 import com.example.bankcards.util.mappers.CardBlockingRequestMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,7 +43,7 @@ import static org.mockito.Mockito.*;
 class CardBlockingServiceImplTest {
 
     @Mock
-    private CardRepository cardRepository;
+    private CardLookup cardLookup;
 
     @Mock
     private CardBlockingRequestRepository cardBlockingRequestRepository;
@@ -51,6 +54,12 @@ class CardBlockingServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    @Mock
+    private ListingVersionRepository listingVersions;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -102,9 +111,10 @@ class CardBlockingServiceImplTest {
 
     @Test
     void createBlockRequest_Success() {
-        when(cardBlockingRequestRepository.existsByCard_CardLastFourDigits(CARD_LAST_FOUR_DIGITS)).thenReturn(false);
-        when(cardRepository.findByCardLastFourDigits(CARD_LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
-        when(cardBlockingRequestRepository.saveAndFlush(any(CardBlockingRequest.class))).thenReturn(cardBlockingRequest);
+        signIn(userEntity);
+        when(cardLookup.getOwnCard(USER_ID, CARD_LAST_FOUR_DIGITS)).thenReturn(cardEntity);
+        when(cardBlockingRequestRepository.existsByCard_Id(cardEntity.getId())).thenReturn(false);
+        when(cardBlockingRequestRepository.save(any(CardBlockingRequest.class))).thenReturn(cardBlockingRequest);
         when(cardBlockingRequestMapper.toDto(cardBlockingRequest)).thenReturn(cardBlockingRequestDto);
 
         CardBlockingRequestDto result = cardBlockingService.createBlockRequest(CARD_LAST_FOUR_DIGITS);
@@ -112,28 +122,32 @@ class CardBlockingServiceImplTest {
         assertNotNull(result);
         assertEquals(REQUEST_ID, result.getId());
         assertEquals(BlockRequestStatus.PENDING, result.getStatus());
-        verify(cardBlockingRequestRepository).saveAndFlush(any(CardBlockingRequest.class));
+        verify(cardBlockingRequestRepository).save(any(CardBlockingRequest.class));
+        verify(listingVersions).blockRequestsChanged();
     }
 
     @Test
     void createBlockRequest_RequestAlreadyExists() {
-        when(cardBlockingRequestRepository.existsByCard_CardLastFourDigits(CARD_LAST_FOUR_DIGITS)).thenReturn(true);
+        signIn(userEntity);
+        when(cardLookup.getOwnCard(USER_ID, CARD_LAST_FOUR_DIGITS)).thenReturn(cardEntity);
+        when(cardBlockingRequestRepository.existsByCard_Id(cardEntity.getId())).thenReturn(true);
 
         assertThrows(CardBlockingRequestAlreadyExists.class, () ->
                 cardBlockingService.createBlockRequest(CARD_LAST_FOUR_DIGITS)
         );
-        verify(cardBlockingRequestRepository, never()).saveAndFlush(any(CardBlockingRequest.class));
+        verify(cardBlockingRequestRepository, never()).save(any(CardBlockingRequest.class));
+        verify(listingVersions, never()).blockRequestsChanged();
     }
 
     @Test
     void createBlockRequest_CardNotFound() {
-        when(cardBlockingRequestRepository.existsByCard_CardLastFourDigits(CARD_LAST_FOUR_DIGITS)).thenReturn(false);
-        when(cardRepository.findByCardLastFourDigits(CARD_LAST_FOUR_DIGITS)).thenReturn(Optional.empty());
+        signIn(userEntity);
+        when(cardLookup.getOwnCard(USER_ID, CARD_LAST_FOUR_DIGITS)).thenThrow(new CardNotFoundException("Card not found"));
 
         assertThrows(CardNotFoundException.class, () ->
                 cardBlockingService.createBlockRequest(CARD_LAST_FOUR_DIGITS)
         );
-        verify(cardBlockingRequestRepository, never()).saveAndFlush(any(CardBlockingRequest.class));
+        verify(cardBlockingRequestRepository, never()).save(any(CardBlockingRequest.class));
     }
 
     @Test
@@ -142,9 +156,12 @@ class CardBlockingServiceImplTest {
         Page<CardBlockingRequest> page = new PageImpl<>(Collections.singletonList(cardBlockingRequest));
         when(cardBlockingRequestRepository.findAll(pageable)).thenReturn(page);
         when(cardBlockingRequestMapper.toDto(cardBlockingRequest)).thenReturn(cardBlockingRequestDto);
+        when(listingVersions.blockRequestsVersion()).thenReturn("42");
 
-        Page<CardBlockingRequestDto> result = cardBlockingService.getAllRequests(pageable);
+        Versioned<Page<CardBlockingRequestDto>> listing = cardBlockingService.getAllRequests(pageable, version -> false);
+        Page<CardBlockingRequestDto> result = listing.body();
 
+        assertEquals("42", listing.version());
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals(cardBlockingRequestDto, result.getContent().get(0));
@@ -156,16 +173,17 @@ class CardBlockingServiceImplTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(adminEntity);
         when(userRepository.findById(ADMIN_ID)).thenReturn(Optional.of(adminEntity));
-        when(cardBlockingRequestRepository.saveAndFlush(cardBlockingRequest)).thenReturn(cardBlockingRequest);
         when(cardBlockingRequestMapper.toDto(cardBlockingRequest)).thenReturn(cardBlockingRequestDto);
 
         CardBlockingRequestDto result = cardBlockingService.resolveRequest(REQUEST_ID);
 
         assertNotNull(result);
-        verify(cardBlockingRequestRepository).saveAndFlush(cardBlockingRequest);
+        verify(cardBlockingRequestRepository, never()).saveAndFlush(any(CardBlockingRequest.class));
         assertEquals(BlockRequestStatus.APPROVED, cardBlockingRequest.getStatus());
         assertEquals(CardStatus.BLOCKED, cardBlockingRequest.getCard().getStatus());
         assertEquals(adminEntity, cardBlockingRequest.getAdmin());
+        verify(cardEvents).blockRequestResolved(cardBlockingRequest);
+        verify(listingVersions).blockRequestsChanged();
     }
 
     @Test
@@ -175,7 +193,7 @@ class CardBlockingServiceImplTest {
         assertThrows(CardBlockingRequestNotFoundException.class, () ->
                 cardBlockingService.resolveRequest(REQUEST_ID)
         );
-        verify(cardBlockingRequestRepository, never()).saveAndFlush(any(CardBlockingRequest.class));
+        verify(cardBlockingRequestRepository, never()).save(any(CardBlockingRequest.class));
     }
 
     @Test
@@ -188,6 +206,11 @@ class CardBlockingServiceImplTest {
         assertThrows(UserNotFoundException.class, () ->
                 cardBlockingService.resolveRequest(REQUEST_ID)
         );
-        verify(cardBlockingRequestRepository, never()).saveAndFlush(any(CardBlockingRequest.class));
+        verify(cardBlockingRequestRepository, never()).save(any(CardBlockingRequest.class));
+    }
+
+    private void signIn(UserEntity user) {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(user);
     }
 }
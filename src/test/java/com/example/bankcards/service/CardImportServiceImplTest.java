@@ -0,0 +1,195 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardImportFormat;
+import com.example.bankcards.dto.responses.CardImportReport;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.events.CardEventRecorder;
+import com.example.bankcards.repository.CardBulkRepository;
+import com.example.bankcards.service.impl.CardImportServiceImpl;
+import com.example.bankcards.util.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardImportServiceImplTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+    private static final UUID UNKNOWN_OWNER_ID = UUID.randomUUID();
+
+    @Mock
+    private CardBulkRepository cardBulkRepository;
+
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    private CardImportServiceImpl cardImportService;
+
+    @BeforeEach
+    void setUp() {
+        cardImportService = new CardImportServiceImpl(cardBulkRepository, cardEvents,
+                TransactionOperations.withoutTransaction(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                2, 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void importCards_Csv_ShouldInsertValidRowsInChunks() throws Exception {
+        when(cardBulkRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(OWNER_ID));
+        when(cardBulkRepository.findExistingCardNumbers(anyCollection())).thenReturn(Set.of());
+        when(cardBulkRepository.insertCards(any())).thenAnswer(invocation ->
+                ((List<CardCreationRequest>) invocation.getArgument(0)).stream().map(CardImportServiceImplTest::inserted).toList());
+
+        CardImportReport report = cardImportService.importCards(input(
+                "card_number,owner_id,expires_in,status,start_balance",
+                "4000000000000001," + OWNER_ID + ",2030-01-01,ACTIVE,10.50",
+                "4000000000000002," + OWNER_ID + ",2030-01-01,ACTIVE,",
+                "4000000000000003," + OWNER_ID + ",2030-01-01,BLOCKED"
+        ), CardImportFormat.CSV);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        ArgumentCaptor<List<CardCreationRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(cardBulkRepository, times(2)).insertCards(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(Money.parse("10.50"), captor.getAllValues().get(0).get(0).getStartBalance());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        ArgumentCaptor<List<CardEntity>> created = ArgumentCaptor.forClass(List.class);
+        verify(cardEvents, times(2)).cardsCreated(created.capture());
+        assertEquals(List.of("4000000000000001", "4000000000000002", "4000000000000003"),
+                created.getAllValues().stream().flatMap(List::stream).map(CardEntity::getCardNumber).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void importCards_ShouldKeepStartBalanceDigitsOfThreeDigitCurrencies() throws Exception {
+        when(cardBulkRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(OWNER_ID));
+        when(cardBulkRepository.findExistingCardNumbers(anyCollection())).thenReturn(Set.of());
+        when(cardBulkRepository.insertCards(any())).thenAnswer(invocation ->
+                ((List<CardCreationRequest>) invocation.getArgument(0)).stream().map(CardImportServiceImplTest::inserted).toList());
+
+        CardImportReport csv = cardImportService.importCards(input(
+                "4000000000000001," + OWNER_ID + ",2030-01-01,ACTIVE,1.234,KWD"
+        ), CardImportFormat.CSV);
+        CardImportReport ndjson = cardImportService.importCards(input(
+                String.format("{\"card_number\":\"4000000000000002\",\"owner_id\":\"%s\",\"expires_in\":\"2030-01-01\",\"status\":\"ACTIVE\","
+                        + "\"start_balance\":1.234,\"currency\":\"BHD\"}", OWNER_ID)
+        ), CardImportFormat.NDJSON);
+
+        assertEquals(0, csv.getFailed());
+        assertEquals(0, ndjson.getFailed());
+        ArgumentCaptor<List<CardCreationRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(cardBulkRepository, times(2)).insertCards(captor.capture());
+        assertEquals(Money.ofMinor(1_234, Currency.getInstance("KWD")), captor.getAllValues().get(0).get(0).getStartBalance());
+        assertEquals(Money.ofMinor(1_234, Currency.getInstance("BHD")), captor.getAllValues().get(1).get(0).getStartBalance());
+    }
+
+    @Test
+    void importCards_Csv_ShouldReportInvalidRowsWithLineNumbers() throws Exception {
+        CardImportReport report = cardImportService.importCards(input(
+                "4000000000000001,not-a-uuid,2030-01-01,ACTIVE",
+                "4000000000000002," + OWNER_ID + ",2030-13-01,ACTIVE",
+                "123," + OWNER_ID + ",2030-01-01,ACTIVE",
+                "4000000000000004"
+        ), CardImportFormat.CSV);
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(0, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(1L, 2L, 3L, 4L), report.getErrors().stream().map(e -> e.getLine()).toList());
+        assertTrue(report.getErrors().get(2).getMessage().startsWith("cardNumber"));
+        verifyNoInteractions(cardBulkRepository);
+    }
+
+    @Test
+    void importCards_Ndjson_ShouldRejectDuplicatesUnknownOwnersAndExistingCards() throws Exception {
+        when(cardBulkRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(OWNER_ID));
+        when(cardBulkRepository.findExistingCardNumbers(anyCollection())).thenReturn(Set.of("4000000000000002"));
+        when(cardBulkRepository.insertCards(any())).thenReturn(List.of());
+        CardImportServiceImpl service = new CardImportServiceImpl(cardBulkRepository, cardEvents,
+                TransactionOperations.withoutTransaction(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                100, 10);
+
+        CardImportReport report = service.importCards(input(
+                json("4000000000000001", OWNER_ID),
+                json("4000000000000001", OWNER_ID),
+                json("4000000000000002", OWNER_ID),
+                json("4000000000000003", UNKNOWN_OWNER_ID)
+        ), CardImportFormat.NDJSON);
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(0, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals("Duplicate card ************0001 in import", report.getErrors().get(0).getMessage());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().stream().anyMatch(e -> e.getLine() == 3
+                && e.getMessage().equals("Card ************0002 already exists")));
+        assertTrue(report.getErrors().stream().anyMatch(e -> e.getLine() == 4
+                && e.getMessage().equals(String.format("User with id %s not found", UNKNOWN_OWNER_ID))));
+        assertTrue(report.getErrors().stream().anyMatch(e -> e.getLine() == 1
+                && e.getMessage().equals("Card ************0001 already exists")));
+    }
+
+    @Test
+    void importCards_ShouldTruncateErrors() throws Exception {
+        CardImportServiceImpl service = new CardImportServiceImpl(cardBulkRepository, cardEvents,
+                TransactionOperations.withoutTransaction(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                2, 1);
+
+        CardImportReport report = service.importCards(input("broken", "broken"), CardImportFormat.NDJSON);
+
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    private static CardEntity inserted(CardCreationRequest request) {
+        UserEntity owner = new UserEntity();
+        owner.setId(request.getOwnerId());
+        CardEntity card = new CardEntity();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(request.getCardNumber());
+        card.setUserEntity(owner);
+        card.setStatus(request.getStatus());
+        card.setBalance(request.getStartBalance());
+        return card;
+    }
+
+    private InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String json(String cardNumber, UUID ownerId) {
+        return String.format("{\"card_number\":\"%s\",\"owner_id\":\"%s\",\"expires_in\":\"2030-01-01\",\"status\":\"ACTIVE\"}",
+                cardNumber, ownerId);
+    }
+}
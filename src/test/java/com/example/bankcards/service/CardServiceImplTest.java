@@ -2,29 +2,41 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.requests.CardCreationRequest;
+import com.example.bankcards.dto.requests.CardStatusUpdateRequest;
+import com.example.bankcards.dto.responses.CardStatusUpdateResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.events.CardEventRecorder;
 import com.example.bankcards.exception.exceptions.CardAlreadyExistsException;
 import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.repository.CardBalanceStripeRepository;
+import com.example.bankcards.repository.CardBulkRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.util.CardLookup;
 import com.example.bankcards.util.mappers.CardMapper;
+import com.example.bankcards.util.money.Money;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +48,18 @@ class CardServiceImplTest {
     @Mock
     private CardMapper cardMapper;
 
+    @Mock
+    private CardBulkRepository cardBulkRepository;
+
+    @Mock
+    private CardLookup cardLookup;
+
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    @Mock
+    private CardBalanceStripeRepository cardBalanceStripes;
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -73,7 +97,6 @@ class CardServiceImplTest {
 
     @Test
     void createCard_Success() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.empty());
         when(cardMapper.toEntity(cardCreationRequest)).thenReturn(cardEntity);
         when(cardRepository.saveAndFlush(cardEntity)).thenReturn(cardEntity);
         when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
@@ -85,58 +108,89 @@ class CardServiceImplTest {
         assertEquals(LAST_FOUR_DIGITS, result.getLastFourCardDigits());
         assertEquals(CardStatus.ACTIVE, result.getStatus());
         verify(cardRepository).saveAndFlush(cardEntity);
+        verify(cardEvents).cardCreated(cardEntity);
     }
 
     @Test
     void createCard_CardAlreadyExists() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
+        when(cardMapper.toEntity(cardCreationRequest)).thenReturn(cardEntity);
+        when(cardRepository.saveAndFlush(cardEntity)).thenThrow(constraintViolation("cards_card_number_key"));
 
-        assertThrows(CardAlreadyExistsException.class, () ->
+        CardAlreadyExistsException exception = assertThrows(CardAlreadyExistsException.class, () ->
                 cardService.createCard(cardCreationRequest)
         );
-        verify(cardRepository, never()).saveAndFlush(any(CardEntity.class));
+        assertEquals("Card ************" + LAST_FOUR_DIGITS + " already exists", exception.getMessage());
+        verify(cardMapper, never()).toDto(any(CardEntity.class));
+        verify(cardEvents, never()).cardCreated(any(CardEntity.class));
+    }
+
+    @Test
+    void createCard_CardTokenAlreadyExists() {
+        when(cardMapper.toEntity(cardCreationRequest)).thenReturn(cardEntity);
+        when(cardRepository.saveAndFlush(cardEntity)).thenThrow(constraintViolation("uk_cards_card_token"));
+
+        assertThrows(CardAlreadyExistsException.class, () -> cardService.createCard(cardCreationRequest));
+    }
+
+    @Test
+    void createCard_OtherConstraintViolation_ShouldBeRethrown() {
+        DataIntegrityViolationException violation = constraintViolation("fk_card_owner");
+        when(cardMapper.toEntity(cardCreationRequest)).thenReturn(cardEntity);
+        when(cardRepository.saveAndFlush(cardEntity)).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> cardService.createCard(cardCreationRequest)));
+        verify(cardEvents, never()).cardCreated(any(CardEntity.class));
+    }
+
+    @Test
+    void createCard_ViolationWithoutConstraintName_ShouldBeRethrown() {
+        when(cardMapper.toEntity(cardCreationRequest)).thenReturn(cardEntity);
+        when(cardRepository.saveAndFlush(cardEntity)).thenThrow(new DataIntegrityViolationException("not-null"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> cardService.createCard(cardCreationRequest));
     }
 
     @Test
     void updateCard_Activate() {
         cardEntity.setStatus(CardStatus.BLOCKED);
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
-        when(cardRepository.saveAndFlush(cardEntity)).thenReturn(cardEntity);
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
         when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
 
         cardService.updateCard(LAST_FOUR_DIGITS, "activate");
 
         assertEquals(CardStatus.ACTIVE, cardEntity.getStatus());
-        verify(cardRepository).saveAndFlush(cardEntity);
+        verify(cardRepository, never()).saveAndFlush(any(CardEntity.class));
+        verify(cardRepository, never()).save(any(CardEntity.class));
+        verify(cardEvents).statusChanged(cardEntity);
     }
 
     @Test
     void updateCard_Deactivate() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
-        when(cardRepository.saveAndFlush(cardEntity)).thenReturn(cardEntity);
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
         when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
 
         CardDto result = cardService.updateCard(LAST_FOUR_DIGITS, "deactivate");
 
         assertEquals(CardStatus.BLOCKED, cardEntity.getStatus());
-        verify(cardRepository).saveAndFlush(cardEntity);
+        verify(cardRepository, never()).saveAndFlush(any(CardEntity.class));
+        verify(cardRepository, never()).save(any(CardEntity.class));
     }
 
     @Test
     void updateCard_Expire_Success() {
         cardEntity.setExpiryDate(LocalDate.now().minusDays(1));
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
-        when(cardRepository.saveAndFlush(cardEntity)).thenReturn(cardEntity);
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
         when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
         cardService.updateCard(LAST_FOUR_DIGITS, "expired");
 
         assertEquals(CardStatus.EXPIRED, cardEntity.getStatus());
-        verify(cardRepository).saveAndFlush(cardEntity);
+        verify(cardRepository, never()).saveAndFlush(any(CardEntity.class));
+        verify(cardRepository, never()).save(any(CardEntity.class));
     }
 
     @Test
     void updateCard_Expire_CardNotExpired() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
 
         assertThrows(IllegalArgumentException.class, () ->
                 cardService.updateCard(LAST_FOUR_DIGITS, "expired")
@@ -146,7 +200,7 @@ class CardServiceImplTest {
 
     @Test
     void updateCard_InvalidAction() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
 
         assertThrows(IllegalArgumentException.class, () ->
                 cardService.updateCard(LAST_FOUR_DIGITS, "invalidAction")
@@ -156,7 +210,7 @@ class CardServiceImplTest {
 
     @Test
     void updateCard_CardNotFound() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.empty());
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenThrow(new CardNotFoundException("Card not found"));
 
         assertThrows(CardNotFoundException.class, () ->
                 cardService.updateCard(LAST_FOUR_DIGITS, "activate")
@@ -164,18 +218,54 @@ class CardServiceImplTest {
         verify(cardRepository, never()).saveAndFlush(any(CardEntity.class));
     }
 
+    @Test
+    void updateCards_ShouldReturnUpdatedUnchangedAndNotFoundCards() {
+        CardStatusUpdateRequest request = new CardStatusUpdateRequest(
+                List.of(CARD_NUMBER, "4000000000000000", CARD_NUMBER, "4000000000001111"), CardStatus.BLOCKED);
+        cardEntity.setCardNumber(CARD_NUMBER);
+        cardEntity.setStatus(CardStatus.BLOCKED);
+        when(cardBulkRepository.updateStatus(anyCollection(), eq(CardStatus.BLOCKED))).thenReturn(List.of(cardEntity));
+        when(cardBulkRepository.findExistingCardNumbers(List.of("4000000000000000", "4000000000001111"))).thenReturn(Set.of("4000000000000000"));
+        when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
+
+        CardStatusUpdateResponse result = cardService.updateCards(request);
+
+        assertEquals(CardStatus.BLOCKED, result.getStatus());
+        assertEquals(List.of(cardDto), result.getUpdated());
+        assertEquals(List.of("************0000"), result.getUnchanged());
+        assertEquals(List.of("************1111"), result.getNotFound());
+        verify(cardBulkRepository).updateStatus(eq(Set.of(CARD_NUMBER, "4000000000000000", "4000000000001111")), eq(CardStatus.BLOCKED));
+        verifyNoInteractions(cardLookup);
+    }
+
+    @Test
+    void updateCards_WhenEveryCardUpdated_ShouldReportNothingElse() {
+        CardStatusUpdateRequest request = new CardStatusUpdateRequest(List.of(CARD_NUMBER), CardStatus.BLOCKED);
+        cardEntity.setCardNumber(CARD_NUMBER);
+        when(cardBulkRepository.updateStatus(anyCollection(), eq(CardStatus.BLOCKED))).thenReturn(List.of(cardEntity));
+        when(cardBulkRepository.findExistingCardNumbers(List.of())).thenReturn(Set.of());
+        when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
+
+        CardStatusUpdateResponse result = cardService.updateCards(request);
+
+        assertEquals(List.of(cardDto), result.getUpdated());
+        assertEquals(List.of(), result.getUnchanged());
+        assertEquals(List.of(), result.getNotFound());
+    }
+
     @Test
     void deleteCard_Success() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.of(cardEntity));
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
 
         cardService.deleteCard(LAST_FOUR_DIGITS);
 
         verify(cardRepository).delete(cardEntity);
+        verify(cardEvents).cardDeleted(cardEntity);
     }
 
     @Test
     void deleteCard_CardNotFound() {
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS)).thenReturn(Optional.empty());
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenThrow(new CardNotFoundException("Card not found"));
 
         assertThrows(CardNotFoundException.class, () ->
                 cardService.deleteCard(LAST_FOUR_DIGITS)
@@ -217,4 +307,29 @@ class CardServiceImplTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void setBalanceStripes_ShouldRestripeAndReturnWholeBalance() {
+        cardEntity.setBalance(Money.parse("100.00"));
+        when(cardLookup.getCard(LAST_FOUR_DIGITS)).thenReturn(cardEntity);
+        when(cardBalanceStripes.restripe(CARD_ID, 8)).thenReturn(25_000L);
+        when(cardMapper.toDto(cardEntity)).thenReturn(cardDto);
+
+        CardDto result = cardService.setBalanceStripes(LAST_FOUR_DIGITS, 8);
+
+        assertEquals(Money.parse("250.00"), result.getBalance());
+        verify(cardRepository, never()).save(any(CardEntity.class));
+    }
+
+    @Test
+    void setBalanceStripes_WithTooManyStripes_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> cardService.setBalanceStripes(LAST_FOUR_DIGITS, 65));
+
+        verifyNoInteractions(cardLookup, cardBalanceStripes);
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("violation", "23505"), constraintName));
+    }
 }
@@ -8,21 +8,35 @@ import com.example.bankcards.dto.responses.BalanceResponse;
 import com.example.bankcards.dto.responses.TransferResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.engine.TransferEngine;
+import com.example.bankcards.events.CardEventRecorder;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.exception.exceptions.InsufficientFundsException;
 import com.example.bankcards.exception.exceptions.TransferException;
 import com.example.bankcards.exception.exceptions.UserNotFoundException;
+import com.example.bankcards.groupcommit.TransferGroupCommitter;
+import com.example.bankcards.lock.CardLockManager;
+import com.example.bankcards.repository.CardBalanceRepository;
+import com.example.bankcards.repository.CardBalanceStripeRepository;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ListingVersionRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.util.CardLookup;
+import com.example.bankcards.util.Versioned;
 import com.example.bankcards.util.mappers.CardMapper;
 import com.example.bankcards.util.mappers.UserMapper;
+import com.example.bankcards.util.money.FxRateTable;
+import com.example.bankcards.util.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -30,8 +44,8 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,6 +67,36 @@ class UserServiceImplTest {
     @Mock
     private CardMapper cardMapper;
 
+    @Mock
+    private CardLookup cardLookup;
+
+    @Mock
+    private FxRateTable fxRateTable;
+
+    @Mock
+    private ObjectProvider<TransferEngine> transferEngine;
+
+    @Mock
+    private CardEventRecorder cardEvents;
+
+    @Mock
+    private CardBalanceRepository cardBalances;
+
+    @Mock
+    private CardBalanceStripeRepository cardBalanceStripes;
+
+    @Mock
+    private ListingVersionRepository listingVersions;
+
+    @Mock
+    private ObjectProvider<TransferGroupCommitter> groupCommitter;
+
+    @Mock
+    private ObjectProvider<CardLockManager> cardLocks;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @Mock
     private SecurityContext securityContext;
 
@@ -94,7 +138,7 @@ class UserServiceImplTest {
         cardEntity1.setCardLastFourDigits(LAST_FOUR_DIGITS_1);
         cardEntity1.setUserEntity(userEntity);
         cardEntity1.setStatus(CardStatus.ACTIVE);
-        cardEntity1.setBalance(new BigDecimal("1000.00"));
+        cardEntity1.setBalance(Money.parse("1000.00"));
 
         cardEntity2 = new CardEntity();
         cardEntity2.setId(CARD_ID_2);
@@ -102,21 +146,21 @@ class UserServiceImplTest {
         cardEntity2.setCardLastFourDigits(LAST_FOUR_DIGITS_2);
         cardEntity2.setUserEntity(userEntity);
         cardEntity2.setStatus(CardStatus.ACTIVE);
-        cardEntity2.setBalance(new BigDecimal("500.00"));
+        cardEntity2.setBalance(Money.parse("500.00"));
 
         cardDto1 = new CardDto();
         cardDto1.setId(CARD_ID_1);
         cardDto1.setCardNumber(CARD_NUMBER_1);
         cardDto1.setLastFourCardDigits(LAST_FOUR_DIGITS_1);
         cardDto1.setStatus(CardStatus.ACTIVE);
-        cardDto1.setBalance(new BigDecimal("1000.00"));
+        cardDto1.setBalance(Money.parse("1000.00"));
 
         cardDto2 = new CardDto();
         cardDto2.setId(CARD_ID_2);
         cardDto2.setCardNumber(CARD_NUMBER_2);
         cardDto2.setLastFourCardDigits(LAST_FOUR_DIGITS_2);
         cardDto2.setStatus(CardStatus.ACTIVE);
-        cardDto2.setBalance(new BigDecimal("500.00"));
+        cardDto2.setBalance(Money.parse("500.00"));
 
         pageable = mock(Pageable.class);
 
@@ -167,9 +211,12 @@ class UserServiceImplTest {
         when(cardRepository.findAllByUserEntityId(USER_ID, pageable)).thenReturn(cardPage);
         when(cardMapper.toDto(cardEntity1)).thenReturn(cardDto1);
         when(cardMapper.toDto(cardEntity2)).thenReturn(cardDto2);
+        when(listingVersions.cardsVersion(USER_ID)).thenReturn("2.-812.0");
 
-        Page<CardDto> result = userService.getCards(pageable, null);
+        Versioned<Page<CardDto>> listing = userService.getCards(pageable, null, version -> false);
+        Page<CardDto> result = listing.body();
 
+        assertEquals("2.-812.0", listing.version());
         assertNotNull(result);
         assertEquals(2, result.getTotalElements());
         assertEquals(CARD_ID_1, result.getContent().get(0).getId());
@@ -187,7 +234,7 @@ class UserServiceImplTest {
         when(cardRepository.findByUserEntityIdAndCardLastFourDigitsContaining(USER_ID, "345", pageable)).thenReturn(cardPage);
         when(cardMapper.toDto(cardEntity1)).thenReturn(cardDto1);
 
-        Page<CardDto> result = userService.getCards(pageable, "345");
+        Page<CardDto> result = userService.getCards(pageable, "345", version -> false).body();
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -199,25 +246,41 @@ class UserServiceImplTest {
         when(securityContext.getAuthentication()).thenReturn(null);
 
         assertThrows(AccessDeniedException.class, () ->
-                userService.getCards(pageable, null)
+                userService.getCards(pageable, null, version -> false)
         );
     }
 
+    @Test
+    void getCards_WhenClientHasTheVersion_ShouldNotLoadThePage() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(userEntity);
+        when(listingVersions.cardsVersion(USER_ID)).thenReturn("2.-812.0");
+
+        Versioned<Page<CardDto>> listing = userService.getCards(pageable, null, "2.-812.0"::equals);
+
+        assertTrue(listing.isUnchanged());
+        assertEquals("2.-812.0", listing.version());
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     void getBalance_Success() {
+        signIn();
         BalanceRequest request = new BalanceRequest();
         request.setLastFourCardDigits(List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2));
 
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS_1)).thenReturn(Optional.of(cardEntity1));
-        when(cardRepository.findByCardLastFourDigits(LAST_FOUR_DIGITS_2)).thenReturn(Optional.of(cardEntity2));
+        Map<String, CardEntity> cards = new LinkedHashMap<>();
+        cards.put(LAST_FOUR_DIGITS_1, cardEntity1);
+        cards.put(LAST_FOUR_DIGITS_2, cardEntity2);
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2))).thenReturn(cards);
 
         List<BalanceResponse> result = userService.getBalance(request);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(new BigDecimal("1000.00"), result.get(0).getBalance());
+        assertEquals(Money.parse("1000.00"), result.get(0).getBalance());
         assertEquals(LAST_FOUR_DIGITS_1, result.get(0).getLastFourCardDigits());
-        assertEquals(new BigDecimal("500.00"), result.get(1).getBalance());
+        assertEquals(Money.parse("500.00"), result.get(1).getBalance());
         assertEquals(LAST_FOUR_DIGITS_2, result.get(1).getLastFourCardDigits());
     }
 
@@ -233,10 +296,11 @@ class UserServiceImplTest {
 
     @Test
     void getBalance_CardNotFound() {
+        signIn();
         BalanceRequest request = new BalanceRequest();
         request.setLastFourCardDigits(List.of("9999"));
 
-        when(cardRepository.findByCardLastFourDigits("9999")).thenReturn(Optional.empty());
+        when(cardLookup.getOwnCards(USER_ID, List.of("9999"))).thenThrow(new CardNotFoundException("Card with last four digits 9999 not found"));
 
         assertThrows(CardNotFoundException.class, () ->
                 userService.getBalance(request)
@@ -245,24 +309,150 @@ class UserServiceImplTest {
 
     @Test
     void transfer_Success() {
+        signIn();
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
         request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_2);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
 
-        List<CardEntity> cards = List.of(cardEntity1, cardEntity2);
-        when(cardRepository.existsByCardLastFourDigits(LAST_FOUR_DIGITS_2)).thenReturn(true);
-        when(cardRepository.findByCardLastFourDigitsIn(List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2))).thenReturn(cards);
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("100.00"));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("100.00"))).thenReturn(true);
 
         TransferResponse result = userService.transfer(request);
 
         assertNotNull(result);
         assertEquals(CARD_NUMBER_1, result.getSourceLastFourCardDigits());
         assertEquals(CARD_NUMBER_2, result.getTargetLastFourCardDigits());
-        assertEquals(new BigDecimal("100.00"), result.getAmount());
-        assertEquals(new BigDecimal("900.00"), cardEntity1.getBalance());
-        assertEquals(new BigDecimal("600.00"), cardEntity2.getBalance());
-        verify(cardRepository).saveAll(List.of(cardEntity1, cardEntity2));
+        assertEquals(Money.parse("100.00"), result.getAmount());
+        verify(cardBalances).credit(CARD_ID_2, Money.parse("100.00"));
+        assertEquals(Money.parse("1000.00"), cardEntity1.getBalance());
+        assertEquals(Money.parse("500.00"), cardEntity2.getBalance());
+        verify(cardRepository, never()).saveAll(any());
+        verify(cardEvents).transfer(cardEntity1, cardEntity2, Money.parse("100.00"), Money.parse("100.00"));
+    }
+
+    @Test
+    void transfer_WithCardLocks_ShouldLockBothCardsAroundTheTransaction() {
+        signIn();
+        CardLockManager lockManager = mock(CardLockManager.class);
+        CardLockManager.Held held = mock(CardLockManager.Held.class);
+        when(cardLocks.getIfAvailable()).thenReturn(lockManager);
+        when(lockManager.lock(List.of("3456", LAST_FOUR_DIGITS_2))).thenReturn(held);
+        UserServiceImpl lockingService = new UserServiceImpl(userRepository, userMapper, cardRepository, cardMapper, cardLookup,
+                fxRateTable, transferEngine, cardEvents, cardBalances, cardBalanceStripes, listingVersions, groupCommitter, cardLocks, transactionOperations);
+        when(cardLookup.getOwnCards(USER_ID, List.of(CARD_NUMBER_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(CARD_NUMBER_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("100.00"));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("100.00"))).thenReturn(true);
+
+        lockingService.transfer(new TransferRequest(CARD_NUMBER_1, LAST_FOUR_DIGITS_2, Money.parse("100.00")));
+
+        var order = inOrder(lockManager, transactionOperations, cardBalances, held);
+        order.verify(lockManager).lock(List.of("3456", LAST_FOUR_DIGITS_2));
+        order.verify(transactionOperations).execute(any());
+        order.verify(cardBalances).debit(CARD_ID_1, Money.parse("100.00"));
+        order.verify(held).close();
+    }
+
+    @Test
+    void transfer_ToHotCard_ShouldCreditStripeInsteadOfCardRow() {
+        signIn();
+        cardEntity2.setBalanceStripes(8);
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
+        request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_2);
+        request.setAmount(Money.parse("100.00"));
+
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("100.00"));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("100.00"))).thenReturn(true);
+
+        userService.transfer(request);
+
+        verify(cardBalanceStripes).credit(cardEntity2, Money.parse("100.00"));
+        verify(cardBalances, never()).credit(any(), any());
+    }
+
+    @Test
+    void transfer_FromHotCard_ShouldCountStripedBalance() {
+        signIn();
+        cardEntity1.setBalance(Money.parse("50.00"));
+        cardEntity1.setBalanceStripes(4);
+        cardEntity1.setStripedBalance(10_000);
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
+        request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_2);
+        request.setAmount(Money.parse("120.00"));
+
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("120.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("120.00"));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("120.00"))).thenReturn(true);
+
+        userService.transfer(request);
+
+        verify(cardBalances).debit(CARD_ID_1, Money.parse("120.00"));
+        verify(cardBalances).credit(CARD_ID_2, Money.parse("120.00"));
+    }
+
+    @Test
+    void transfer_CrossCurrency_ShouldCreditConvertedAmount() {
+        signIn();
+        Currency usd = Currency.getInstance("USD");
+        cardEntity2.setBalance(Money.ofMinor(500, usd));
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
+        request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_2);
+        request.setAmount(Money.parse("100.00"));
+
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), usd)).thenReturn(Money.ofMinor(123, usd));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("100.00"))).thenReturn(true);
+
+        TransferResponse result = userService.transfer(request);
+
+        assertEquals(Money.parse("100.00"), result.getAmount());
+        assertEquals(Money.DEFAULT_CURRENCY, result.getCurrency());
+        assertEquals(Money.ofMinor(123, usd), result.getCreditedAmount());
+        assertEquals(usd, result.getCreditedCurrency());
+        verify(cardBalances).debit(CARD_ID_1, Money.parse("100.00"));
+        verify(cardBalances).credit(CARD_ID_2, Money.ofMinor(123, usd));
+    }
+
+    @Test
+    void transfer_WhenFundsWereSpentConcurrently_ShouldFailOnTheGuardedDebit() {
+        signIn();
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("100.00"));
+        when(cardBalances.debit(CARD_ID_1, Money.parse("100.00"))).thenReturn(false);
+        when(cardMapper.toDto(cardEntity1)).thenReturn(cardDto1);
+
+        assertThrows(InsufficientFundsException.class, () ->
+                userService.transfer(new TransferRequest(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2, Money.parse("100.00")))
+        );
+        verify(cardEvents, never()).transfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void transfer_ShouldUpdateCardRowsInIdOrder() {
+        signIn();
+        cardEntity1.setId(UUID.fromString("ffffffff-0000-7000-8000-000000000000"));
+        cardEntity2.setId(UUID.fromString("00000000-0000-7000-8000-000000000000"));
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2)))
+                .thenReturn(Map.of(LAST_FOUR_DIGITS_1, cardEntity1, LAST_FOUR_DIGITS_2, cardEntity2));
+        when(fxRateTable.convert(Money.parse("100.00"), Money.DEFAULT_CURRENCY)).thenReturn(Money.parse("100.00"));
+        when(cardBalances.debit(cardEntity1.getId(), Money.parse("100.00"))).thenReturn(true);
+
+        userService.transfer(new TransferRequest(LAST_FOUR_DIGITS_1, LAST_FOUR_DIGITS_2, Money.parse("100.00")));
+
+        var order = inOrder(cardBalances);
+        order.verify(cardBalances).credit(cardEntity2.getId(), Money.parse("100.00"));
+        order.verify(cardBalances).debit(cardEntity1.getId(), Money.parse("100.00"));
     }
 
     @Test
@@ -270,27 +460,45 @@ class UserServiceImplTest {
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
         request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_1);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
 
         assertThrows(TransferException.class, () ->
                 userService.transfer(request)
         );
-        verify(cardRepository, never()).saveAll(any());
+        verifyNoInteractions(cardBalances);
+    }
+
+    @Test
+    void transfer_SameCardByDifferentReferences() {
+        signIn();
+        TransferRequest request = new TransferRequest();
+        request.setSourceLastFourCardDigits(CARD_NUMBER_1);
+        request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_1);
+        request.setAmount(Money.parse("100.00"));
+
+        when(cardLookup.getOwnCards(USER_ID, List.of(CARD_NUMBER_1, LAST_FOUR_DIGITS_1)))
+                .thenReturn(Map.of(CARD_NUMBER_1, cardEntity1, LAST_FOUR_DIGITS_1, cardEntity1));
+
+        assertThrows(TransferException.class, () ->
+                userService.transfer(request)
+        );
+        verifyNoInteractions(cardBalances);
     }
 
     @Test
     void transfer_TargetCardNotFound() {
+        signIn();
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
         request.setTargetLastFourCardDigits("9999");
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
 
-        when(cardRepository.existsByCardLastFourDigits("9999")).thenReturn(false);
+        when(cardLookup.getOwnCards(USER_ID, List.of(LAST_FOUR_DIGITS_1, "9999"))).thenThrow(new CardNotFoundException("Card with last four digits 9999 not found"));
 
         assertThrows(CardNotFoundException.class, () ->
                 userService.transfer(request)
         );
-        verify(cardRepository, never()).saveAll(any());
+        verifyNoInteractions(cardBalances);
     }
 
     @Test
@@ -298,13 +506,16 @@ class UserServiceImplTest {
         TransferRequest request = new TransferRequest();
         request.setSourceLastFourCardDigits(LAST_FOUR_DIGITS_1);
         request.setTargetLastFourCardDigits(LAST_FOUR_DIGITS_2);
-        request.setAmount(new BigDecimal("-100.00"));
-
-        when(cardRepository.existsByCardLastFourDigits(LAST_FOUR_DIGITS_2)).thenReturn(true);
+        request.setAmount(Money.parse("-100.00"));
 
         assertThrows(TransferException.class, () ->
                 userService.transfer(request)
         );
-        verify(cardRepository, never()).saveAll(any());
+        verifyNoInteractions(cardBalances);
+    }
+
+    private void signIn() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(userEntity);
     }
 }
@@ -0,0 +1,204 @@
+package com.example.bankcards.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Black-box checks against a running instance with the demo data, used to verify a native image
+ * (or any other build) end to end: {@code mvn -Psmoke test -Dsmoke.base-url=http://localhost:8081}.
+ * They touch the paths that depend on reflection or resources at runtime: Jackson and CBOR
+ * binding, JWT, Hibernate, Liquibase and springdoc, and check that a status change does not lose
+ * transfers committed concurrently. Not part of the regular test run.
+ */
+@Tag("smoke")
+class ApiSmokeTest {
+
+    private static final String BASE_URL = System.getProperty("smoke.base-url", "http://localhost:8081");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static String userToken;
+    private static String adminToken;
+
+    @BeforeAll
+    static void login() throws Exception {
+        userToken = login(System.getProperty("smoke.user", "user"), System.getProperty("smoke.user-password", "admin"));
+        adminToken = login(System.getProperty("smoke.admin", "admin"), System.getProperty("smoke.admin-password", "admin"));
+    }
+
+    @Test
+    void health_ShouldBeUp() throws Exception {
+        HttpResponse<String> response = send(request("/actuator/health", null).GET());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("UP", OBJECT_MAPPER.readTree(response.body()).path("status").asText());
+    }
+
+    @Test
+    void getCards_ShouldReturnPageAndHonourETag() throws Exception {
+        HttpResponse<String> response = send(request("/user/cards/get", userToken).GET());
+
+        assertEquals(200, response.statusCode());
+        JsonNode page = OBJECT_MAPPER.readTree(response.body());
+        assertTrue(page.path("totalElements").asLong() > 0);
+        assertFalse(page.path("content").get(0).path("last_four_card_digits").asText().isEmpty());
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, send(request("/user/cards/get", userToken).header("If-None-Match", etag).GET()).statusCode());
+    }
+
+    @Test
+    void getCards_AsCbor_ShouldNegotiateCbor() throws Exception {
+        HttpResponse<byte[]> response = HTTP.send(request("/user/cards/get", userToken).header("Accept", "application/cbor").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/cbor", response.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(response.body().length > 0);
+    }
+
+    @Test
+    void getBalance_ShouldReturnBalancePerCard() throws Exception {
+        JsonNode cards = OBJECT_MAPPER.readTree(send(request("/user/cards/get", userToken).GET()).body()).path("content");
+        String lastFour = cards.get(0).path("last_four_card_digits").asText();
+
+        HttpResponse<String> response = send(request("/user/cards/balance", userToken)
+                .header("Content-Type", "application/json")
+                .method("GET", HttpRequest.BodyPublishers.ofString("{\"last_four_card_digits\":[\"" + lastFour + "\"]}")));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(OBJECT_MAPPER.readTree(response.body()).get(0).has("balance"));
+    }
+
+    @Test
+    void transfer_BackAndForth_ShouldSucceed() throws Exception {
+        String[] pair = cardsInOneCurrency();
+        String first = pair[0];
+        String second = pair[1];
+
+        assertEquals(200, transfer(first, second).statusCode());
+        HttpResponse<String> back = transfer(second, first);
+
+        assertEquals(200, back.statusCode());
+        assertEquals("0.01", OBJECT_MAPPER.readTree(back.body()).path("amount").asText());
+    }
+
+    @Test
+    void transfer_WhileTargetStatusChanges_ShouldKeepEveryCredit() throws Exception {
+        String[] pair = cardsInOneCurrency();
+        BigDecimal sourceBefore = balance(pair[0]);
+        BigDecimal targetBefore = balance(pair[1]);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> transfers = executor.submit(() -> {
+                int completed = 0;
+                for (int i = 0; i < 40; i++) {
+                    if (transfer(pair[0], pair[1]).statusCode() == 200) {
+                        completed++;
+                    }
+                }
+                return completed;
+            });
+            Future<?> statusChanges = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    setStatus(pair[1], i % 2 == 0 ? "deactivate" : "activate");
+                }
+                return null;
+            });
+            statusChanges.get(60, TimeUnit.SECONDS);
+            BigDecimal moved = new BigDecimal("0.01").multiply(BigDecimal.valueOf(transfers.get(60, TimeUnit.SECONDS)));
+
+            assertEquals(sourceBefore.subtract(moved), balance(pair[0]));
+            assertEquals(targetBefore.add(moved), balance(pair[1]));
+        } finally {
+            setStatus(pair[1], "activate");
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void adminListings_ShouldRespond() throws Exception {
+        assertEquals(200, send(request("/admin/cards/", adminToken).GET()).statusCode());
+        assertEquals(200, send(request("/admin/cards/block/requests", adminToken).GET()).statusCode());
+        assertEquals(200, send(request("/admin/users/", adminToken).GET()).statusCode());
+    }
+
+    @Test
+    void adminListings_ForUser_ShouldBeForbidden() throws Exception {
+        assertEquals(403, send(request("/admin/cards/", userToken).GET()).statusCode());
+    }
+
+    @Test
+    void apiDocs_ShouldBeServed() throws Exception {
+        HttpResponse<String> response = send(request("/v3/api-docs", null).GET());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(OBJECT_MAPPER.readTree(response.body()).path("paths").has("/user/cards/transfer"));
+    }
+
+    private static String[] cardsInOneCurrency() throws IOException, InterruptedException {
+        JsonNode cards = OBJECT_MAPPER.readTree(send(request("/user/cards/get?size=50", userToken).GET()).body()).path("content");
+        for (int i = 0; i < cards.size(); i++) {
+            for (int j = i + 1; j < cards.size(); j++) {
+                if (cards.get(i).path("currency").equals(cards.get(j).path("currency"))) {
+                    return new String[]{cards.get(i).path("last_four_card_digits").asText(), cards.get(j).path("last_four_card_digits").asText()};
+                }
+            }
+        }
+        return fail("the smoke user needs two cards in one currency");
+    }
+
+    private static BigDecimal balance(String lastFour) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/user/cards/balance", userToken)
+                .header("Content-Type", "application/json")
+                .method("GET", HttpRequest.BodyPublishers.ofString("{\"last_four_card_digits\":[\"" + lastFour + "\"]}")));
+        assertEquals(200, response.statusCode(), response::body);
+        return new BigDecimal(OBJECT_MAPPER.readTree(response.body()).get(0).path("balance").asText());
+    }
+
+    private static void setStatus(String lastFour, String activate) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/admin/cards/update?last_four_card_digits=" + lastFour + "&activate=" + activate, adminToken)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+        assertEquals(200, response.statusCode(), response::body);
+    }
+
+    private static HttpResponse<String> transfer(String source, String target) throws IOException, InterruptedException {
+        return send(request("/user/cards/transfer", userToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"source\":\"" + source + "\",\"target\":\"" + target + "\",\"amount\":\"0.01\"}")));
+    }
+
+    private static String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/auth/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}")));
+        assertEquals(200, response.statusCode(), () -> "login as " + username + " failed: " + response.body());
+        return OBJECT_MAPPER.readTree(response.body()).path("token").asText();
+    }
+
+    private static HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(BASE_URL + path)).timeout(Duration.ofSeconds(10));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
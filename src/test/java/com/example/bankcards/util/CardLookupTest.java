@@ -0,0 +1,146 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.exception.exceptions.AmbiguousCardReferenceException;
+import com.example.bankcards.exception.exceptions.CardNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardLookupTest {
+
+    private static final String CARD_NUMBER = "4000123412341111";
+    private static final String OTHER_CARD_NUMBER = "5000123412341111";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private final CardTokenizer cardTokenizer = new CardTokenizer("test-secret");
+
+    private CardLookup cardLookup;
+
+    @BeforeEach
+    void setUp() {
+        cardLookup = new CardLookup(cardRepository, cardTokenizer);
+    }
+
+    @Test
+    void tokenize_ShouldBeDeterministicAndKeyed() {
+        assertEquals(cardTokenizer.tokenize(CARD_NUMBER), cardTokenizer.tokenize(CARD_NUMBER));
+        assertEquals(64, cardTokenizer.tokenize(CARD_NUMBER).length());
+        assertNotEquals(cardTokenizer.tokenize(CARD_NUMBER), cardTokenizer.tokenize(OTHER_CARD_NUMBER));
+        assertNotEquals(cardTokenizer.tokenize(CARD_NUMBER), new CardTokenizer("other-secret").tokenize(CARD_NUMBER));
+    }
+
+    @Test
+    void tokenizer_WithoutSecret_ShouldFailToStart() {
+        assertThrows(IllegalStateException.class, () -> new CardTokenizer(""));
+        assertThrows(IllegalStateException.class, () -> new CardTokenizer(null));
+    }
+
+    @Test
+    void getCard_FullCardNumber_ShouldLookUpByToken() {
+        CardEntity card = card(CARD_NUMBER);
+        CardEntity sameLastFour = card(OTHER_CARD_NUMBER);
+        String token = cardTokenizer.tokenize(CARD_NUMBER);
+        when(cardRepository.findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(card, sameLastFour));
+
+        assertSame(card, cardLookup.getCard(CARD_NUMBER));
+        verify(cardRepository).findAllByCardTokenInOrCardLastFourDigitsIn(
+                argThat(tokens -> tokens.size() == 1 && tokens.contains(token)), argThat(Collection::isEmpty));
+    }
+
+    @Test
+    void getCards_ShouldResolveMixedReferencesWithOneQuery() {
+        CardEntity first = card(CARD_NUMBER);
+        CardEntity second = card("4000123412342222");
+        when(cardRepository.findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(first, second));
+
+        Map<String, CardEntity> cards = cardLookup.getCards(List.of(CARD_NUMBER, "2222"));
+
+        assertSame(first, cards.get(CARD_NUMBER));
+        assertSame(second, cards.get("2222"));
+        verify(cardRepository, times(1)).findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void getCard_AmbiguousLastFourDigits_ShouldThrow() {
+        when(cardRepository.findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(card(CARD_NUMBER), card(OTHER_CARD_NUMBER)));
+
+        assertThrows(AmbiguousCardReferenceException.class, () -> cardLookup.getCard("1111"));
+    }
+
+    @Test
+    void getOwnCards_LastFourDigits_ShouldOnlyMatchOwnCards() {
+        UUID ownerId = UUID.randomUUID();
+        CardEntity own = card(CARD_NUMBER, ownerId);
+        CardEntity othersSameLastFour = card(OTHER_CARD_NUMBER, UUID.randomUUID());
+        when(cardRepository.findAllByCardTokenInOrUserEntityIdAndCardLastFourDigitsIn(anyCollection(), eq(ownerId), anyCollection()))
+                .thenReturn(List.of(own, othersSameLastFour));
+
+        Map<String, CardEntity> cards = cardLookup.getOwnCards(ownerId, List.of("1111", OTHER_CARD_NUMBER));
+
+        assertSame(own, cards.get("1111"));
+        assertSame(othersSameLastFour, cards.get(OTHER_CARD_NUMBER));
+        verify(cardRepository, never()).findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void getOwnCard_OtherUsersLastFourDigits_ShouldNotBeFound() {
+        UUID ownerId = UUID.randomUUID();
+        when(cardRepository.findAllByCardTokenInOrUserEntityIdAndCardLastFourDigitsIn(anyCollection(), eq(ownerId), anyCollection()))
+                .thenReturn(List.of());
+
+        assertThrows(CardNotFoundException.class, () -> cardLookup.getOwnCard(ownerId, "1111"));
+    }
+
+    @Test
+    void getCard_NotFound_ShouldThrow() {
+        when(cardRepository.findAllByCardTokenInOrCardLastFourDigitsIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        CardNotFoundException exception = assertThrows(CardNotFoundException.class, () -> cardLookup.getCard(CARD_NUMBER));
+        assertEquals("Card ************1111 not found", exception.getMessage());
+    }
+
+    @Test
+    void getCard_InvalidReference_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> cardLookup.getCard("123"));
+        verifyNoInteractions(cardRepository);
+    }
+
+    private CardEntity card(String cardNumber, UUID ownerId) {
+        UserEntity owner = new UserEntity();
+        owner.setId(ownerId);
+        CardEntity card = card(cardNumber);
+        card.setUserEntity(owner);
+        return card;
+    }
+
+    private CardEntity card(String cardNumber) {
+        CardEntity card = new CardEntity();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(cardNumber);
+        card.setCardToken(cardTokenizer.tokenize(cardNumber));
+        return card;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.util.tracing.FileSpanExporter;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSpanExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void export_ShouldWriteOneLinePerSpan() throws Exception {
+        Path file = tempDir.resolve("spans.log");
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file)))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        Span parent = tracer.spanBuilder("transfer").startSpan();
+        Span child = tracer.spanBuilder("jdbc.query").setParent(Context.current().with(parent)).startSpan();
+        child.setAttribute("jdbc.query[0]", "select 1");
+        child.end();
+        parent.end();
+        tracerProvider.shutdown();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("name=\"jdbc.query\""));
+        assertTrue(lines.get(0).contains("parent_id=" + parent.getSpanContext().getSpanId()));
+        assertTrue(lines.get(1).contains("name=\"transfer\""));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageSerializerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JacksonConfig().pageEnvelopeModule())
+            .build();
+
+    @Test
+    void serialize_ShouldWriteContentAndCountersOnly() throws Exception {
+        Page<String> page = new PageImpl<>(List.of("a", "b"), PageRequest.of(1, 2, Sort.Direction.DESC, "id"), 5);
+
+        assertEquals("{\"content\":[\"a\",\"b\"],\"totalElements\":5,\"totalPages\":3,\"number\":1,\"size\":2,"
+                + "\"numberOfElements\":2,\"first\":false,\"last\":false,\"empty\":false}", objectMapper.writeValueAsString(page));
+    }
+
+    @Test
+    void serialize_UnpagedPage_ShouldNotFail() throws Exception {
+        assertEquals("{\"content\":[],\"totalElements\":0,\"totalPages\":1,\"number\":0,\"size\":0,"
+                + "\"numberOfElements\":0,\"first\":true,\"last\":true,\"empty\":true}", objectMapper.writeValueAsString(Page.empty()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.util.sql.QueryBudgetFilter;
+import com.example.bankcards.util.sql.QueryStatsHolder;
+import com.example.bankcards.util.sql.RequestQueryStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class QueryBudgetAssertions {
+
+    private QueryBudgetAssertions() {
+    }
+
+    public static ResultMatcher statementsAtMost(int maxStatements) {
+        return result -> {
+            RequestQueryStats stats = (RequestQueryStats) result.getRequest().getAttribute(QueryBudgetFilter.STATS_ATTRIBUTE);
+            assertNotNull(stats, "QueryBudgetFilter is not registered in this MockMvc setup");
+            assertTrue(stats.getStatements() <= maxStatements,
+                    String.format("Expected at most %d SQL statements but %d were executed", maxStatements, stats.getStatements()));
+        };
+    }
+
+    public static RequestQueryStats measure(Runnable action) {
+        RequestQueryStats stats = QueryStatsHolder.start("TEST", "test");
+        try {
+            action.run();
+        } finally {
+            QueryStatsHolder.clear();
+        }
+        return stats;
+    }
+
+    public static void assertStatementsAtMost(int maxStatements, Runnable action) {
+        RequestQueryStats stats = measure(action);
+        assertTrue(stats.getStatements() <= maxStatements,
+                String.format("Expected at most %d SQL statements but %d were executed", maxStatements, stats.getStatements()));
+    }
+}
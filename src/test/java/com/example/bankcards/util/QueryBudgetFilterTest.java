@@ -0,0 +1,93 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.SqlBudgetProperties;
+import com.example.bankcards.util.sql.QueryBudgetFilter;
+import com.example.bankcards.util.sql.QueryStatsListener;
+import com.example.bankcards.util.sql.RequestQueryStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.bankcards.util.QueryBudgetAssertions.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class QueryBudgetFilterTest {
+
+    private static final QueryStatsListener LISTENER = new QueryStatsListener(Duration.ofMillis(100));
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        SqlBudgetProperties properties = new SqlBudgetProperties();
+        properties.setMaxStatements(5);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StatementsController())
+                .addFilters(new QueryBudgetFilter(properties, meterRegistry))
+                .build();
+    }
+
+    @Test
+    void filter_ShouldCountStatementsPerRequest() throws Exception {
+        mockMvc.perform(get("/statements/3"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(3));
+
+        DistributionSummary summary = meterRegistry.find("sql.request.statements")
+                .tag("uri", "/statements/{count}")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(3.0, summary.totalAmount());
+        assertEquals(3.0, meterRegistry.find("sql.request.rows").summary().totalAmount());
+    }
+
+    @Test
+    void filter_ShouldFailBudgetAssertion_WhenTooManyStatements() {
+        assertThrows(AssertionError.class, () -> mockMvc.perform(get("/statements/4"))
+                .andExpect(statementsAtMost(3)));
+    }
+
+    @Test
+    void measure_ShouldCountStatementsOutsideRequest() {
+        RequestQueryStats stats = QueryBudgetAssertions.measure(() -> executeStatements(2));
+
+        assertEquals(2, stats.getStatements());
+        assertEquals(2, stats.getRows());
+    }
+
+    @Test
+    void listener_ShouldIgnoreStatements_WhenNoRequestIsTracked() {
+        assertDoesNotThrow(() -> executeStatements(1));
+    }
+
+    private static void executeStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            ExecutionInfo info = new ExecutionInfo();
+            info.setElapsedTime(1);
+            info.setResult(1);
+            LISTENER.afterQuery(info, List.of());
+        }
+    }
+
+    @RestController
+    static class StatementsController {
+        @GetMapping("/statements/{count}")
+        public String statements(@PathVariable("count") int count) {
+            executeStatements(count);
+            return "ok";
+        }
+    }
+}
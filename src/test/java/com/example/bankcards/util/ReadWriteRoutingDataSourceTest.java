@@ -0,0 +1,129 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.util.sql.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private HikariDataSource primary;
+
+    @Mock
+    private HikariDataSource firstReplica;
+
+    @Mock
+    private HikariDataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstReplicaConnection;
+
+    @Mock
+    private Connection secondReplicaConnection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getPoolName()).thenReturn("replica-0");
+        when(secondReplica.getPoolName()).thenReturn("replica-1");
+        dataSource = new ReadWriteRoutingDataSource(primary, List.of(firstReplica, secondReplica),
+                Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    void readOnlyConnections_ShouldGoRoundRobinToReplicasWithinLag() throws SQLException {
+        replicaLag(firstReplica, firstReplicaConnection, 0.0);
+        replicaLag(secondReplica, secondReplicaConnection, 1200.0);
+        dataSource.start();
+
+        readOnlyStatement();
+        readOnlyStatement();
+        readWriteStatement();
+
+        verify(firstReplicaConnection).createStatement();
+        verify(secondReplicaConnection).createStatement();
+        verify(primaryConnection).createStatement();
+        assertEquals(2, meterRegistry.counter("datasource.reads", "target", "replica").count());
+        assertEquals(1.2, meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void readOnlyConnection_WhenReplicasLagOrAreDown_ShouldFallBackToPrimary() throws SQLException {
+        replicaLag(firstReplica, firstReplicaConnection, 60_000.0);
+        when(secondReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        dataSource.start();
+
+        readOnlyStatement();
+
+        verify(primaryConnection).createStatement();
+        verify(firstReplicaConnection, never()).createStatement();
+        assertEquals(1, meterRegistry.counter("datasource.reads", "target", "primary").count());
+        assertEquals(-0.001, meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void readOnlyConnection_WhenReplicaFailsToConnect_ShouldSkipItAndUseTheOther() throws SQLException {
+        replicaLag(firstReplica, firstReplicaConnection, 0.0);
+        replicaLag(secondReplica, secondReplicaConnection, 0.0);
+        dataSource.start();
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        readOnlyStatement();
+        readOnlyStatement();
+
+        verify(secondReplicaConnection, times(2)).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    private void readOnlyStatement() throws SQLException {
+        Boolean previous = ReadWriteRoutingDataSource.markReadOnly();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        } finally {
+            ReadWriteRoutingDataSource.restore(previous);
+        }
+    }
+
+    private void readWriteStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+    }
+
+    private static void replicaLag(HikariDataSource replica, Connection readConnection, double lagMillis) throws SQLException {
+        Connection checkConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(checkConnection, readConnection);
+        when(checkConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagMillis);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.controller.AdminController;
+import com.example.bankcards.controller.UserController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectiveLazyInitializationTest {
+
+    @Test
+    void postProcess_ShouldMakeOnlyMatchingApplicationBeansLazy() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("adminController", new RootBeanDefinition(AdminController.class));
+        beanFactory.registerBeanDefinition("userController", new RootBeanDefinition(UserController.class));
+        RootBeanDefinition infrastructure = new RootBeanDefinition(AdminController.class);
+        infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        beanFactory.registerBeanDefinition("infrastructure", infrastructure);
+
+        new SelectiveLazyInitialization(List.of(AdminController.class.getName(), "org.springdoc")).postProcessBeanFactory(beanFactory);
+
+        assertTrue(beanFactory.getBeanDefinition("adminController").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("userController").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("infrastructure").isLazyInit());
+    }
+}
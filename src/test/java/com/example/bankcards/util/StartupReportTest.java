@@ -0,0 +1,56 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.responses.StartupReportResponse;
+import com.example.bankcards.dto.responses.StartupStepTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupReportTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    @Test
+    void report_ShouldSplitNestedBeanTimeIntoTotalAndSelf() throws InterruptedException {
+        beanFactory.registerBeanDefinition("cardService", new RootBeanDefinition(ArrayList.class));
+        beanFactory.registerBeanDefinition("cardRepository", new RootBeanDefinition(StringBuilder.class));
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "cardService");
+        StartupStep repository = startup.start("spring.beans.instantiate").tag("beanName", "cardRepository");
+        Thread.sleep(40);
+        repository.end();
+        Thread.sleep(10);
+        service.end();
+        refresh.end();
+
+        StartupReportResponse report = new StartupReport(startup, beanFactory).report();
+
+        assertEquals(3, report.getRecordedSteps());
+        assertEquals(List.of("spring.context.refresh"), report.getPhases().stream().map(StartupStepTime::getName).toList());
+        assertEquals(List.of("cardRepository", "cardService"), report.getSlowestBeans().stream().map(StartupStepTime::getName).toList());
+        StartupStepTime repositoryTime = report.getSlowestBeans().get(0);
+        StartupStepTime serviceTime = report.getSlowestBeans().get(1);
+        assertEquals("java.lang.StringBuilder", repositoryTime.getType());
+        assertTrue(repositoryTime.getSelfMs() >= 40);
+        assertTrue(serviceTime.getTotalMs() >= 50);
+        assertTrue(serviceTime.getSelfMs() < serviceTime.getTotalMs() - 30);
+        assertEquals(List.of("java.lang", "java.util"), report.getPackages().stream().map(StartupStepTime::getName).toList());
+    }
+
+    @Test
+    void report_WithoutBufferingStartup_ShouldBeEmpty() {
+        StartupReportResponse report = new StartupReport(ApplicationStartup.DEFAULT, beanFactory).report();
+
+        assertEquals(0, report.getRecordedSteps());
+        assertTrue(report.getSlowestBeans().isEmpty());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.util;
+
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+public final class VersionedListings {
+
+    private VersionedListings() {
+    }
+
+    /**
+     * Answers a versioned listing read the way the services do: the listing is at each of the given
+     * versions in turn, the last one repeating, and the body is left out when the caller's
+     * {@code unchanged} predicate, the last argument, accepts the version.
+     */
+    public static <T> Answer<Versioned<T>> listing(T body, String... versions) {
+        AtomicInteger calls = new AtomicInteger();
+        return invocation -> {
+            String version = versions[Math.min(calls.getAndIncrement(), versions.length - 1)];
+            Predicate<String> unchanged = invocation.getArgument(invocation.getArguments().length - 1);
+            return unchanged.test(version) ? Versioned.unchanged(version) : new Versioned<>(version, body);
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.util.money;
+
+import com.example.bankcards.exception.exceptions.FxRateUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateSnapshotTest {
+
+    private static final Currency RUB = Currency.getInstance("RUB");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private final FxRateSnapshot snapshot = FxRateSnapshot.of(Map.of(
+            RUB, BigDecimal.ONE,
+            USD, new BigDecimal("80"),
+            JPY, new BigDecimal("0.55")), Instant.EPOCH, Instant.EPOCH);
+
+    @Test
+    void convert_ShouldUseCrossRatesInMinorUnits() {
+        assertEquals(Money.ofMinor(125, USD), snapshot.convert(Money.parse("100.00"), USD));
+        assertEquals(Money.parse("8000.00"), snapshot.convert(Money.ofMinor(10_000, USD), RUB));
+        assertEquals(Money.ofMinor(2, JPY), snapshot.convert(Money.parse("1.00"), JPY));
+        assertEquals(Money.ofMinor(14_545, JPY), snapshot.convert(Money.ofMinor(10_000, USD), JPY));
+    }
+
+    @Test
+    void convert_ShouldRoundHalfUp() {
+        assertEquals(Money.ofMinor(1, USD), snapshot.convert(Money.parse("0.40"), USD));
+        assertEquals(Money.ofMinor(0, USD), snapshot.convert(Money.parse("0.39"), USD));
+    }
+
+    @Test
+    void convert_LargeAmount_ShouldFallBackToExactArithmetic() {
+        Money large = Money.ofMinor(Long.MAX_VALUE / 100);
+
+        assertEquals(Money.ofMinor(1_152_921_504_606_847L, USD), snapshot.convert(large, USD));
+    }
+
+    @Test
+    void convert_SameCurrency_ShouldReturnAmount() {
+        Money amount = Money.ofMinor(42, EUR);
+
+        assertSame(amount, FxRateSnapshot.empty().convert(amount, EUR));
+    }
+
+    @Test
+    void convert_UnknownCurrency_ShouldThrow() {
+        assertThrows(FxRateUnavailableException.class, () -> snapshot.convert(Money.parse("1.00"), EUR));
+        assertThrows(FxRateUnavailableException.class, () -> FxRateSnapshot.empty().convert(Money.parse("1.00"), USD));
+    }
+}
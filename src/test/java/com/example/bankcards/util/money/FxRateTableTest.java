@@ -0,0 +1,74 @@
+package com.example.bankcards.util.money;
+
+import com.example.bankcards.entity.FxRateEntity;
+import com.example.bankcards.repository.FxRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxRateTableTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FxRateTable fxRateTable;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fxRateTable = new FxRateTable(fxRateRepository, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void refresh_ShouldSwapSnapshotAndReportAge() {
+        when(fxRateRepository.findAll()).thenReturn(List.of(
+                new FxRateEntity("RUB", BigDecimal.ONE, NOW.minusSeconds(30)),
+                new FxRateEntity("USD", new BigDecimal("80"), NOW.minusSeconds(90))));
+
+        fxRateTable.refresh();
+
+        assertEquals(Money.ofMinor(125, USD), fxRateTable.convert(Money.parse("100.00"), USD));
+        assertEquals(90.0, meterRegistry.get("fx.rates.age").gauge().value());
+        assertEquals(0.0, meterRegistry.get("fx.snapshot.age").gauge().value());
+        assertEquals(1.0, meterRegistry.get("fx.rates.refresh").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void refresh_Failure_ShouldKeepPreviousSnapshot() {
+        when(fxRateRepository.findAll())
+                .thenReturn(List.of(
+                        new FxRateEntity("RUB", BigDecimal.ONE, NOW),
+                        new FxRateEntity("USD", new BigDecimal("80"), NOW)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        fxRateTable.refresh();
+        FxRateSnapshot loaded = fxRateTable.snapshot();
+        fxRateTable.refresh();
+
+        assertSame(loaded, fxRateTable.snapshot());
+        assertEquals(1.0, meterRegistry.get("fx.rates.refresh").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void gauges_BeforeFirstRefresh_ShouldBeNaN() {
+        assertTrue(Double.isNaN(meterRegistry.get("fx.rates.age").gauge().value()));
+    }
+}
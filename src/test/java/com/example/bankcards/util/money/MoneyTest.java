@@ -0,0 +1,106 @@
+package com.example.bankcards.util.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_ShouldScaleToMinorUnits() {
+        assertEquals(100_000L, Money.parse("1000").getMinorUnits());
+        assertEquals(1_050L, Money.parse("10.5").getMinorUnits());
+        assertEquals(1_050L, Money.parse("10.50").getMinorUnits());
+        assertEquals(1_050L, Money.parse("10.500").getMinorUnits());
+        assertEquals(-1L, Money.parse("-0.01").getMinorUnits());
+        assertEquals(5L, Money.parse(".05").getMinorUnits());
+        assertEquals(10L, Money.parse("10", Currency.getInstance("JPY")).getMinorUnits());
+    }
+
+    @Test
+    void parse_ShouldRejectLossyOrMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("10.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1e3"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("-"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(""));
+        assertThrows(ArithmeticException.class, () -> Money.parse("92233720368547758.08"));
+    }
+
+    @Test
+    void arithmetic_ShouldBeExactAndOverflowChecked() {
+        Money balance = Money.parse("1000.00");
+        Money amount = Money.parse("0.10");
+
+        assertEquals(Money.parse("999.90"), balance.minus(amount));
+        assertEquals(Money.parse("1000.10"), balance.plus(amount));
+        assertTrue(amount.isLessThan(balance));
+        assertTrue(Money.ofMinor(Long.MIN_VALUE).isNegative());
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void arithmetic_DifferentCurrencies_ShouldThrow() {
+        Money rub = Money.ofMinor(100);
+        Money usd = Money.ofMinor(100, Currency.getInstance("USD"));
+
+        assertThrows(IllegalArgumentException.class, () -> rub.plus(usd));
+        assertThrows(IllegalArgumentException.class, () -> rub.isLessThan(usd));
+        assertNotEquals(rub, usd);
+    }
+
+    @Test
+    void toString_ShouldUseCurrencyScale() {
+        assertEquals("0.00", Money.zero().toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("1234.50", Money.ofMinor(123_450).toString());
+        assertEquals("1234", Money.ofMinor(1234, Currency.getInstance("JPY")).toString());
+    }
+
+    @Test
+    void json_ShouldRoundTripAsNumber() throws Exception {
+        assertEquals("10000.00", objectMapper.writeValueAsString(Money.ofMinor(1_000_000)));
+        assertEquals(Money.ofMinor(1_050), objectMapper.readValue("10.50", Money.class));
+        assertEquals(Money.ofMinor(1_000), objectMapper.readValue("10", Money.class));
+        assertEquals(Money.ofMinor(1_000), objectMapper.readValue("\"10.00\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("10.00001", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1e3", Money.class));
+    }
+
+    @Test
+    void json_ShouldKeepFractionDigitsUntilTheCurrencyIsKnown() throws Exception {
+        Currency kwd = Currency.getInstance("KWD");
+        Money amount = objectMapper.readValue("1.234", Money.class);
+
+        assertEquals(Money.ofMinor(1_234, kwd), amount.withCurrency(kwd));
+        assertEquals(Money.ofMinor(5, Currency.getInstance("CLF")), objectMapper.readValue("0.0005", Money.class).withCurrency(Currency.getInstance("CLF")));
+        assertEquals(Money.ofMinor(1_050), objectMapper.readValue("10.5000", Money.class));
+        assertThrows(IllegalArgumentException.class, () -> amount.withCurrency(Money.DEFAULT_CURRENCY));
+    }
+
+    @Test
+    void withCurrency_ShouldRescaleWithoutLosingPrecision() {
+        Currency jpy = Currency.getInstance("JPY");
+        Currency kwd = Currency.getInstance("KWD");
+
+        assertEquals(Money.ofMinor(15, jpy), Money.parse("15.00").withCurrency(jpy));
+        assertEquals(Money.ofMinor(1_500, kwd), Money.parse("1.50").withCurrency(kwd));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("15.50").withCurrency(jpy));
+    }
+
+    @Test
+    void moneyType_ShouldMapMinorUnitsAndCurrency() {
+        MoneyType type = new MoneyType();
+        Money usd = Money.ofMinor(1_050, Currency.getInstance("USD"));
+
+        assertEquals(Currency.getInstance("USD"), type.getPropertyValue(usd, 0));
+        assertEquals(1_050L, type.getPropertyValue(usd, 1));
+        assertEquals(usd, type.assemble(type.disassemble(usd), null));
+    }
+}